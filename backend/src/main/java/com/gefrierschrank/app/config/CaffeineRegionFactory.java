@@ -0,0 +1,42 @@
+package com.gefrierschrank.app.config;
+
+import com.gefrierschrank.app.constants.AppConstants;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+
+import javax.cache.CacheManager;
+import java.util.Map;
+import java.util.OptionalLong;
+
+/**
+ * Caffeine backed regions for Hibernate's second-level and query caches, set as
+ * {@code hibernate.cache.region.factory_class}. Every region is declared here and Hibernate is set
+ * to fail on any other, so an entity cannot silently end up in an unbounded cache. Each session
+ * factory gets a manager from a provider of its own rather than the JVM wide default, which keeps
+ * the regions of separate application contexts (as in tests) apart.
+ */
+public class CaffeineRegionFactory extends JCacheRegionFactory {
+
+    @Override
+    protected CacheManager resolveCacheManager(SessionFactoryOptions settings, Map<String, Object> properties) {
+        CacheManager cacheManager = new CaffeineCachingProvider().getCacheManager();
+        createRegion(cacheManager, AppConstants.CATEGORY_CACHE_REGION, AppConstants.CATEGORY_CACHE_MAX_SIZE);
+        createRegion(cacheManager, AppConstants.CATEGORY_QUERY_CACHE_REGION, AppConstants.QUERY_CACHE_MAX_SIZE);
+        createRegion(cacheManager, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                AppConstants.QUERY_CACHE_MAX_SIZE);
+        // Hibernate decides from these whether cached query results are stale; they must never be evicted
+        createRegion(cacheManager, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, null);
+        return cacheManager;
+    }
+
+    private static void createRegion(CacheManager cacheManager, String name, Integer maximumSize) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        if (maximumSize != null) {
+            configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        }
+        cacheManager.createCache(name, configuration);
+    }
+}
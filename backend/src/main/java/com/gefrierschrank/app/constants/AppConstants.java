@@ -11,6 +11,20 @@ public final class AppConstants {
     public static final int MAX_PAGE_SIZE = 100;
     public static final int DEFAULT_PAGE_NUMBER = 0;
 
+    // Batch operations
+    public static final int MAX_BATCH_SIZE = 100;
+
+    // Export and import
+    public static final int EXPORT_FETCH_SIZE = 500;
+    public static final int IMPORT_MAX_REPORTED_ERRORS = 1000;
+
+    // Delta sync
+    public static final int SYNC_OVERLAP_SECONDS = 60;
+    public static final int DELETED_ITEM_RETENTION_DAYS = 90;
+
+    // Search index
+    public static final int SEARCH_INDEX_FETCH_SIZE = 500;
+
     // Expiry
     public static final int DEFAULT_EXPIRY_WARNING_DAYS = 7;
     public static final int EXPIRY_BUFFER_DAYS = 1;
@@ -19,6 +33,19 @@ public final class AppConstants {
 
     // JWT
     public static final long JWT_MAX_AGE_SECONDS = 3600L;
+    public static final int JWT_VERIFIED_TOKEN_CACHE_SIZE = 1024;
+    public static final int REVOKED_TOKEN_FILTER_MIN_CAPACITY = 1024;
+    public static final double REVOKED_TOKEN_FILTER_FALSE_POSITIVE_RATE = 0.01;
+
+    // Login throttling
+    public static final int LOGIN_MAX_QUEUED = 64;
+    public static final int LOGIN_FAILURE_WINDOW_SECONDS = 900;
+    public static final int LOGIN_MAX_FAILURES_PER_USERNAME = 5;
+    public static final int LOGIN_MAX_FAILURES_PER_IP = 20;
+
+    // User cache
+    public static final int USER_CACHE_MAX_SIZE = 10_000;
+    public static final int USER_CACHE_TTL_MINUTES = 10;
 
     // CORS
     public static final String[] ALLOWED_HTTP_METHODS = {"GET", "POST", "PUT", "DELETE", "OPTIONS"};
@@ -36,7 +63,13 @@ public final class AppConstants {
     public static final int EMAIL_MAX_LENGTH = 50;
 
     // Database
+    public static final int ID_ALLOCATION_SIZE = 50;
     public static final int MAX_BACKUPS_RETAINED = 10;
+    // Second-level cache regions, see CaffeineRegionFactory
+    public static final String CATEGORY_CACHE_REGION = "categories";
+    public static final String CATEGORY_QUERY_CACHE_REGION = "category-queries";
+    public static final int CATEGORY_CACHE_MAX_SIZE = 1000;
+    public static final int QUERY_CACHE_MAX_SIZE = 100;
 
     // Categories
     public static final String CATEGORY_MEAT = "Fleisch";
@@ -2,17 +2,22 @@ package com.gefrierschrank.app.controller;
 
 import com.gefrierschrank.app.dto.JwtResponse;
 import com.gefrierschrank.app.dto.LoginRequest;
+import com.gefrierschrank.app.dto.RefreshTokenRequest;
+import com.gefrierschrank.app.dto.RevokeTokenRequest;
 import com.gefrierschrank.app.security.JwtUtils;
+import com.gefrierschrank.app.security.LoginService;
+import com.gefrierschrank.app.security.RefreshTokenService;
+import com.gefrierschrank.app.security.TokenRevocationService;
 import com.gefrierschrank.app.security.UserPrincipal;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
@@ -25,36 +30,78 @@ public class AuthController {
     
     private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
     
-    private final AuthenticationManager authenticationManager;
+    private final LoginService loginService;
     private final JwtUtils jwtUtils;
+    private final TokenRevocationService tokenRevocationService;
+    private final RefreshTokenService refreshTokenService;
     
-    public AuthController(AuthenticationManager authenticationManager, JwtUtils jwtUtils) {
-        this.authenticationManager = authenticationManager;
+    public AuthController(LoginService loginService, JwtUtils jwtUtils,
+                          TokenRevocationService tokenRevocationService, RefreshTokenService refreshTokenService) {
+        this.loginService = loginService;
         this.jwtUtils = jwtUtils;
+        this.tokenRevocationService = tokenRevocationService;
+        this.refreshTokenService = refreshTokenService;
     }
     
     @PostMapping("/signin")
-    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest,
+                                              HttpServletRequest request) {
         logger.info("POST /api/auth/signin - Authentication attempt for user: {}", loginRequest.getUsername());
         
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword())
-        );
+        Authentication authentication = loginService.authenticate(
+                loginRequest.getUsername(), loginRequest.getPassword(), request.getRemoteAddr());
         
         SecurityContextHolder.getContext().setAuthentication(authentication);
         String jwt = jwtUtils.generateJwtToken(authentication);
         
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        String refreshToken = refreshTokenService.issue(userPrincipal);
+        
+        logger.info("User {} authenticated successfully", loginRequest.getUsername());
+        
+        return ResponseEntity.ok(toJwtResponse(jwt, refreshToken, userPrincipal));
+    }
+    
+    @PostMapping("/refresh")
+    public ResponseEntity<JwtResponse> refreshToken(@Valid @RequestBody RefreshTokenRequest request) {
+        logger.debug("POST /api/auth/refresh - Renewing access token");
+        
+        RefreshTokenService.RefreshedTokens tokens = refreshTokenService.rotate(request.getRefreshToken());
+        return ResponseEntity.ok(toJwtResponse(tokens.accessToken(), tokens.refreshToken(), tokens.principal()));
+    }
+    
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(Authentication authentication,
+                                       @Valid @RequestBody(required = false) RefreshTokenRequest request) {
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        logger.info("POST /api/auth/logout - Logging out user: {}", userPrincipal.getUsername());
+        
+        // The filter keeps the bearer token as credentials
+        tokenRevocationService.revoke((String) authentication.getCredentials(), userPrincipal);
+        if (request != null) {
+            refreshTokenService.revoke(request.getRefreshToken(), userPrincipal);
+        }
+        return ResponseEntity.noContent().build();
+    }
+    
+    @PostMapping("/revoke")
+    public ResponseEntity<Void> revokeToken(@Valid @RequestBody RevokeTokenRequest request,
+                                            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        logger.info("POST /api/auth/revoke - Token revocation requested by user: {}", userPrincipal.getUsername());
+        
+        tokenRevocationService.revoke(request.getToken(), userPrincipal);
+        return ResponseEntity.noContent().build();
+    }
+    
+    private JwtResponse toJwtResponse(String jwt, String refreshToken, UserPrincipal userPrincipal) {
         List<String> roles = userPrincipal.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.toList());
         
-        logger.info("User {} authenticated successfully", loginRequest.getUsername());
-        
-        return ResponseEntity.ok(new JwtResponse(jwt,
+        return new JwtResponse(jwt, refreshToken,
                 userPrincipal.getId(),
                 userPrincipal.getUsername(),
                 userPrincipal.getEmail(),
-                roles));
+                roles);
     }
-}
\ No newline at end of file
+}
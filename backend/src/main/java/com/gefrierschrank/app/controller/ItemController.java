@@ -1,29 +1,47 @@
 package com.gefrierschrank.app.controller;
 
 import com.gefrierschrank.app.constants.AppConstants;
+import com.gefrierschrank.app.dto.BatchItemResponse;
+import com.gefrierschrank.app.dto.BatchUpdateItemRequest;
 import com.gefrierschrank.app.dto.CreateItemRequest;
+import com.gefrierschrank.app.dto.CursorPage;
+import com.gefrierschrank.app.dto.ItemChangesResponse;
 import com.gefrierschrank.app.dto.ItemDto;
+import com.gefrierschrank.app.dto.ItemStatisticsDto;
+import com.gefrierschrank.app.dto.ItemSuggestionDto;
 import com.gefrierschrank.app.dto.ItemFilterRequest;
+import com.gefrierschrank.app.dto.ItemImportResponse;
 import com.gefrierschrank.app.dto.UpdateItemRequest;
+import com.gefrierschrank.app.security.UserPrincipal;
+import com.gefrierschrank.app.service.ItemBatchService;
+import com.gefrierschrank.app.service.ItemCsvService;
+import com.gefrierschrank.app.service.ItemNdjsonService;
 import com.gefrierschrank.app.service.ItemService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
 
 @RestController
 @RequestMapping("/api/items")
@@ -33,46 +51,104 @@ public class ItemController {
     private static final Logger logger = LoggerFactory.getLogger(ItemController.class);
     
     private final ItemService itemService;
+    private final ItemBatchService itemBatchService;
+    private final ItemCsvService itemCsvService;
+    private final ItemNdjsonService itemNdjsonService;
     
-    public ItemController(ItemService itemService) {
+    public ItemController(ItemService itemService, ItemBatchService itemBatchService, ItemCsvService itemCsvService,
+                          ItemNdjsonService itemNdjsonService) {
         this.itemService = itemService;
+        this.itemBatchService = itemBatchService;
+        this.itemCsvService = itemCsvService;
+        this.itemNdjsonService = itemNdjsonService;
     }
     
     @GetMapping
     @Operation(summary = "Get all items for user", description = "Retrieve all items for the authenticated user")
-    public ResponseEntity<List<ItemDto>> getAllItems(Authentication authentication) {
-        logger.info("GET /api/items - Fetching all items for user: {}", authentication.getName());
-        List<ItemDto> items = itemService.getAllItemsByUser(authentication.getName());
+    public ResponseEntity<List<ItemDto>> getAllItems(@AuthenticationPrincipal UserPrincipal principal) {
+        logger.info("GET /api/items - Fetching all items for user: {}", principal.getUsername());
+        List<ItemDto> items = itemService.getAllItemsByUser(principal);
         return ResponseEntity.ok(items);
     }
     
+    // Same items as above, negotiated with Accept: application/x-ndjson and written while they are read
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all items for user",
+               description = "Stream all items of the authenticated user as newline-delimited JSON, one item per line")
+    public void streamAllItems(@AuthenticationPrincipal UserPrincipal principal,
+                               HttpServletResponse response) throws IOException {
+        logger.info("GET /api/items (NDJSON) - Streaming all items for user: {}", principal.getUsername());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        itemNdjsonService.exportNdjson(principal, response.getOutputStream());
+    }
+    
+    @GetMapping("/changes")
+    @Operation(summary = "Get item changes",
+               description = "Items created or updated and ids of items deleted since a watermark; without one, or with an expired one, the full inventory")
+    public ResponseEntity<ItemChangesResponse> getItemChanges(
+            @Parameter(description = "Watermark returned by the previous sync, omitted for the first sync")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @AuthenticationPrincipal UserPrincipal principal) {
+        
+        logger.info("GET /api/items/changes - Fetching changes since {} for user: {}", since, principal.getUsername());
+        ItemChangesResponse changes = itemService.getItemChanges(since, principal);
+        return ResponseEntity.ok(changes);
+    }
+    
     @GetMapping("/paginated")
     @Operation(summary = "Get paginated items", description = "Retrieve paginated items for the authenticated user")
     public ResponseEntity<Page<ItemDto>> getItemsPaginated(
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "" + AppConstants.DEFAULT_PAGE_SIZE) int size,
-            Authentication authentication) {
+            @AuthenticationPrincipal UserPrincipal principal) {
         
-        logger.info("GET /api/items/paginated - Fetching paginated items for user: {}", authentication.getName());
+        logger.info("GET /api/items/paginated - Fetching paginated items for user: {}", principal.getUsername());
         Pageable pageable = PageRequest.of(page, size);
-        Page<ItemDto> items = itemService.getItemsByUserPaginated(authentication.getName(), pageable);
+        Page<ItemDto> items = itemService.getItemsByUserPaginated(principal, pageable);
         return ResponseEntity.ok(items);
     }
     
+    @GetMapping(value = "/paginated", params = "cursor")
+    @Operation(summary = "Scroll items with a cursor", 
+               description = "Keyset pagination by creation date; pass an empty cursor for the first page and nextCursor afterwards")
+    public ResponseEntity<CursorPage<ItemDto>> getItemsAfterCursor(
+            @Parameter(description = "Continuation token from the previous page, empty for the first page") @RequestParam String cursor,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "" + AppConstants.DEFAULT_PAGE_SIZE) int size,
+            @AuthenticationPrincipal UserPrincipal principal) {
+        
+        logger.info("GET /api/items/paginated?cursor - Fetching item slice for user: {}", principal.getUsername());
+        CursorPage<ItemDto> items = itemService.getItemsByUserAfterCursor(principal, cursor, size);
+        return ResponseEntity.ok(items);
+    }
+    
+    // Written synchronously to the response: rows leave as the cursor advances, nothing is collected first
+    @GetMapping(value = "/export.csv", produces = "text/csv")
+    @Operation(summary = "Export items as CSV", description = "Stream all items of the authenticated user as a CSV download")
+    public void exportItemsCsv(@AuthenticationPrincipal UserPrincipal principal,
+                               HttpServletResponse response) throws IOException {
+        logger.info("GET /api/items/export.csv - Exporting items for user: {}", principal.getUsername());
+        response.setContentType("text/csv");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename("gefrierschrank-items.csv").build().toString());
+        itemCsvService.exportCsv(principal, response.getOutputStream());
+    }
+    
     @GetMapping("/{id}")
     @Operation(summary = "Get item by ID", description = "Retrieve a specific item by its ID")
-    public ResponseEntity<ItemDto> getItemById(@PathVariable Long id, Authentication authentication) {
-        logger.info("GET /api/items/{} - Fetching item for user: {}", id, authentication.getName());
-        ItemDto item = itemService.getItemById(id, authentication.getName());
+    public ResponseEntity<ItemDto> getItemById(@PathVariable Long id, @AuthenticationPrincipal UserPrincipal principal) {
+        logger.info("GET /api/items/{} - Fetching item for user: {}", id, principal.getUsername());
+        ItemDto item = itemService.getItemById(id, principal);
         return ResponseEntity.ok(item);
     }
     
     @PostMapping
     @Operation(summary = "Create new item", description = "Create a new freezer item")
     public ResponseEntity<ItemDto> createItem(@Valid @RequestBody CreateItemRequest request, 
-                                             Authentication authentication) {
-        logger.info("POST /api/items - Creating item: {} for user: {}", request.getName(), authentication.getName());
-        ItemDto createdItem = itemService.createItem(request, authentication.getName());
+                                             @AuthenticationPrincipal UserPrincipal principal) {
+        logger.info("POST /api/items - Creating item: {} for user: {}", request.getName(), principal.getUsername());
+        ItemDto createdItem = itemService.createItem(request, principal);
         return ResponseEntity.status(HttpStatus.CREATED).body(createdItem);
     }
     
@@ -80,38 +156,95 @@ public class ItemController {
     @Operation(summary = "Update item", description = "Update an existing freezer item")
     public ResponseEntity<ItemDto> updateItem(@PathVariable Long id,
                                              @Valid @RequestBody UpdateItemRequest request,
-                                             Authentication authentication) {
-        logger.info("PUT /api/items/{} - Updating item for user: {}", id, authentication.getName());
-        ItemDto updatedItem = itemService.updateItem(id, request, authentication.getName());
+                                             @AuthenticationPrincipal UserPrincipal principal) {
+        logger.info("PUT /api/items/{} - Updating item for user: {}", id, principal.getUsername());
+        ItemDto updatedItem = itemService.updateItem(id, request, principal);
         return ResponseEntity.ok(updatedItem);
     }
     
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete item", description = "Delete a freezer item")
-    public ResponseEntity<Void> deleteItem(@PathVariable Long id, Authentication authentication) {
-        logger.info("DELETE /api/items/{} - Deleting item for user: {}", id, authentication.getName());
-        itemService.deleteItem(id, authentication.getName());
+    public ResponseEntity<Void> deleteItem(@PathVariable Long id, @AuthenticationPrincipal UserPrincipal principal) {
+        logger.info("DELETE /api/items/{} - Deleting item for user: {}", id, principal.getUsername());
+        itemService.deleteItem(id, principal);
         return ResponseEntity.noContent().build();
     }
     
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Import items from CSV",
+               description = "Import a CSV file with the columns name, category, quantity, unit and optionally expiryDate, expiryType and description; invalid rows are reported and skipped")
+    public ResponseEntity<ItemImportResponse> importItemsCsv(@RequestParam("file") MultipartFile file,
+                                                             @AuthenticationPrincipal UserPrincipal principal) throws IOException {
+        logger.info("POST /api/items/import - Importing {} bytes for user: {}", file.getSize(), principal.getUsername());
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("The uploaded file is empty");
+        }
+        try (InputStream in = file.getInputStream()) {
+            return ResponseEntity.ok(itemCsvService.importCsv(in, principal));
+        }
+    }
+    
+    // Batch endpoints; elements are validated one by one so that a bad element does not reject the rest
+    @PostMapping("/batch")
+    @Operation(summary = "Create items in a batch", description = "Create up to 100 items in one transaction, with a result per element")
+    public ResponseEntity<BatchItemResponse> createItems(@RequestBody List<CreateItemRequest> requests,
+                                                         @AuthenticationPrincipal UserPrincipal principal) {
+        logger.info("POST /api/items/batch - Creating {} items for user: {}", requests.size(), principal.getUsername());
+        BatchItemResponse response = itemBatchService.createItems(requests, principal);
+        return ResponseEntity.ok(response);
+    }
+    
+    @PutMapping("/batch")
+    @Operation(summary = "Update items in a batch", description = "Update up to 100 items in one transaction, with a result per element")
+    public ResponseEntity<BatchItemResponse> updateItems(@RequestBody List<BatchUpdateItemRequest> requests,
+                                                         @AuthenticationPrincipal UserPrincipal principal) {
+        logger.info("PUT /api/items/batch - Updating {} items for user: {}", requests.size(), principal.getUsername());
+        BatchItemResponse response = itemBatchService.updateItems(requests, principal);
+        return ResponseEntity.ok(response);
+    }
+    
+    @DeleteMapping("/batch")
+    @Operation(summary = "Delete items in a batch", description = "Delete up to 100 items in one transaction, with a result per element")
+    public ResponseEntity<BatchItemResponse> deleteItems(@RequestBody List<Long> ids, @AuthenticationPrincipal UserPrincipal principal) {
+        logger.info("DELETE /api/items/batch - Deleting {} items for user: {}", ids.size(), principal.getUsername());
+        BatchItemResponse response = itemBatchService.deleteItems(ids, principal);
+        return ResponseEntity.ok(response);
+    }
+    
     // Search and filter endpoints
     @GetMapping("/search")
-    @Operation(summary = "Search items by name", description = "Search items by name containing the search term")
+    @Operation(summary = "Search items by name", description = "Search items by name containing the search term, or typo tolerant and ranked by closeness with fuzzy=true")
     public ResponseEntity<List<ItemDto>> searchItemsByName(
             @Parameter(description = "Search term") @RequestParam String q,
-            Authentication authentication) {
+            @Parameter(description = "Tolerate typos and rank by edit distance, then recency") @RequestParam(defaultValue = "false") boolean fuzzy,
+            @AuthenticationPrincipal UserPrincipal principal) {
         
-        logger.info("GET /api/items/search?q={} - Searching items for user: {}", q, authentication.getName());
-        List<ItemDto> items = itemService.searchItemsByName(q, authentication.getName());
+        logger.info("GET /api/items/search?q={}&fuzzy={} - Searching items for user: {}", q, fuzzy, principal.getUsername());
+        List<ItemDto> items = fuzzy
+                ? itemService.fuzzySearchItemsByName(q, principal)
+                : itemService.searchItemsByName(q, principal);
         return ResponseEntity.ok(items);
     }
     
+    @GetMapping("/suggest")
+    @Operation(summary = "Suggest item names", description = "Most frequent names of user's items starting with the prefix, for typeahead")
+    public ResponseEntity<List<ItemSuggestionDto>> suggestItemNames(
+            @Parameter(description = "Typed prefix") @RequestParam(defaultValue = "") String prefix,
+            @Parameter(description = "Maximum number of suggestions (1-10)") @RequestParam(defaultValue = "10") int limit,
+            @AuthenticationPrincipal UserPrincipal principal) {
+        
+        // Called on every keystroke, so debug rather than info
+        logger.debug("GET /api/items/suggest?prefix={} - Suggesting item names for user: {}", prefix, principal.getUsername());
+        List<ItemSuggestionDto> suggestions = itemService.suggestItemNames(prefix, principal, limit);
+        return ResponseEntity.ok(suggestions);
+    }
+    
     @GetMapping("/category/{categoryId}")
     @Operation(summary = "Get items by category", description = "Retrieve all items for a specific category")
     public ResponseEntity<List<ItemDto>> getItemsByCategory(@PathVariable Long categoryId,
-                                                           Authentication authentication) {
-        logger.info("GET /api/items/category/{} - Fetching items for user: {}", categoryId, authentication.getName());
-        List<ItemDto> items = itemService.getItemsByCategory(categoryId, authentication.getName());
+                                                           @AuthenticationPrincipal UserPrincipal principal) {
+        logger.info("GET /api/items/category/{} - Fetching items for user: {}", categoryId, principal.getUsername());
+        List<ItemDto> items = itemService.getItemsByCategory(categoryId, principal);
         return ResponseEntity.ok(items);
     }
     
@@ -119,18 +252,18 @@ public class ItemController {
     @Operation(summary = "Get expiring items", description = "Retrieve items expiring within specified days")
     public ResponseEntity<List<ItemDto>> getExpiringSoonItems(
             @Parameter(description = "Days ahead to check for expiry") @RequestParam(defaultValue = "" + AppConstants.DEFAULT_EXPIRY_WARNING_DAYS) int days,
-            Authentication authentication) {
+            @AuthenticationPrincipal UserPrincipal principal) {
         
-        logger.info("GET /api/items/expiring?days={} - Fetching expiring items for user: {}", days, authentication.getName());
-        List<ItemDto> items = itemService.getExpiringSoonItems(days, authentication.getName());
+        logger.info("GET /api/items/expiring?days={} - Fetching expiring items for user: {}", days, principal.getUsername());
+        List<ItemDto> items = itemService.getExpiringSoonItems(days, principal);
         return ResponseEntity.ok(items);
     }
     
     @GetMapping("/expired")
     @Operation(summary = "Get expired items", description = "Retrieve all expired items")
-    public ResponseEntity<List<ItemDto>> getExpiredItems(Authentication authentication) {
-        logger.info("GET /api/items/expired - Fetching expired items for user: {}", authentication.getName());
-        List<ItemDto> items = itemService.getExpiredItems(authentication.getName());
+    public ResponseEntity<List<ItemDto>> getExpiredItems(@AuthenticationPrincipal UserPrincipal principal) {
+        logger.info("GET /api/items/expired - Fetching expired items for user: {}", principal.getUsername());
+        List<ItemDto> items = itemService.getExpiredItems(principal);
         return ResponseEntity.ok(items);
     }
     
@@ -138,33 +271,46 @@ public class ItemController {
     @Operation(summary = "Get filtered items", description = "Retrieve items with multiple filter options")
     public ResponseEntity<Page<ItemDto>> getFilteredItems(
             @Valid ItemFilterRequest filter,
-            Authentication authentication) {
+            @AuthenticationPrincipal UserPrincipal principal) {
         
         logger.info("GET /api/items/filter - Fetching filtered items for user: {} with filter: {}", 
-                   authentication.getName(), filter);
+                   principal.getUsername(), filter);
         
         Pageable pageable = PageRequest.of(filter.getPage(), filter.getSize());
         Page<ItemDto> items = itemService.getItemsWithFilters(
-            authentication.getName(), filter.getCategoryId(), filter.getSearchTerm(), 
+            principal, filter.getCategoryId(), filter.getSearchTerm(), 
             filter.getExpiringSoon(), filter.getExpiryDays(), filter.getSortBy(), pageable
         );
         
         return ResponseEntity.ok(items);
     }
     
-    // Statistics endpoints
-    @GetMapping("/stats")
-    @Operation(summary = "Get item statistics", description = "Retrieve statistics about user's items")
-    public ResponseEntity<Map<String, Object>> getItemStatistics(Authentication authentication) {
-        logger.info("GET /api/items/stats - Fetching statistics for user: {}", authentication.getName());
+    @GetMapping(value = "/filter", params = "cursor")
+    @Operation(summary = "Scroll filtered items with a cursor", 
+               description = "Keyset pagination sorted by 'created' or 'expiry'; pass an empty cursor for the first page and nextCursor afterwards")
+    public ResponseEntity<CursorPage<ItemDto>> getFilteredItemsAfterCursor(
+            @Valid ItemFilterRequest filter,
+            @Parameter(description = "Continuation token from the previous page, empty for the first page") @RequestParam String cursor,
+            @AuthenticationPrincipal UserPrincipal principal) {
+        
+        logger.info("GET /api/items/filter?cursor - Fetching filtered item slice for user: {} with filter: {}", 
+                   principal.getUsername(), filter);
         
-        String username = authentication.getName();
-        Map<String, Object> stats = new HashMap<>();
+        CursorPage<ItemDto> items = itemService.getItemsWithFiltersAfterCursor(
+            principal, filter.getCategoryId(), filter.getSearchTerm(), 
+            filter.getExpiringSoon(), filter.getExpiryDays(), filter.getSortBy(), cursor, filter.getSize()
+        );
         
-        stats.put("totalItems", itemService.getTotalItemsCount(username));
-        stats.put("expiringSoon", itemService.getExpiringSoonCount(7, username));
-        stats.put("expired", itemService.getExpiredCount(username));
+        return ResponseEntity.ok(items);
+    }
+    
+    // Statistics endpoints
+    @GetMapping("/stats")
+    @Operation(summary = "Get item statistics", description = "Retrieve totals, expiry counters and per-category and per-expiry-type counts of user's items")
+    public ResponseEntity<ItemStatisticsDto> getItemStatistics(@AuthenticationPrincipal UserPrincipal principal) {
+        logger.info("GET /api/items/stats - Fetching statistics for user: {}", principal.getUsername());
         
+        ItemStatisticsDto stats = itemService.getItemStatistics(principal);
         return ResponseEntity.ok(stats);
     }
     
@@ -172,9 +318,9 @@ public class ItemController {
     @Operation(summary = "Get expiring items count", description = "Get count of items expiring within specified days")
     public ResponseEntity<Long> getExpiringSoonCount(
             @Parameter(description = "Days ahead to check") @RequestParam(defaultValue = "" + AppConstants.DEFAULT_EXPIRY_WARNING_DAYS) int days,
-            Authentication authentication) {
+            @AuthenticationPrincipal UserPrincipal principal) {
         
-        long count = itemService.getExpiringSoonCount(days, authentication.getName());
+        long count = itemService.getExpiringSoonCount(days, principal);
         return ResponseEntity.ok(count);
     }
 }
\ No newline at end of file
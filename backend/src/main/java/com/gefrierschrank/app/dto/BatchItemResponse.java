@@ -0,0 +1,50 @@
+package com.gefrierschrank.app.dto;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Per-element results of a batch request, in request order, with the number of elements that
+ * succeeded and failed.
+ */
+public class BatchItemResponse {
+
+    private List<BatchItemResult> results;
+    private int succeeded;
+    private int failed;
+
+    public BatchItemResponse() {}
+
+    public BatchItemResponse(List<BatchItemResult> results) {
+        this.results = results.stream()
+                .sorted(Comparator.comparingInt(BatchItemResult::getIndex))
+                .toList();
+        this.succeeded = (int) results.stream().filter(BatchItemResult::isSuccess).count();
+        this.failed = results.size() - succeeded;
+    }
+
+    // Getters and setters
+    public List<BatchItemResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<BatchItemResult> results) {
+        this.results = results;
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public void setSucceeded(int succeeded) {
+        this.succeeded = succeeded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+}
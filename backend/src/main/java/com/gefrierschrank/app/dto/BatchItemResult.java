@@ -0,0 +1,82 @@
+package com.gefrierschrank.app.dto;
+
+/**
+ * Outcome of one element of a batch request. {@code index} is the position of the element in the
+ * request; {@code item} is set for successful creates and updates, {@code error} for failures.
+ */
+public class BatchItemResult {
+
+    private int index;
+    private Long id;
+    private boolean success;
+    private ItemDto item;
+    private String error;
+
+    public BatchItemResult() {}
+
+    public static BatchItemResult saved(int index, ItemDto item) {
+        BatchItemResult result = new BatchItemResult();
+        result.index = index;
+        result.id = item.getId();
+        result.success = true;
+        result.item = item;
+        return result;
+    }
+
+    public static BatchItemResult deleted(int index, Long id) {
+        BatchItemResult result = new BatchItemResult();
+        result.index = index;
+        result.id = id;
+        result.success = true;
+        return result;
+    }
+
+    public static BatchItemResult failed(int index, Long id, String error) {
+        BatchItemResult result = new BatchItemResult();
+        result.index = index;
+        result.id = id;
+        result.error = error;
+        return result;
+    }
+
+    // Getters and setters
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public ItemDto getItem() {
+        return item;
+    }
+
+    public void setItem(ItemDto item) {
+        this.item = item;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,22 @@
+package com.gefrierschrank.app.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * One element of a batch update: the new values of an item plus the id of the item to change.
+ */
+public class BatchUpdateItemRequest extends UpdateItemRequest {
+    
+    @NotNull(message = "Item ID is required")
+    private Long id;
+    
+    public BatchUpdateItemRequest() {}
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+}
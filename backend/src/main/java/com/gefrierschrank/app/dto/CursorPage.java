@@ -0,0 +1,50 @@
+package com.gefrierschrank.app.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset (seek) scroll. {@code nextCursor} is an opaque token to pass back as
+ * {@code cursor} for the following page and is {@code null} once the end has been reached.
+ */
+public class CursorPage<T> {
+
+    private List<T> content;
+    private String nextCursor;
+    private int size;
+
+    public CursorPage() {}
+
+    public CursorPage(List<T> content, String nextCursor, int size) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.size = size;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public boolean isHasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,69 @@
+package com.gefrierschrank.app.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Items created or updated since a watermark and the ids of items deleted since then. Clients keep
+ * {@code watermark} and send it as {@code since} on the next sync. When {@code full} is set, the
+ * items are the complete inventory and replace what the client has: this is the answer to a first
+ * sync and to a watermark older than the retained tombstones. Items and deletions near the old
+ * watermark can be delivered again, so applying a response must be idempotent.
+ */
+public class ItemChangesResponse {
+
+    private List<ItemDto> items;
+    private List<Long> deletedIds;
+    private LocalDateTime watermark;
+    private boolean full;
+
+    public ItemChangesResponse() {}
+
+    public ItemChangesResponse(List<ItemDto> items, List<Long> deletedIds, LocalDateTime watermark, boolean full) {
+        this.items = items;
+        this.deletedIds = deletedIds;
+        this.watermark = watermark;
+        this.full = full;
+    }
+
+    public static ItemChangesResponse full(List<ItemDto> items, LocalDateTime watermark) {
+        return new ItemChangesResponse(items, List.of(), watermark, true);
+    }
+
+    public static ItemChangesResponse delta(List<ItemDto> items, List<Long> deletedIds, LocalDateTime watermark) {
+        return new ItemChangesResponse(items, deletedIds, watermark, false);
+    }
+
+    // Getters and setters
+    public List<ItemDto> getItems() {
+        return items;
+    }
+
+    public void setItems(List<ItemDto> items) {
+        this.items = items;
+    }
+
+    public List<Long> getDeletedIds() {
+        return deletedIds;
+    }
+
+    public void setDeletedIds(List<Long> deletedIds) {
+        this.deletedIds = deletedIds;
+    }
+
+    public LocalDateTime getWatermark() {
+        return watermark;
+    }
+
+    public void setWatermark(LocalDateTime watermark) {
+        this.watermark = watermark;
+    }
+
+    public boolean isFull() {
+        return full;
+    }
+
+    public void setFull(boolean full) {
+        this.full = full;
+    }
+}
@@ -0,0 +1,100 @@
+package com.gefrierschrank.app.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Sort key of the last item on a keyset page, encoded as an opaque URL-safe token.
+ * Items scrolled by creation time are ordered by {@code (createdAt DESC, id DESC)}, items
+ * scrolled by expiry by {@code (expiryDate ASC NULLS LAST, id ASC)}.
+ */
+public final class ItemCursor {
+
+    public enum SortKey {
+        CREATED("C"),
+        EXPIRY("E");
+
+        private final String code;
+
+        SortKey(String code) {
+            this.code = code;
+        }
+
+        static SortKey fromCode(String code) {
+            for (SortKey key : values()) {
+                if (key.code.equals(code)) {
+                    return key;
+                }
+            }
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private static final String SEPARATOR = "|";
+
+    private final SortKey sortKey;
+    private final LocalDateTime createdAt;
+    private final LocalDate expiryDate;
+    private final Long id;
+
+    private ItemCursor(SortKey sortKey, LocalDateTime createdAt, LocalDate expiryDate, Long id) {
+        this.sortKey = sortKey;
+        this.createdAt = createdAt;
+        this.expiryDate = expiryDate;
+        this.id = id;
+    }
+
+    public static ItemCursor after(ItemDto item, SortKey sortKey) {
+        return sortKey == SortKey.CREATED
+                ? new ItemCursor(sortKey, item.getCreatedAt(), null, item.getId())
+                : new ItemCursor(sortKey, null, item.getExpiryDate(), item.getId());
+    }
+
+    public static ItemCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, -1);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+
+            SortKey sortKey = SortKey.fromCode(parts[0]);
+            Long id = Long.valueOf(parts[2]);
+            if (sortKey == SortKey.CREATED) {
+                return new ItemCursor(sortKey, LocalDateTime.parse(parts[1]), null, id);
+            }
+            LocalDate expiryDate = parts[1].isEmpty() ? null : LocalDate.parse(parts[1]);
+            return new ItemCursor(sortKey, null, expiryDate, id);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            // NumberFormatException and Base64 decoding errors are IllegalArgumentExceptions as well
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        String value = sortKey == SortKey.CREATED
+                ? createdAt.toString()
+                : (expiryDate != null ? expiryDate.toString() : "");
+        String raw = sortKey.code + SEPARATOR + value + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public SortKey getSortKey() {
+        return sortKey;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDate getExpiryDate() {
+        return expiryDate;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
@@ -1,11 +1,13 @@
 package com.gefrierschrank.app.dto;
 
+import com.gefrierschrank.app.constants.AppConstants;
 import com.gefrierschrank.app.entity.ExpiryType;
 import com.gefrierschrank.app.entity.Item;
 import jakarta.validation.constraints.*;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 public class ItemDto {
     
@@ -54,6 +56,14 @@ public class ItemDto {
     public ItemDto() {}
     
     public ItemDto(Item item) {
+        this(item, item.getUser().getUsername());
+    }
+    
+    /**
+     * For callers that already know the owner's username, so a lazy {@code user} reference of the
+     * item does not have to be loaded just to read it.
+     */
+    public ItemDto(Item item, String username) {
         this.id = item.getId();
         this.name = item.getName();
         this.categoryId = item.getCategory().getId();
@@ -65,14 +75,53 @@ public class ItemDto {
         this.photoPath = item.getPhotoPath();
         this.description = item.getDescription();
         this.userId = item.getUser().getId();
-        this.username = item.getUser().getUsername();
+        this.username = username;
         this.createdAt = item.getCreatedAt();
         this.updatedAt = item.getUpdatedAt();
         
-        // Compute expiry information
-        this.expiringSoon = item.isExpiringSoon(7);
-        this.expired = item.isExpired();
-        this.daysUntilExpiry = item.getDaysUntilExpiry();
+        computeExpiryInfo();
+    }
+    
+    /**
+     * Projection constructor used by JPQL constructor expressions in {@code ItemRepository},
+     * so list queries can fill DTOs directly without hydrating managed {@link Item} entities.
+     */
+    public ItemDto(Long id, String name, Long categoryId, String categoryName, BigDecimal quantity,
+                   String unit, LocalDate expiryDate, ExpiryType expiryType, String photoPath,
+                   String description, Long userId, String username,
+                   LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.name = name;
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.quantity = quantity;
+        this.unit = unit;
+        this.expiryDate = expiryDate;
+        this.expiryType = expiryType;
+        this.photoPath = photoPath;
+        this.description = description;
+        this.userId = userId;
+        this.username = username;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        
+        computeExpiryInfo();
+    }
+    
+    // Same rules as Item.isExpiringSoon, Item.isExpired and Item.getDaysUntilExpiry
+    private void computeExpiryInfo() {
+        if (expiryDate == null) {
+            this.expiringSoon = false;
+            this.expired = false;
+            this.daysUntilExpiry = Long.MAX_VALUE;
+            return;
+        }
+        
+        LocalDate today = LocalDate.now();
+        this.expiringSoon = expiryDate.isBefore(
+                today.plusDays(AppConstants.DEFAULT_EXPIRY_WARNING_DAYS + AppConstants.EXPIRY_BUFFER_DAYS));
+        this.expired = expiryDate.isBefore(today);
+        this.daysUntilExpiry = ChronoUnit.DAYS.between(today, expiryDate);
     }
     
     // Getters and setters
@@ -0,0 +1,35 @@
+package com.gefrierschrank.app.dto;
+
+/**
+ * A CSV row that was not imported. {@code row} is the record number in the file, the header
+ * being row 1.
+ */
+public class ItemImportError {
+
+    private long row;
+    private String error;
+
+    public ItemImportError() {}
+
+    public ItemImportError(long row, String error) {
+        this.row = row;
+        this.error = error;
+    }
+
+    // Getters and setters
+    public long getRow() {
+        return row;
+    }
+
+    public void setRow(long row) {
+        this.row = row;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,58 @@
+package com.gefrierschrank.app.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a CSV import: how many rows were imported and failed, and the failed rows in file
+ * order. Only the first {@code AppConstants.IMPORT_MAX_REPORTED_ERRORS} failures are listed;
+ * {@code errorsTruncated} tells whether there were more.
+ */
+public class ItemImportResponse {
+
+    private int imported;
+    private int failed;
+    private List<ItemImportError> errors;
+    private boolean errorsTruncated;
+
+    public ItemImportResponse() {}
+
+    public ItemImportResponse(int imported, int failed, List<ItemImportError> errors) {
+        this.imported = imported;
+        this.failed = failed;
+        this.errors = errors;
+        this.errorsTruncated = failed > errors.size();
+    }
+
+    // Getters and setters
+    public int getImported() {
+        return imported;
+    }
+
+    public void setImported(int imported) {
+        this.imported = imported;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public List<ItemImportError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<ItemImportError> errors) {
+        this.errors = errors;
+    }
+
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+
+    public void setErrorsTruncated(boolean errorsTruncated) {
+        this.errorsTruncated = errorsTruncated;
+    }
+}
@@ -0,0 +1,86 @@
+package com.gefrierschrank.app.dto;
+
+import com.gefrierschrank.app.entity.ExpiryType;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Dashboard statistics for one user. {@code byCategory} is ordered by item count, largest first.
+ */
+public class ItemStatisticsDto {
+
+    private long totalItems;
+    private long expiringSoon;
+    private long expired;
+    private int expiringSoonDays;
+    private Map<String, Long> byCategory = new LinkedHashMap<>();
+    private Map<ExpiryType, Long> byExpiryType = new EnumMap<>(ExpiryType.class);
+
+    public ItemStatisticsDto() {}
+
+    public ItemStatisticsDto(long totalItems, long expiringSoon, long expired, int expiringSoonDays,
+                             Map<String, Long> categoryCounts, Map<ExpiryType, Long> expiryTypeCounts) {
+        this.totalItems = totalItems;
+        this.expiringSoon = expiringSoon;
+        this.expired = expired;
+        this.expiringSoonDays = expiringSoonDays;
+        this.byExpiryType.putAll(expiryTypeCounts);
+
+        categoryCounts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .forEach(entry -> byCategory.put(entry.getKey(), entry.getValue()));
+    }
+
+    // Getters and setters
+    public long getTotalItems() {
+        return totalItems;
+    }
+
+    public void setTotalItems(long totalItems) {
+        this.totalItems = totalItems;
+    }
+
+    public long getExpiringSoon() {
+        return expiringSoon;
+    }
+
+    public void setExpiringSoon(long expiringSoon) {
+        this.expiringSoon = expiringSoon;
+    }
+
+    public long getExpired() {
+        return expired;
+    }
+
+    public void setExpired(long expired) {
+        this.expired = expired;
+    }
+
+    public int getExpiringSoonDays() {
+        return expiringSoonDays;
+    }
+
+    public void setExpiringSoonDays(int expiringSoonDays) {
+        this.expiringSoonDays = expiringSoonDays;
+    }
+
+    public Map<String, Long> getByCategory() {
+        return byCategory;
+    }
+
+    public void setByCategory(Map<String, Long> byCategory) {
+        this.byCategory = byCategory;
+    }
+
+    public Map<ExpiryType, Long> getByExpiryType() {
+        return byExpiryType;
+    }
+
+    public void setByExpiryType(Map<ExpiryType, Long> byExpiryType) {
+        this.byExpiryType = byExpiryType;
+    }
+}
@@ -0,0 +1,33 @@
+package com.gefrierschrank.app.dto;
+
+/**
+ * An item name offered while typing, with the number of the user's items that carry it.
+ */
+public class ItemSuggestionDto {
+
+    private String name;
+    private int count;
+
+    public ItemSuggestionDto() {}
+
+    public ItemSuggestionDto(String name, int count) {
+        this.name = name;
+        this.count = count;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+}
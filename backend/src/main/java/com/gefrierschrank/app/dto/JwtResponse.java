@@ -5,6 +5,7 @@ import java.util.List;
 public class JwtResponse {
     
     private String token;
+    private String refreshToken;
     private String type = "Bearer";
     private Long id;
     private String username;
@@ -19,6 +20,12 @@ public class JwtResponse {
         this.roles = roles;
     }
     
+    public JwtResponse(String accessToken, String refreshToken, Long id, String username, String email,
+                       List<String> roles) {
+        this(accessToken, id, username, email, roles);
+        this.refreshToken = refreshToken;
+    }
+    
     public String getAccessToken() {
         return token;
     }
@@ -27,6 +34,14 @@ public class JwtResponse {
         this.token = accessToken;
     }
     
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+    
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+    
     public String getTokenType() {
         return type;
     }
@@ -0,0 +1,23 @@
+package com.gefrierschrank.app.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public class RevokeTokenRequest {
+    
+    @NotBlank
+    private String token;
+    
+    public RevokeTokenRequest() {}
+    
+    public RevokeTokenRequest(String token) {
+        this.token = token;
+    }
+    
+    public String getToken() {
+        return token;
+    }
+    
+    public void setToken(String token) {
+        this.token = token;
+    }
+}
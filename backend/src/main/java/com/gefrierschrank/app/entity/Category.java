@@ -1,18 +1,24 @@
 package com.gefrierschrank.app.entity;
 
+import com.gefrierschrank.app.constants.AppConstants;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = AppConstants.CATEGORY_CACHE_REGION)
 @Table(name = "categories", uniqueConstraints = {
     @UniqueConstraint(columnNames = "name")
 })
 public class Category {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "categories_seq")
+    @SequenceGenerator(name = "categories_seq", sequenceName = "categories_seq", allocationSize = AppConstants.ID_ALLOCATION_SIZE)
     private Long id;
     
     @NotBlank
@@ -0,0 +1,60 @@
+package com.gefrierschrank.app.entity;
+
+import com.gefrierschrank.app.constants.AppConstants;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Tombstone of a deleted item, so that delta syncs can tell clients which items to drop. Item ids
+ * are never reused, so the item id alone identifies the tombstone. Rows are purged after
+ * {@link AppConstants#DELETED_ITEM_RETENTION_DAYS}.
+ */
+@Entity
+@Table(name = "deleted_items", indexes = {
+    @Index(name = "idx_deleted_item_user_deleted", columnList = "user_id, deleted_at")
+})
+public class DeletedItem {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "deleted_items_seq")
+    @SequenceGenerator(name = "deleted_items_seq", sequenceName = "deleted_items_seq", allocationSize = AppConstants.ID_ALLOCATION_SIZE)
+    private Long id;
+    
+    @Column(name = "item_id", nullable = false)
+    private Long itemId;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Column(name = "deleted_at", nullable = false, updatable = false)
+    private LocalDateTime deletedAt;
+    
+    public DeletedItem() {}
+    
+    public DeletedItem(Long itemId, Long userId) {
+        this.itemId = itemId;
+        this.userId = userId;
+    }
+    
+    @PrePersist
+    protected void onCreate() {
+        deletedAt = LocalDateTime.now();
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public Long getItemId() {
+        return itemId;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+}
@@ -9,16 +9,23 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
+// ddl-auto: update only creates indexes, it never drops them: databases from before the per-user
+// indexes still carry idx_item_user_id, idx_item_expiry_date and idx_item_created_at until those
+// are dropped by hand
 @Table(name = "items", indexes = {
-    @Index(name = "idx_item_user_id", columnList = "user_id"),
     @Index(name = "idx_item_category_id", columnList = "category_id"),
-    @Index(name = "idx_item_expiry_date", columnList = "expiry_date"),
-    @Index(name = "idx_item_created_at", columnList = "created_at")
+    @Index(name = "idx_item_user_expiry", columnList = "user_id, expiry_date"),
+    @Index(name = "idx_item_user_created", columnList = "user_id, created_at"),
+    @Index(name = "idx_item_user_updated", columnList = "user_id, updated_at"),
+    @Index(name = "idx_item_user_category", columnList = "user_id, category_id"),
+    @Index(name = "idx_item_user_name", columnList = "user_id, name"),
+    @Index(name = "idx_item_user_quantity", columnList = "user_id, quantity")
 })
 public class Item {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = AppConstants.ID_ALLOCATION_SIZE)
     private Long id;
     
     @NotBlank
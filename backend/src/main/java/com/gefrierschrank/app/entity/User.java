@@ -1,5 +1,7 @@
 package com.gefrierschrank.app.entity;
 
+import com.gefrierschrank.app.constants.AppConstants;
+import com.gefrierschrank.app.event.UserChangeListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -9,6 +11,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@EntityListeners(UserChangeListener.class)
 @Table(name = "users", uniqueConstraints = {
     @UniqueConstraint(columnNames = "username"),
     @UniqueConstraint(columnNames = "email")
@@ -16,7 +19,8 @@ import java.util.List;
 public class User {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = AppConstants.ID_ALLOCATION_SIZE)
     private Long id;
     
     @NotBlank(message = "Username is required")
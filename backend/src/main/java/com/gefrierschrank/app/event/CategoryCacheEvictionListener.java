@@ -0,0 +1,34 @@
+package com.gefrierschrank.app.event;
+
+import com.gefrierschrank.app.constants.AppConstants;
+import com.gefrierschrank.app.entity.Category;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Drops the cached categories and category queries from Hibernate's second-level cache once a
+ * category change has committed. Writes through the session already keep the regions current;
+ * evicting as well covers changes that bypass it, such as bulk statements. Runs before the other
+ * listeners, so a reload triggered by the same event reads from the database.
+ */
+@Component
+public class CategoryCacheEvictionListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public CategoryCacheEvictionListener(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        org.hibernate.Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        cache.evictEntityData(Category.class);
+        cache.evictQueryRegion(AppConstants.CATEGORY_QUERY_CACHE_REGION);
+    }
+}
@@ -0,0 +1,17 @@
+package com.gefrierschrank.app.event;
+
+/**
+ * Published by {@code CategoryService} when a category has been created, updated (e.g. renamed) or deleted.
+ */
+public class CategoryChangedEvent {
+
+    private final Long categoryId;
+
+    public CategoryChangedEvent(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+}
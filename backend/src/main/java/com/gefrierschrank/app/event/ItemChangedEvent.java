@@ -0,0 +1,45 @@
+package com.gefrierschrank.app.event;
+
+import com.gefrierschrank.app.dto.ItemDto;
+
+/**
+ * Published by {@code ItemService} whenever an item is created, updated or deleted. Listeners that
+ * need committed data should use {@code @TransactionalEventListener}. {@code item} holds the state
+ * after the change and is {@code null} for deletions.
+ */
+public class ItemChangedEvent {
+
+    private final String username;
+    private final Long itemId;
+    private final ItemDto item;
+
+    private ItemChangedEvent(String username, Long itemId, ItemDto item) {
+        this.username = username;
+        this.itemId = itemId;
+        this.item = item;
+    }
+
+    public static ItemChangedEvent saved(ItemDto item) {
+        return new ItemChangedEvent(item.getUsername(), item.getId(), item);
+    }
+
+    public static ItemChangedEvent deleted(String username, Long itemId) {
+        return new ItemChangedEvent(username, itemId, null);
+    }
+
+    public boolean isDeleted() {
+        return item == null;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Long getItemId() {
+        return itemId;
+    }
+
+    public ItemDto getItem() {
+        return item;
+    }
+}
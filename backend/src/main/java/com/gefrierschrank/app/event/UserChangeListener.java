@@ -0,0 +1,30 @@
+package com.gefrierschrank.app.event;
+
+import com.gefrierschrank.app.entity.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA listener on {@link User} that turns every update or delete of a managed entity into a
+ * {@link UserChangedEvent}, whichever service made it. JPQL bulk statements and native queries
+ * bypass entity callbacks and publish nothing, so user writes have to go through the entity (or
+ * publish the event themselves) for caches of user data to see them. Hibernate obtains the
+ * listener from the Spring context, which is what allows the constructor injection.
+ */
+@Component
+public class UserChangeListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public UserChangeListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void onChange(User user) {
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId()));
+    }
+}
@@ -0,0 +1,17 @@
+package com.gefrierschrank.app.event;
+
+/**
+ * Published by {@link UserChangeListener} whenever a user entity is updated or deleted.
+ */
+public class UserChangedEvent {
+
+    private final Long userId;
+
+    public UserChangedEvent(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+}
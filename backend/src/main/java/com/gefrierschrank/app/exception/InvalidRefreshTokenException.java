@@ -0,0 +1,14 @@
+package com.gefrierschrank.app.exception;
+
+import org.springframework.security.authentication.BadCredentialsException;
+
+/**
+ * A refresh token that is unknown, expired or was already used. Answered with 401 like a failed
+ * signin, but with its own message, since no username or password was involved.
+ */
+public class InvalidRefreshTokenException extends BadCredentialsException {
+
+    public InvalidRefreshTokenException(String message) {
+        super(message);
+    }
+}
@@ -1,8 +1,12 @@
 package com.gefrierschrank.app.repository;
 
+import com.gefrierschrank.app.constants.AppConstants;
 import com.gefrierschrank.app.entity.Category;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -14,6 +18,10 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     
     Optional<Category> findByName(String name);
     
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = AppConstants.CATEGORY_QUERY_CACHE_REGION)
+    })
     Optional<Category> findByNameIgnoreCase(String name);
     
     boolean existsByName(String name);
@@ -21,6 +29,10 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     boolean existsByNameIgnoreCase(String name);
     
     @Query("SELECT c FROM Category c ORDER BY c.name ASC")
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = AppConstants.CATEGORY_QUERY_CACHE_REGION)
+    })
     List<Category> findAllByOrderByNameAsc();
     
     @Query("SELECT CASE WHEN COUNT(i) > 0 THEN true ELSE false END FROM Item i WHERE i.category.id = :categoryId")
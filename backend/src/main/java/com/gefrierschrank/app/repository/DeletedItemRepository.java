@@ -0,0 +1,22 @@
+package com.gefrierschrank.app.repository;
+
+import com.gefrierschrank.app.entity.DeletedItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface DeletedItemRepository extends JpaRepository<DeletedItem, Long> {
+    
+    @Query("SELECT d.itemId FROM DeletedItem d WHERE d.userId = :userId AND d.deletedAt > :since ORDER BY d.deletedAt")
+    List<Long> findItemIdsDeletedAfter(@Param("userId") Long userId, @Param("since") LocalDateTime since);
+    
+    @Modifying
+    @Query("DELETE FROM DeletedItem d WHERE d.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
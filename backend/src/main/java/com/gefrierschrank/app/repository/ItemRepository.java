@@ -1,105 +1,118 @@
 package com.gefrierschrank.app.repository;
 
+import com.gefrierschrank.app.constants.AppConstants;
+import com.gefrierschrank.app.dto.ItemDto;
 import com.gefrierschrank.app.entity.Item;
 import com.gefrierschrank.app.entity.Category;
 import com.gefrierschrank.app.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ItemRepository extends JpaRepository<Item, Long> {
+public interface ItemRepository extends JpaRepository<Item, Long>, ItemRepositoryCustom {
     
-    // Basic queries by user
-    List<Item> findByUserOrderByCreatedAtDesc(User user);
+    // Selects exactly the ItemDto columns; results are not managed and never dirty-checked
+    String ITEM_DTO_SELECT = "SELECT new com.gefrierschrank.app.dto.ItemDto(" +
+            "i.id, i.name, c.id, c.name, i.quantity, i.unit, i.expiryDate, i.expiryType, " +
+            "i.photoPath, i.description, u.id, u.username, i.createdAt, i.updatedAt) " +
+            "FROM Item i JOIN i.category c JOIN i.user u ";
     
-    Page<Item> findByUserOrderByCreatedAtDesc(User user, Pageable pageable);
+    // Owner-scoped single item access: the owner check is part of the statement, so a foreign id
+    // looks exactly like a missing one and no separate authorization query is needed
+    Optional<Item> findByIdAndUserId(Long id, Long userId);
     
-    // Filter by category
-    List<Item> findByUserAndCategoryOrderByCreatedAtDesc(User user, Category category);
+    @Query(ITEM_DTO_SELECT + "WHERE i.id = :id AND u.id = :userId")
+    Optional<ItemDto> findDtoByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
     
-    Page<Item> findByUserAndCategoryOrderByCreatedAtDesc(User user, Category category, Pageable pageable);
+    @Modifying
+    @Query("DELETE FROM Item i WHERE i.id = :id AND i.user.id = :userId")
+    int deleteByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
     
-    // Search by name
-    @Query("SELECT i FROM Item i WHERE i.user = :user AND " +
-           "LOWER(i.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
-           "ORDER BY i.createdAt DESC")
-    List<Item> findByUserAndNameContainingIgnoreCase(@Param("user") User user, 
-                                                     @Param("searchTerm") String searchTerm);
+    // Read-only projections
+    @Query(ITEM_DTO_SELECT + "WHERE i.user = :user ORDER BY i.createdAt DESC")
+    List<ItemDto> findDtosByUser(@Param("user") User user);
     
-    @Query("SELECT i FROM Item i WHERE i.user = :user AND " +
-           "LOWER(i.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
-           "ORDER BY i.createdAt DESC")
-    Page<Item> findByUserAndNameContainingIgnoreCase(@Param("user") User user, 
-                                                     @Param("searchTerm") String searchTerm, 
-                                                     Pageable pageable);
+    @Query(value = ITEM_DTO_SELECT + "WHERE i.user = :user ORDER BY i.createdAt DESC",
+           countQuery = "SELECT COUNT(i) FROM Item i WHERE i.user = :user")
+    Page<ItemDto> findDtosByUser(@Param("user") User user, Pageable pageable);
     
-    // Expiry date queries
-    @Query("SELECT i FROM Item i WHERE i.user = :user AND i.expiryDate IS NOT NULL AND " +
-           "i.expiryDate BETWEEN :startDate AND :endDate ORDER BY i.expiryDate ASC")
-    List<Item> findByUserAndExpiryDateBetween(@Param("user") User user, 
-                                             @Param("startDate") LocalDate startDate, 
-                                             @Param("endDate") LocalDate endDate);
+    // Forward-only cursor over DTO rows, fetched in chunks: memory stays flat however many items
+    // there are. Must be consumed inside a transaction and closed.
+    @Query(ITEM_DTO_SELECT + "WHERE i.user = :user ORDER BY i.createdAt DESC, i.id DESC")
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "" + AppConstants.EXPORT_FETCH_SIZE),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<ItemDto> streamDtosByUser(@Param("user") User user);
     
-    @Query("SELECT i FROM Item i WHERE i.user = :user AND i.expiryDate IS NOT NULL AND " +
-           "i.expiryDate <= :date ORDER BY i.expiryDate ASC")
-    List<Item> findByUserAndExpiryDateBefore(@Param("user") User user, @Param("date") LocalDate date);
+    // Delta sync, served by the (user_id, updated_at) index
+    @Query(ITEM_DTO_SELECT + "WHERE i.user = :user AND i.updatedAt > :since ORDER BY i.updatedAt, i.id")
+    List<ItemDto> findDtosByUserUpdatedAfter(@Param("user") User user, @Param("since") LocalDateTime since);
     
-    // Items expiring within specified days
-    @Query("SELECT i FROM Item i WHERE i.user = :user AND i.expiryDate IS NOT NULL AND " +
+    @Query(ITEM_DTO_SELECT + "WHERE i.user = :user AND i.category = :category ORDER BY i.createdAt DESC")
+    List<ItemDto> findDtosByUserAndCategory(@Param("user") User user, @Param("category") Category category);
+    
+    // Batch updates and deletes: foreign ids are filtered out, so they look the same as missing ones
+    List<Item> findByUserAndIdIn(User user, Collection<Long> ids);
+    
+    @Query(ITEM_DTO_SELECT + "WHERE i.user = :user AND i.id IN :ids ORDER BY i.createdAt DESC")
+    List<ItemDto> findDtosByUserAndIdIn(@Param("user") User user, @Param("ids") Collection<Long> ids);
+    
+    @Query(ITEM_DTO_SELECT + "WHERE i.user = :user AND i.expiryDate IS NOT NULL AND " +
            "i.expiryDate BETWEEN CURRENT_DATE AND :expiryDate ORDER BY i.expiryDate ASC")
-    List<Item> findByUserAndExpiringSoon(@Param("user") User user, @Param("expiryDate") LocalDate expiryDate);
+    List<ItemDto> findDtosByUserAndExpiringSoon(@Param("user") User user, @Param("expiryDate") LocalDate expiryDate);
     
-    // Items already expired
-    @Query("SELECT i FROM Item i WHERE i.user = :user AND i.expiryDate IS NOT NULL AND " +
+    @Query(ITEM_DTO_SELECT + "WHERE i.user = :user AND i.expiryDate IS NOT NULL AND " +
            "i.expiryDate < CURRENT_DATE ORDER BY i.expiryDate DESC")
-    List<Item> findByUserAndExpired(@Param("user") User user);
-    
-    // Combined filters
-    @Query("SELECT i FROM Item i WHERE i.user = :user " +
-           "AND (:category IS NULL OR i.category = :category) " +
-           "AND (:searchTerm IS NULL OR LOWER(i.name) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) " +
-           "AND (:hasExpiryFilter = false OR (i.expiryDate IS NOT NULL AND i.expiryDate <= :expiryDate)) " +
-           "ORDER BY " +
-           "CASE WHEN :sortBy = 'name' THEN i.name END ASC, " +
-           "CASE WHEN :sortBy = 'expiry' THEN i.expiryDate END ASC, " +
-           "CASE WHEN :sortBy = 'category' THEN i.category.name END ASC, " +
-           "CASE WHEN :sortBy = 'quantity' THEN i.quantity END DESC, " +
-           "i.createdAt DESC")
-    Page<Item> findByUserWithFilters(@Param("user") User user,
-                                    @Param("category") Category category,
-                                    @Param("searchTerm") String searchTerm,
-                                    @Param("hasExpiryFilter") boolean hasExpiryFilter,
-                                    @Param("expiryDate") LocalDate expiryDate,
-                                    @Param("sortBy") String sortBy,
-                                    Pageable pageable);
+    List<ItemDto> findDtosByUserAndExpired(@Param("user") User user);
     
-    // Statistics
-    @Query("SELECT COUNT(i) FROM Item i WHERE i.user = :user")
-    long countByUser(@Param("user") User user);
+    // Keyset scrolling: callers request one row more than the page size to detect a next page,
+    // so no COUNT is needed and every page costs the same as the first one
+    @Query(ITEM_DTO_SELECT + "WHERE i.user = :user ORDER BY i.createdAt DESC, i.id DESC")
+    List<ItemDto> findDtoSliceByUser(@Param("user") User user, Pageable pageable);
     
-    @Query("SELECT COUNT(i) FROM Item i WHERE i.user = :user AND i.category = :category")
-    long countByUserAndCategory(@Param("user") User user, @Param("category") Category category);
+    @Query(ITEM_DTO_SELECT + "WHERE i.user = :user AND i.createdAt <= :createdAt " +
+           "AND (i.createdAt < :createdAt OR i.id < :id) " +
+           "ORDER BY i.createdAt DESC, i.id DESC")
+    List<ItemDto> findDtoSliceByUserBefore(@Param("user") User user,
+                                          @Param("createdAt") LocalDateTime createdAt,
+                                          @Param("id") Long id,
+                                          Pageable pageable);
     
+    // Statistics
     @Query("SELECT COUNT(i) FROM Item i WHERE i.user = :user AND i.expiryDate IS NOT NULL AND " +
            "i.expiryDate BETWEEN CURRENT_DATE AND :expiryDate")
     long countByUserAndExpiringSoon(@Param("user") User user, @Param("expiryDate") LocalDate expiryDate);
     
-    @Query("SELECT COUNT(i) FROM Item i WHERE i.user = :user AND i.expiryDate IS NOT NULL AND " +
-           "i.expiryDate < CURRENT_DATE")
-    long countByUserAndExpired(@Param("user") User user);
-    
-    // Category statistics
-    @Query("SELECT i.category.name, COUNT(i) FROM Item i WHERE i.user = :user GROUP BY i.category.name ORDER BY COUNT(i) DESC")
-    List<Object[]> findCategoryStatsByUser(@Param("user") User user);
-    
-    // Recent items
-    @Query("SELECT i FROM Item i WHERE i.user = :user ORDER BY i.createdAt DESC")
-    List<Item> findRecentItemsByUser(@Param("user") User user, Pageable pageable);
+    // One row per item with just the columns the in-memory statistics need: id, category name, expiry type, expiry date
+    @Query("SELECT i.id, c.name, i.expiryType, i.expiryDate FROM Item i JOIN i.category c JOIN i.user u " +
+           "WHERE u.username = :username")
+    List<Object[]> findStatisticsFactsByUsername(@Param("username") String username);
+    
+    // Search index entries: id and name per item, plus the owner when loading all users at once.
+    // The full load is a forward-only cursor like streamDtosByUser; it must be consumed inside a transaction and closed.
+    @Query("SELECT i.id, u.username, i.name FROM Item i JOIN i.user u")
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "" + AppConstants.SEARCH_INDEX_FETCH_SIZE),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Object[]> streamAllSearchEntries();
+    
+    @Query("SELECT i.id, i.name FROM Item i JOIN i.user u WHERE u.username = :username")
+    List<Object[]> findSearchEntriesByUsername(@Param("username") String username);
 }
\ No newline at end of file
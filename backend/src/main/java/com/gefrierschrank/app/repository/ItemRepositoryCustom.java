@@ -0,0 +1,23 @@
+package com.gefrierschrank.app.repository;
+
+import com.gefrierschrank.app.dto.ItemDto;
+import com.gefrierschrank.app.entity.Item;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Dynamic item queries that project straight into {@link ItemDto}. Sort properties refer to
+ * {@link Item} attributes; {@code category.name} sorts by the category name.
+ */
+public interface ItemRepositoryCustom {
+
+    String CATEGORY_NAME = "category.name";
+
+    Page<ItemDto> findDtos(Specification<Item> specification, Pageable pageable);
+
+    List<ItemDto> findDtos(Specification<Item> specification, Sort sort, int limit);
+}
@@ -0,0 +1,105 @@
+package com.gefrierschrank.app.repository;
+
+import com.gefrierschrank.app.dto.ItemDto;
+import com.gefrierschrank.app.entity.Category;
+import com.gefrierschrank.app.entity.Item;
+import com.gefrierschrank.app.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.query.NullPrecedence;
+import org.hibernate.query.criteria.JpaOrder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ItemRepositoryCustomImpl implements ItemRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<ItemDto> findDtos(Specification<Item> specification, Pageable pageable) {
+        TypedQuery<ItemDto> query = createDtoQuery(specification, pageable.getSort());
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+
+        // COUNT only runs when the page itself cannot tell the total
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> count(specification));
+    }
+
+    @Override
+    public List<ItemDto> findDtos(Specification<Item> specification, Sort sort, int limit) {
+        return createDtoQuery(specification, sort)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private TypedQuery<ItemDto> createDtoQuery(Specification<Item> specification, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ItemDto> query = cb.createQuery(ItemDto.class);
+        Root<Item> root = query.from(Item.class);
+        Join<Item, Category> category = root.join("category");
+        Join<Item, User> user = root.join("user");
+
+        query.select(cb.construct(ItemDto.class,
+                root.get("id"), root.get("name"), category.get("id"), category.get("name"),
+                root.get("quantity"), root.get("unit"), root.get("expiryDate"), root.get("expiryType"),
+                root.get("photoPath"), root.get("description"), user.get("id"), user.get("username"),
+                root.get("createdAt"), root.get("updatedAt")));
+
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(toOrders(sort, root, category, cb));
+
+        return entityManager.createQuery(query);
+    }
+
+    private long count(Specification<Item> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Item> root = query.from(Item.class);
+        query.select(cb.count(root));
+
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private List<Order> toOrders(Sort sort, Root<Item> root, Join<Item, Category> category, CriteriaBuilder cb) {
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            Expression<?> path = CATEGORY_NAME.equals(order.getProperty())
+                    ? category.get("name")
+                    : root.get(order.getProperty());
+
+            JpaOrder jpaOrder = (JpaOrder) (order.isAscending() ? cb.asc(path) : cb.desc(path));
+            if (order.getNullHandling() == Sort.NullHandling.NULLS_FIRST) {
+                jpaOrder.nullPrecedence(NullPrecedence.FIRST);
+            } else if (order.getNullHandling() == Sort.NullHandling.NULLS_LAST) {
+                jpaOrder.nullPrecedence(NullPrecedence.LAST);
+            }
+            orders.add(jpaOrder);
+        }
+        return orders;
+    }
+}
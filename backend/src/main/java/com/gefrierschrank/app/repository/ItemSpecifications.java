@@ -0,0 +1,63 @@
+package com.gefrierschrank.app.repository;
+
+import com.gefrierschrank.app.entity.Item;
+import com.gefrierschrank.app.entity.User;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Predicates for dynamic item queries. Each factory produces exactly one condition, so a
+ * composed specification only contains the filters a caller actually asked for.
+ */
+public final class ItemSpecifications {
+
+    private ItemSpecifications() {
+        // Utility class - prevent instantiation
+    }
+
+    public static Specification<Item> ownedBy(User user) {
+        return (root, query, cb) -> cb.equal(root.get("user"), user);
+    }
+
+    public static Specification<Item> inCategory(Long categoryId) {
+        return (root, query, cb) -> cb.equal(root.get("category").get("id"), categoryId);
+    }
+
+    public static Specification<Item> idIn(Collection<Long> itemIds) {
+        return (root, query, cb) -> itemIds.isEmpty() ? cb.disjunction() : root.get("id").in(itemIds);
+    }
+
+    public static Specification<Item> expiringOnOrBefore(LocalDate date) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("expiryDate"), date);
+    }
+
+    /**
+     * Seek predicate for the order {@code createdAt DESC, id DESC}: rows strictly after the cursor.
+     */
+    public static Specification<Item> createdBefore(LocalDateTime createdAt, Long id) {
+        return (root, query, cb) -> cb.and(
+                cb.lessThanOrEqualTo(root.get("createdAt"), createdAt),
+                cb.or(
+                        cb.lessThan(root.get("createdAt"), createdAt),
+                        cb.lessThan(root.get("id"), id)));
+    }
+
+    /**
+     * Seek predicate for the order {@code expiryDate ASC NULLS LAST, id ASC}: rows strictly after
+     * the cursor. A cursor without expiry date points into the trailing block of undated items.
+     */
+    public static Specification<Item> expiringAfter(LocalDate expiryDate, Long id) {
+        if (expiryDate == null) {
+            return (root, query, cb) -> cb.and(
+                    cb.isNull(root.get("expiryDate")),
+                    cb.greaterThan(root.get("id"), id));
+        }
+        return (root, query, cb) -> cb.or(
+                cb.greaterThan(root.get("expiryDate"), expiryDate),
+                cb.and(cb.equal(root.get("expiryDate"), expiryDate), cb.greaterThan(root.get("id"), id)),
+                cb.isNull(root.get("expiryDate")));
+    }
+}
@@ -0,0 +1,201 @@
+package com.gefrierschrank.app.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Burkhard-Keller tree over the folded words of item names, for typo tolerant lookups. Every item
+ * is stored under each word of its name and under each pair of neighbouring words written together,
+ * while the query is compacted the same way, so "Spinnat" finds "Spinat (TK)", "Lachs filet" finds
+ * "Lachsfilet" and "Lachsfilet" finds "Lachs Filet". Removed items leave empty nodes behind; the
+ * tree is rebuilt once those outnumber the live ones.
+ */
+public class BkTree {
+
+    private static final int MIN_DEAD_NODES_FOR_REBUILD = 64;
+    private static final String SEPARATORS = "[^\\p{L}\\p{N}]+";
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Set<String>> keysByItem = new HashMap<>();
+    private final Map<String, Node> nodesByKey = new HashMap<>();
+    private Node root;
+    private int deadNodes;
+
+    public void put(Long itemId, String name) {
+        lock.writeLock().lock();
+        try {
+            removeItem(itemId);
+            Set<String> keys = keysOf(GermanTextNormalizer.normalize(name));
+            keysByItem.put(itemId, keys);
+            for (String key : keys) {
+                Node node = nodesByKey.get(key);
+                if (node == null) {
+                    node = insert(key);
+                } else if (node.itemIds.isEmpty()) {
+                    deadNodes--;
+                }
+                node.itemIds.add(itemId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long itemId) {
+        lock.writeLock().lock();
+        try {
+            removeItem(itemId);
+            if (deadNodes >= MIN_DEAD_NODES_FOR_REBUILD && deadNodes > nodesByKey.size() - deadNodes) {
+                rebuild();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns every item with a key within {@code maxDistance} edits of the folded query, mapped
+     * to the smallest distance found for it.
+     */
+    public Map<Long, Integer> search(String query, int maxDistance) {
+        String folded = compact(GermanTextNormalizer.normalize(query));
+        Map<Long, Integer> matches = new HashMap<>();
+
+        lock.readLock().lock();
+        try {
+            if (root == null || folded.isEmpty()) {
+                return matches;
+            }
+
+            Deque<Node> pending = new ArrayDeque<>();
+            pending.push(root);
+            while (!pending.isEmpty()) {
+                Node node = pending.pop();
+                int distance = levenshtein(folded, node.key);
+                if (distance <= maxDistance) {
+                    for (Long itemId : node.itemIds) {
+                        matches.merge(itemId, distance, Math::min);
+                    }
+                }
+                // Triangle inequality: only subtrees at distance d - max .. d + max can hold matches
+                for (int d = Math.max(1, distance - maxDistance); d <= distance + maxDistance; d++) {
+                    Node child = node.children.get(d);
+                    if (child != null) {
+                        pending.push(child);
+                    }
+                }
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static int levenshtein(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    // Words with letters, plus each pair of neighbouring words written together; numbers are left to the substring index
+    private static Set<String> keysOf(String folded) {
+        List<String> words = new ArrayList<>();
+        for (String word : folded.split(SEPARATORS)) {
+            if (!word.isEmpty() && !word.chars().allMatch(Character::isDigit)) {
+                words.add(word);
+            }
+        }
+
+        Set<String> keys = new LinkedHashSet<>(words);
+        for (int i = 0; i + 1 < words.size(); i++) {
+            keys.add(words.get(i) + words.get(i + 1));
+        }
+        return keys;
+    }
+
+    static String compact(String folded) {
+        return folded.replaceAll(SEPARATORS, "");
+    }
+
+    private void removeItem(Long itemId) {
+        Set<String> keys = keysByItem.remove(itemId);
+        if (keys == null) {
+            return;
+        }
+        for (String key : keys) {
+            Node node = nodesByKey.get(key);
+            if (node != null && node.itemIds.remove(itemId) && node.itemIds.isEmpty()) {
+                deadNodes++;
+            }
+        }
+    }
+
+    private Node insert(String key) {
+        Node node = new Node(key);
+        nodesByKey.put(key, node);
+        if (root == null) {
+            root = node;
+            return node;
+        }
+
+        Node parent = root;
+        while (true) {
+            int distance = levenshtein(key, parent.key);
+            Node child = parent.children.get(distance);
+            if (child == null) {
+                parent.children.put(distance, node);
+                return node;
+            }
+            parent = child;
+        }
+    }
+
+    private void rebuild() {
+        List<Map.Entry<Long, Set<String>>> items = new ArrayList<>(keysByItem.entrySet());
+        root = null;
+        nodesByKey.clear();
+        deadNodes = 0;
+        for (Map.Entry<Long, Set<String>> item : items) {
+            for (String key : item.getValue()) {
+                Node node = nodesByKey.get(key);
+                if (node == null) {
+                    node = insert(key);
+                }
+                node.itemIds.add(item.getKey());
+            }
+        }
+    }
+
+    private static final class Node {
+
+        private final String key;
+        private final Set<Long> itemIds = new HashSet<>();
+        private final Map<Integer, Node> children = new HashMap<>();
+
+        private Node(String key) {
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.gefrierschrank.app.search;
+
+import java.util.Locale;
+
+/**
+ * Folds German text for searching: lower case, umlauts spelled out ({@code ä} becomes {@code ae})
+ * and {@code ß} becomes {@code ss}. "Hähnchen", "HAEHNCHEN" and "haehnchen" all fold to the same key.
+ */
+public final class GermanTextNormalizer {
+
+    private GermanTextNormalizer() {
+        // Utility class - prevent instantiation
+    }
+
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+
+        String lowerCase = text.toLowerCase(Locale.GERMAN);
+        StringBuilder folded = new StringBuilder(lowerCase.length() + 4);
+        for (int i = 0; i < lowerCase.length(); i++) {
+            char c = lowerCase.charAt(i);
+            switch (c) {
+                case 'ä' -> folded.append("ae");
+                case 'ö' -> folded.append("oe");
+                case 'ü' -> folded.append("ue");
+                case 'ß' -> folded.append("ss");
+                default -> folded.append(c);
+            }
+        }
+        return folded.toString();
+    }
+}
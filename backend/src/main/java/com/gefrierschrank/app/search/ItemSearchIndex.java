@@ -0,0 +1,146 @@
+package com.gefrierschrank.app.search;
+
+import com.gefrierschrank.app.event.ItemChangedEvent;
+import com.gefrierschrank.app.repository.ItemRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Per-user indexes over item names: a {@link TrigramIndex} for substring search, a {@link BkTree}
+ * for typo tolerant search and a {@link SuggestionTrie} for typeahead. All indexes are built once
+ * the application is ready and then follow the committed {@link ItemChangedEvent}s; a user without an index (no items
+ * at startup, or after {@link #invalidateAll()}) is loaded on first search. That lazy build holds the
+ * user's map entry, so a rename or delete arriving meanwhile is indexed after it, never into a partial index.
+ */
+@Component
+public class ItemSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ItemSearchIndex.class);
+
+    private final ItemRepository itemRepository;
+    private final ConcurrentMap<String, UserIndex> indexByUsername = new ConcurrentHashMap<>();
+
+    public ItemSearchIndex(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    // Rows are indexed as the cursor advances, so only the indexes grow with the table, not a copy of it
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void buildAll() {
+        long start = System.currentTimeMillis();
+        AtomicInteger count = new AtomicInteger();
+        try (Stream<Object[]> rows = itemRepository.streamAllSearchEntries()) {
+            rows.forEach(row -> {
+                indexByUsername.computeIfAbsent((String) row[1], username -> new UserIndex())
+                        .put((Long) row[0], (String) row[2]);
+                count.incrementAndGet();
+            });
+        }
+        logger.info("Indexed {} item names for {} users in {} ms",
+                count.get(), indexByUsername.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Returns the ids of the user's items whose name contains {@code term}, ignoring case and
+     * German spelling variants.
+     */
+    public Set<Long> search(String username, String term) {
+        return indexByUsername.computeIfAbsent(username, this::load).substrings.search(term);
+    }
+
+    /**
+     * Returns the ids of the user's items whose name contains {@code term} (distance 0) or has a
+     * word within a few edits of it, mapped to the smallest edit distance.
+     * Longer terms tolerate more edits, see {@link #maxEditsFor(String)}.
+     */
+    public Map<Long, Integer> fuzzySearch(String username, String term) {
+        UserIndex index = indexByUsername.computeIfAbsent(username, this::load);
+        Map<Long, Integer> matches = index.words.search(term, maxEditsFor(term));
+        index.substrings.search(term).forEach(itemId -> matches.put(itemId, 0));
+        return matches;
+    }
+
+    /**
+     * Returns the most frequent names of the user's items that start with {@code prefix}.
+     */
+    public List<SuggestionTrie.Suggestion> suggest(String username, String prefix, int limit) {
+        return indexByUsername.computeIfAbsent(username, this::load).suggestions.suggest(prefix, limit);
+    }
+
+    // 0 edits up to 2 characters, 1 up to 5, 2 beyond; more lets short terms match nearly anything
+    static int maxEditsFor(String term) {
+        int length = BkTree.compact(GermanTextNormalizer.normalize(term)).length();
+        if (length <= 2) {
+            return 0;
+        }
+        return length <= 5 ? 1 : 2;
+    }
+
+    @TransactionalEventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        indexByUsername.computeIfPresent(event.getUsername(), (username, index) -> {
+            if (event.isDeleted()) {
+                index.remove(event.getItemId());
+            } else {
+                index.put(event.getItemId(), event.getItem().getName());
+            }
+            return index;
+        });
+    }
+
+    public void invalidateAll() {
+        indexByUsername.clear();
+    }
+
+    private UserIndex load(String username) {
+        logger.debug("Loading search index for user: {}", username);
+        UserIndex index = new UserIndex();
+        for (Object[] row : itemRepository.findSearchEntriesByUsername(username)) {
+            index.put((Long) row[0], (String) row[1]);
+        }
+        return index;
+    }
+
+    private static final class UserIndex {
+
+        private final TrigramIndex substrings = new TrigramIndex();
+        private final BkTree words = new BkTree();
+        private final SuggestionTrie suggestions = new SuggestionTrie();
+        // Current name per item, so a rename or delete can take the old name's count back
+        private final Map<Long, String> names = new HashMap<>();
+
+        synchronized void put(Long itemId, String name) {
+            substrings.put(itemId, name);
+            words.put(itemId, name);
+            String previous = names.put(itemId, name);
+            if (previous != null) {
+                suggestions.remove(previous);
+            }
+            suggestions.add(name);
+        }
+
+        synchronized void remove(Long itemId) {
+            substrings.remove(itemId);
+            words.remove(itemId);
+            String previous = names.remove(itemId);
+            if (previous != null) {
+                suggestions.remove(previous);
+            }
+        }
+    }
+}
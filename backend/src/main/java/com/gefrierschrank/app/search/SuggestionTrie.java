@@ -0,0 +1,237 @@
+package com.gefrierschrank.app.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Compressed (radix) trie of item names for typeahead. Names are keyed by their folded form and
+ * counted, so the same product entered as "Hähnchen" and "haehnchen" is one suggestion; it is
+ * shown with the spelling used last. Every node keeps the {@link #TOP_K} most frequent names of its
+ * subtree, so a lookup only walks the prefix and copies that list.
+ */
+public class SuggestionTrie {
+
+    public static final int TOP_K = 10;
+
+    private static final Comparator<Entry> BY_FREQUENCY = Comparator.comparingInt(Entry::count).reversed()
+            .thenComparing(Entry::key);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node root = new Node("");
+
+    public void add(String name) {
+        update(name, 1);
+    }
+
+    public void remove(String name) {
+        update(name, -1);
+    }
+
+    /**
+     * Returns up to {@code limit} (at most {@link #TOP_K}) names starting with {@code prefix},
+     * most frequent first.
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String folded = GermanTextNormalizer.normalize(prefix);
+
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            int matched = 0;
+            while (matched < folded.length()) {
+                Node child = node.children.get(folded.charAt(matched));
+                if (child == null) {
+                    return List.of();
+                }
+                int common = commonPrefixLength(child.label, folded, matched);
+                if (matched + common < folded.length() && common < child.label.length()) {
+                    return List.of();
+                }
+                matched += common;
+                node = child;
+            }
+
+            List<Suggestion> suggestions = new ArrayList<>();
+            for (int i = 0; i < Math.min(limit, node.top.size()); i++) {
+                Entry entry = node.top.get(i);
+                suggestions.add(new Suggestion(entry.displayName(), entry.count()));
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void update(String name, int delta) {
+        String key = GermanTextNormalizer.normalize(name).strip();
+        if (key.isEmpty()) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            List<Node> path = new ArrayList<>();
+            int refreshFrom;
+            if (delta > 0) {
+                Node node = insertPath(key, path);
+                node.count += delta;
+                node.displayName = name.strip();
+                refreshFrom = path.size() - 1;
+            } else {
+                Node node = findPath(key, path);
+                if (node == null || node.count == 0) {
+                    return;
+                }
+                node.count += delta;
+                refreshFrom = prune(path);
+            }
+
+            // Only the nodes on the path can see a different top list; refresh them bottom up
+            for (int i = refreshFrom; i >= 0; i--) {
+                refreshTop(path.get(i));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Number of nodes below the root; lets tests check that removals leave no dead branches behind
+    int nodeCount() {
+        lock.readLock().lock();
+        try {
+            int count = 0;
+            List<Node> pending = new ArrayList<>(root.children.values());
+            while (!pending.isEmpty()) {
+                Node node = pending.remove(pending.size() - 1);
+                count++;
+                pending.addAll(node.children.values());
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Walks to the node for exactly key without changing the trie; null if there is none
+    private Node findPath(String key, List<Node> path) {
+        Node node = root;
+        path.add(node);
+        int matched = 0;
+        while (matched < key.length()) {
+            Node child = node.children.get(key.charAt(matched));
+            if (child == null || commonPrefixLength(child.label, key, matched) < child.label.length()) {
+                return null;
+            }
+            matched += child.label.length();
+            node = child;
+            path.add(node);
+        }
+        return node;
+    }
+
+    /**
+     * Undoes what insertPath built for names that are gone: unlinks unused leaves, then merges an
+     * unused node with a single child into that child, so the trie stays compressed. Returns the
+     * index of the deepest node on the path still in the trie.
+     */
+    private int prune(List<Node> path) {
+        int i = path.size() - 1;
+        while (i > 0) {
+            Node node = path.get(i);
+            Node parent = path.get(i - 1);
+            if (node.count > 0 || node.children.size() > 1) {
+                return i;
+            }
+            if (node.children.isEmpty()) {
+                parent.children.remove(node.label.charAt(0));
+                i--;
+                continue;
+            }
+
+            Node child = node.children.values().iterator().next();
+            child.label = node.label + child.label;
+            parent.children.put(child.label.charAt(0), child);
+            return i - 1;
+        }
+        return 0;
+    }
+
+    // Walks to the node for key, splitting edges and adding nodes where needed; collects the path from the root
+    private Node insertPath(String key, List<Node> path) {
+        Node node = root;
+        path.add(node);
+        int matched = 0;
+        while (matched < key.length()) {
+            char next = key.charAt(matched);
+            Node child = node.children.get(next);
+            if (child == null) {
+                child = new Node(key.substring(matched));
+                child.key = key;
+                node.children.put(next, child);
+                path.add(child);
+                return child;
+            }
+
+            int common = commonPrefixLength(child.label, key, matched);
+            if (common < child.label.length()) {
+                Node split = new Node(child.label.substring(0, common));
+                split.key = key.substring(0, matched + common);
+                child.label = child.label.substring(common);
+                split.children.put(child.label.charAt(0), child);
+                split.top.addAll(child.top);
+                node.children.put(next, split);
+                child = split;
+            }
+            matched += common;
+            node = child;
+            path.add(node);
+        }
+        return node;
+    }
+
+    private static void refreshTop(Node node) {
+        List<Entry> candidates = new ArrayList<>();
+        if (node.count > 0) {
+            candidates.add(new Entry(node.key, node.displayName, node.count));
+        }
+        for (Node child : node.children.values()) {
+            candidates.addAll(child.top);
+        }
+        candidates.sort(BY_FREQUENCY);
+        node.top = new ArrayList<>(candidates.subList(0, Math.min(TOP_K, candidates.size())));
+    }
+
+    private static int commonPrefixLength(String label, String key, int offset) {
+        int length = 0;
+        while (length < label.length() && offset + length < key.length()
+                && label.charAt(length) == key.charAt(offset + length)) {
+            length++;
+        }
+        return length;
+    }
+
+    public record Suggestion(String name, int count) {
+    }
+
+    private record Entry(String key, String displayName, int count) {
+    }
+
+    private static final class Node {
+
+        private String label;
+        private String key = "";
+        private String displayName;
+        private int count;
+        private final Map<Character, Node> children = new HashMap<>();
+        private List<Entry> top = new ArrayList<>();
+
+        private Node(String label) {
+            this.label = label;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.gefrierschrank.app.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Inverted index from the trigrams of folded item names to item ids. A substring query is answered
+ * by intersecting the posting lists of its trigrams and checking the few remaining names, so no
+ * row outside the result has to be read. Queries shorter than a trigram scan the in-memory names.
+ * Writes are serialized; searches run without locking.
+ */
+public class TrigramIndex {
+
+    static final int GRAM_LENGTH = 3;
+
+    private final ConcurrentMap<Long, String> names = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Set<Long>> postings = new ConcurrentHashMap<>();
+
+    public synchronized void put(Long itemId, String name) {
+        remove(itemId);
+        String folded = GermanTextNormalizer.normalize(name);
+        names.put(itemId, folded);
+        for (String gram : trigrams(folded)) {
+            postings.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(itemId);
+        }
+    }
+
+    public synchronized void remove(Long itemId) {
+        String folded = names.remove(itemId);
+        if (folded == null) {
+            return;
+        }
+        for (String gram : trigrams(folded)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(itemId);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the ids of all items whose folded name contains the folded search term.
+     */
+    public Set<Long> search(String term) {
+        String folded = GermanTextNormalizer.normalize(term);
+        Set<Long> matches = new HashSet<>();
+
+        if (folded.length() < GRAM_LENGTH) {
+            names.forEach((itemId, name) -> {
+                if (name.contains(folded)) {
+                    matches.add(itemId);
+                }
+            });
+            return matches;
+        }
+
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : trigrams(folded)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return matches;
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        // Walk the rarest trigram and confirm the rest; the final contains() rules out grams in the wrong order
+        for (Long itemId : lists.get(0)) {
+            if (containsInAll(lists, itemId)) {
+                String name = names.get(itemId);
+                if (name != null && name.contains(folded)) {
+                    matches.add(itemId);
+                }
+            }
+        }
+        return matches;
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    Map<Long, String> names() {
+        return names;
+    }
+
+    static Set<String> trigrams(String folded) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= folded.length(); i++) {
+            grams.add(folded.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static boolean containsInAll(List<Set<Long>> lists, Long itemId) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(itemId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,8 +1,10 @@
 package com.gefrierschrank.app.security;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.SignatureException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -27,6 +29,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
     
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+    
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
     
     @Override
@@ -34,15 +39,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                    FilterChain filterChain) throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-                
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                UsernamePasswordAuthenticationToken authentication = 
-                    new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+            if (jwt != null) {
+                // Invalid tokens throw here and leave the request unauthenticated
+                Claims claims = jwtUtils.parseAndValidate(jwt);
+                if (tokenRevocationService.isRevoked(claims.getId())) {
+                    logger.warn("Rejected revoked JWT token of user: {}", claims.getSubject());
+                } else {
+                    authenticate(request, jwt, claims);
+                }
             }
         } catch (MalformedJwtException e) {
             logger.warn("Invalid JWT token format: {}", e.getMessage());
@@ -50,6 +54,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             logger.warn("JWT token is expired: {}", e.getMessage());
         } catch (UnsupportedJwtException e) {
             logger.warn("JWT token is unsupported: {}", e.getMessage());
+        } catch (SignatureException e) {
+            logger.warn("Invalid JWT signature: {}", e.getMessage());
         } catch (IllegalArgumentException e) {
             logger.warn("JWT claims string is empty: {}", e.getMessage());
         } catch (Exception e) {
@@ -59,11 +65,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
     
+    private void authenticate(HttpServletRequest request, String jwt, Claims claims) {
+        UserDetails userDetails = jwtUtils.getUserPrincipal(claims);
+        if (userDetails == null) {
+            // Token without user id and roles claims, issued before they were added
+            userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+        }
+        // The token is kept as credentials, so logout can revoke exactly the token it was called with
+        UsernamePasswordAuthenticationToken authentication =
+            new UsernamePasswordAuthenticationToken(userDetails, jwt, userDetails.getAuthorities());
+        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+    
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
         
         if (StringUtils.hasText(headerAuth) && headerAuth.startsWith("Bearer ")) {
-            return headerAuth.substring(7);
+            String token = headerAuth.substring(7).trim();
+            return token.isEmpty() ? null : token;
         }
         
         return null;
@@ -0,0 +1,83 @@
+package com.gefrierschrank.app.security;
+
+import com.gefrierschrank.app.constants.AppConstants;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Counts failed sign-ins per username and per client address over a sliding window, so that
+ * guessing passwords is refused before any password hash is computed. Only failures are tracked;
+ * a successful sign-in clears the username's count, while the address keeps its count until the
+ * failures slide out of the window.
+ */
+@Component
+public class LoginAttemptThrottle {
+
+    private static final int BUCKET_COUNT = 15;
+    private static final long BUCKET_MILLIS = AppConstants.LOGIN_FAILURE_WINDOW_SECONDS * 1000L / BUCKET_COUNT;
+
+    private final Clock clock;
+    private final ConcurrentMap<String, SlidingWindowCounter> failuresByUsername = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, SlidingWindowCounter> failuresByAddress = new ConcurrentHashMap<>();
+
+    @Autowired
+    public LoginAttemptThrottle() {
+        this(Clock.systemUTC());
+    }
+
+    LoginAttemptThrottle(Clock clock) {
+        this.clock = clock;
+    }
+
+    public boolean isUsernameBlocked(String username) {
+        return failures(failuresByUsername, key(username)) >= AppConstants.LOGIN_MAX_FAILURES_PER_USERNAME;
+    }
+
+    public boolean isAddressBlocked(String clientAddress) {
+        return failures(failuresByAddress, clientAddress) >= AppConstants.LOGIN_MAX_FAILURES_PER_IP;
+    }
+
+    public void recordFailure(String username, String clientAddress) {
+        long now = clock.millis();
+        failuresByUsername.computeIfAbsent(key(username), key -> newCounter()).increment(now);
+        failuresByAddress.computeIfAbsent(clientAddress, key -> newCounter()).increment(now);
+    }
+
+    public void recordSuccess(String username) {
+        failuresByUsername.remove(key(username));
+    }
+
+    /**
+     * Seconds until the window next moves on, which is the earliest a blocked attempt can succeed.
+     */
+    public long retryAfterSeconds() {
+        return BUCKET_MILLIS / 1000;
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictIdle() {
+        long now = clock.millis();
+        failuresByUsername.values().removeIf(counter -> counter.sum(now) == 0);
+        failuresByAddress.values().removeIf(counter -> counter.sum(now) == 0);
+    }
+
+    private long failures(ConcurrentMap<String, SlidingWindowCounter> failures, String key) {
+        SlidingWindowCounter counter = failures.get(key);
+        return counter == null ? 0 : counter.sum(clock.millis());
+    }
+
+    // Usernames are matched case-insensitively, so changing the case does not start a new count
+    private static String key(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+
+    private static SlidingWindowCounter newCounter() {
+        return new SlidingWindowCounter(BUCKET_COUNT, BUCKET_MILLIS);
+    }
+}
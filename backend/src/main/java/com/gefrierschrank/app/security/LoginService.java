@@ -0,0 +1,131 @@
+package com.gefrierschrank.app.security;
+
+import com.gefrierschrank.app.constants.AppConstants;
+import com.gefrierschrank.app.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs password checks on a small bounded pool, so a burst of sign-ins cannot occupy every request
+ * thread with BCrypt and starve the other endpoints. Attempts are refused with 429 before any hash
+ * is computed when {@link LoginAttemptThrottle} has seen too many failures for the username or
+ * address, or when the pool's queue is full.
+ */
+@Service
+public class LoginService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LoginService.class);
+    
+    private final AuthenticationManager authenticationManager;
+    private final LoginAttemptThrottle loginAttemptThrottle;
+    private final ThreadPoolExecutor executor;
+    private final Counter rejectedQueueFull;
+    private final Counter rejectedUsername;
+    private final Counter rejectedAddress;
+    
+    @Autowired
+    public LoginService(AuthenticationManager authenticationManager, LoginAttemptThrottle loginAttemptThrottle,
+                        MeterRegistry meterRegistry) {
+        // Half the cores: sign-ins can never take all CPU away from the item endpoints
+        this(authenticationManager, loginAttemptThrottle, meterRegistry,
+                Math.max(1, Runtime.getRuntime().availableProcessors() / 2), AppConstants.LOGIN_MAX_QUEUED);
+    }
+    
+    LoginService(AuthenticationManager authenticationManager, LoginAttemptThrottle loginAttemptThrottle,
+                 MeterRegistry meterRegistry, int threads, int maxQueued) {
+        this.authenticationManager = authenticationManager;
+        this.loginAttemptThrottle = loginAttemptThrottle;
+        
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxQueued),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "login-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        
+        Gauge.builder("auth.login.queue.size", executor, pool -> pool.getQueue().size())
+                .description("Sign-ins waiting for a password check")
+                .register(meterRegistry);
+        Gauge.builder("auth.login.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password checks in progress")
+                .register(meterRegistry);
+        this.rejectedQueueFull = rejectedCounter(meterRegistry, "queue_full");
+        this.rejectedUsername = rejectedCounter(meterRegistry, "username_throttled");
+        this.rejectedAddress = rejectedCounter(meterRegistry, "address_throttled");
+    }
+    
+    public Authentication authenticate(String username, String password, String clientAddress) {
+        if (loginAttemptThrottle.isAddressBlocked(clientAddress)) {
+            rejectedAddress.increment();
+            logger.warn("Sign-in refused, too many failed attempts from address: {}", clientAddress);
+            throw new TooManyRequestsException("Too many failed sign-in attempts, please try again later",
+                    loginAttemptThrottle.retryAfterSeconds());
+        }
+        if (loginAttemptThrottle.isUsernameBlocked(username)) {
+            rejectedUsername.increment();
+            logger.warn("Sign-in refused, too many failed attempts for user: {}", username);
+            throw new TooManyRequestsException("Too many failed sign-in attempts, please try again later",
+                    loginAttemptThrottle.retryAfterSeconds());
+        }
+        
+        Future<Authentication> result;
+        try {
+            result = executor.submit(() -> authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(username, password)));
+        } catch (RejectedExecutionException e) {
+            rejectedQueueFull.increment();
+            logger.warn("Sign-in refused, {} sign-ins already waiting", executor.getQueue().size());
+            throw new TooManyRequestsException("Too many sign-ins in progress, please try again", 1);
+        }
+        
+        try {
+            Authentication authentication = result.get();
+            loginAttemptThrottle.recordSuccess(username);
+            return authentication;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof BadCredentialsException) {
+                loginAttemptThrottle.recordFailure(username, clientAddress);
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Sign-in failed", e.getCause());
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for sign-in", e);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("auth.login.rejected")
+                .description("Sign-ins refused before checking the password")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
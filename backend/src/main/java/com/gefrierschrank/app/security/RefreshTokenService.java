@@ -0,0 +1,108 @@
+package com.gefrierschrank.app.security;
+
+import com.gefrierschrank.app.entity.RefreshToken;
+import com.gefrierschrank.app.entity.User;
+import com.gefrierschrank.app.exception.InvalidRefreshTokenException;
+import com.gefrierschrank.app.repository.RefreshTokenRepository;
+import com.gefrierschrank.app.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Issues and rotates refresh tokens, so an expired access token is renewed with a single indexed
+ * lookup instead of a BCrypt check of the password. Each refresh token can be used once: using it
+ * returns a new one of the same family, and presenting a used token again ends the whole family,
+ * since then either the client or someone who copied the token is replaying it.
+ */
+@Service
+public class RefreshTokenService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+    
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final UserDetailsServiceImpl userDetailsService;
+    private final JwtUtils jwtUtils;
+    private final long refreshExpirationSeconds;
+    
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository, UserRepository userRepository,
+                               UserDetailsServiceImpl userDetailsService, JwtUtils jwtUtils,
+                               @Value("${app.jwt.refresh-expiration}") long refreshExpirationSeconds) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.userDetailsService = userDetailsService;
+        this.jwtUtils = jwtUtils;
+        this.refreshExpirationSeconds = refreshExpirationSeconds;
+    }
+    
+    /**
+     * Starts a new token family for a user who just signed in and returns its first token.
+     */
+    @Transactional
+    public String issue(UserPrincipal principal) {
+        return save(userRepository.getReferenceById(principal.getId()), UUID.randomUUID().toString());
+    }
+    
+    /**
+     * Exchanges a refresh token for a new access token and a new refresh token. The principal comes
+     * from {@link UserPrincipalCache}, which drops a user on change, so a changed role takes effect
+     * with the next refresh.
+     */
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public RefreshedTokens rotate(String refreshToken) {
+        RefreshToken current = refreshTokenRepository.findByTokenHash(JwtUtils.hashToken(refreshToken))
+                .orElseThrow(() -> new InvalidRefreshTokenException("Refresh token is invalid or expired"));
+        
+        LocalDateTime now = LocalDateTime.now();
+        if (!current.getExpiresAt().isAfter(now)) {
+            throw new InvalidRefreshTokenException("Refresh token is invalid or expired");
+        }
+        if (refreshTokenRepository.markUsed(current.getId(), now) == 0) {
+            // Kept in the table by noRollbackFor, so the stolen family stays dead
+            refreshTokenRepository.deleteByFamilyId(current.getFamilyId());
+            logger.warn("Refresh token reused, revoked all refresh tokens of its family for user id: {}",
+                    current.getUser().getId());
+            throw new InvalidRefreshTokenException("Refresh token was already used");
+        }
+        
+        UserPrincipal principal = userDetailsService.loadUserById(current.getUser().getId());
+        return new RefreshedTokens(principal, jwtUtils.generateJwtTokenFor(principal),
+                save(current.getUser(), current.getFamilyId()));
+    }
+    
+    /**
+     * Ends the family of the given refresh token, if it belongs to {@code requester}.
+     */
+    @Transactional
+    public void revoke(String refreshToken, UserPrincipal requester) {
+        refreshTokenRepository.findByTokenHash(JwtUtils.hashToken(refreshToken))
+                .filter(token -> token.getUser().getId().equals(requester.getId()))
+                .ifPresent(token -> refreshTokenRepository.deleteByFamilyId(token.getFamilyId()));
+    }
+    
+    @Scheduled(cron = "0 30 * * * *")
+    @Transactional
+    public void sweepExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            logger.info("Swept {} expired refresh tokens", deleted);
+        }
+    }
+    
+    private String save(User user, String familyId) {
+        String token = jwtUtils.generateRefreshToken();
+        refreshTokenRepository.save(new RefreshToken(JwtUtils.hashToken(token), familyId, user,
+                LocalDateTime.now().plusSeconds(refreshExpirationSeconds)));
+        return token;
+    }
+    
+    public record RefreshedTokens(UserPrincipal principal, String accessToken, String refreshToken) {
+    }
+}
@@ -0,0 +1,56 @@
+package com.gefrierschrank.app.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free count of events over a sliding time window, kept in a ring of buckets. Each bucket
+ * packs the number of its time slot and its count into one long, so a bucket left over from an
+ * earlier turn of the ring is reset by the same compare-and-set that counts the new event.
+ */
+class SlidingWindowCounter {
+
+    private static final int COUNT_BITS = 24;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final AtomicLongArray buckets;
+    private final long bucketMillis;
+
+    SlidingWindowCounter(int bucketCount, long bucketMillis) {
+        this.buckets = new AtomicLongArray(bucketCount);
+        this.bucketMillis = bucketMillis;
+    }
+
+    void increment(long nowMillis) {
+        long slot = nowMillis / bucketMillis;
+        int index = (int) (slot % buckets.length());
+        while (true) {
+            long current = buckets.get(index);
+            long next;
+            if (current >>> COUNT_BITS != slot) {
+                next = slot << COUNT_BITS | 1;
+            } else if ((current & COUNT_MASK) == COUNT_MASK) {
+                return; // saturated; a full bucket already exceeds any limit
+            } else {
+                next = current + 1;
+            }
+            if (buckets.compareAndSet(index, current, next)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Number of events in the last {@code bucketCount * bucketMillis} milliseconds, to the precision of one bucket.
+     */
+    long sum(long nowMillis) {
+        long slot = nowMillis / bucketMillis;
+        long sum = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            long bucket = buckets.get(i);
+            if (slot - (bucket >>> COUNT_BITS) < buckets.length()) {
+                sum += bucket & COUNT_MASK;
+            }
+        }
+        return sum;
+    }
+}
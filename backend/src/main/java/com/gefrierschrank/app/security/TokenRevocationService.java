@@ -0,0 +1,113 @@
+package com.gefrierschrank.app.security;
+
+import com.gefrierschrank.app.constants.AppConstants;
+import com.gefrierschrank.app.entity.RevokedToken;
+import com.gefrierschrank.app.repository.RevokedTokenRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Deny-list of JWTs revoked before they expired, persisted in {@code revoked_tokens}. Lookups go
+ * through a {@link BloomFilter} of the revoked token ids first, so a token that was never revoked,
+ * which is nearly every request, is accepted without a query; only a hit is confirmed against the
+ * table. Rows are swept out once their token has expired anyway.
+ */
+@Service
+public class TokenRevocationService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+    
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final JwtUtils jwtUtils;
+    
+    // Guards replacing the filter, so a revocation saved while it is rebuilt is not dropped
+    private final Object filterLock = new Object();
+    private volatile BloomFilter revokedIds;
+    private int revokedCount;
+    
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository, JwtUtils jwtUtils) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.jwtUtils = jwtUtils;
+    }
+    
+    @PostConstruct
+    public void rebuildFilter() {
+        synchronized (filterLock) {
+            List<String> tokenIds = revokedTokenRepository.findTokenIdsExpiringAfter(LocalDateTime.now());
+            BloomFilter filter = new BloomFilter(
+                    Math.max(AppConstants.REVOKED_TOKEN_FILTER_MIN_CAPACITY, 2 * tokenIds.size()),
+                    AppConstants.REVOKED_TOKEN_FILTER_FALSE_POSITIVE_RATE);
+            tokenIds.forEach(filter::add);
+            revokedIds = filter;
+            revokedCount = tokenIds.size();
+        }
+        logger.debug("Loaded {} revoked tokens", revokedCount);
+    }
+    
+    public boolean isRevoked(String tokenId) {
+        // Tokens issued before ids were added cannot be revoked and simply run until they expire
+        if (tokenId == null) {
+            return false;
+        }
+        return revokedIds.mightContain(tokenId) && revokedTokenRepository.existsById(tokenId);
+    }
+    
+    /**
+     * Revokes {@code token}. Users may revoke their own tokens, admins any token.
+     */
+    public void revoke(String token, UserPrincipal requester) {
+        Claims claims;
+        try {
+            claims = jwtUtils.parseAndValidate(token);
+        } catch (JwtException e) {
+            throw new IllegalArgumentException("Token is invalid or already expired");
+        }
+        
+        boolean isAdmin = requester.getAuthorities().stream()
+                .anyMatch(authority -> AppConstants.ROLE_ADMIN.equals(authority.getAuthority()));
+        if (!isAdmin && !requester.getUsername().equals(claims.getSubject())) {
+            throw new SecurityException("Access denied to revoke token of another user");
+        }
+        if (claims.getId() == null) {
+            throw new IllegalArgumentException("Token has no id and cannot be revoked");
+        }
+        
+        // Committed before the id reaches the filter, so a concurrent rebuild either reads the row or runs before the add
+        revokedTokenRepository.save(new RevokedToken(claims.getId(),
+                claims.get(JwtUtils.USER_ID_CLAIM, Long.class),
+                LocalDateTime.ofInstant(claims.getExpiration().toInstant(), ZoneId.systemDefault())));
+        
+        boolean overCapacity;
+        synchronized (filterLock) {
+            revokedIds.add(claims.getId());
+            revokedCount++;
+            overCapacity = revokedCount > revokedIds.capacity();
+        }
+        if (overCapacity) {
+            rebuildFilter();
+        }
+        
+        logger.info("Revoked token {} of user {}", claims.getId(), claims.getSubject());
+    }
+    
+    @Scheduled(cron = "0 0 * * * *")
+    @Transactional
+    public void sweepExpired() {
+        int deleted = revokedTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            // Bloom filters cannot forget, so drop the expired ids by building a fresh one
+            rebuildFilter();
+            logger.info("Swept {} expired revoked tokens", deleted);
+        }
+    }
+}
@@ -2,28 +2,40 @@ package com.gefrierschrank.app.security;
 
 import com.gefrierschrank.app.entity.User;
 import com.gefrierschrank.app.repository.UserRepository;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
     
     private final UserRepository userRepository;
+    private final UserPrincipalCache userPrincipalCache;
     
-    public UserDetailsServiceImpl(UserRepository userRepository) {
+    public UserDetailsServiceImpl(UserRepository userRepository, UserPrincipalCache userPrincipalCache) {
         this.userRepository = userRepository;
+        this.userPrincipalCache = userPrincipalCache;
     }
     
+    // Not transactional: a cache hit should not open a transaction, and the repository call runs in its own
     @Override
-    @Transactional
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        if (username == null) {
+            return loadFromDatabase(null);
+        }
+        return userPrincipalCache.getByUsername(username, this::loadFromDatabase);
+    }
+    
+    public UserPrincipal loadUserById(Long id) throws UsernameNotFoundException {
+        return userPrincipalCache.getById(id, key -> UserPrincipal.create(userRepository.findById(key)
+                .orElseThrow(() -> new UsernameNotFoundException("User Not Found with id: " + key))));
+    }
+    
+    private UserPrincipal loadFromDatabase(String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User Not Found with username: " + username));
         
         return UserPrincipal.create(user);
     }
-}
\ No newline at end of file
+}
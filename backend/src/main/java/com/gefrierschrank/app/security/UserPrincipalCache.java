@@ -0,0 +1,63 @@
+package com.gefrierschrank.app.security;
+
+import com.gefrierschrank.app.constants.AppConstants;
+import com.gefrierschrank.app.event.UserChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Principals of recently seen users, by username and by id, so sign-ins and lookups of the same
+ * user do not query {@code users} each time. Entries expire after a few minutes and are dropped as
+ * soon as a change to the user is committed. Hit and miss counts are published as the
+ * {@code cache.gets} metric of the {@code users} cache.
+ */
+@Component
+public class UserPrincipalCache {
+
+    private final Cache<String, UserPrincipal> byUsername = newCache();
+    private final Cache<Long, UserPrincipal> byId = newCache();
+
+    public UserPrincipalCache(MeterRegistry meterRegistry) {
+        CaffeineCacheMetrics.monitor(meterRegistry, byUsername, "users", "key", "username");
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "users", "key", "id");
+    }
+
+    public UserPrincipal getByUsername(String username, Function<String, UserPrincipal> loader) {
+        UserPrincipal principal = byUsername.get(username, loader);
+        byId.put(principal.getId(), principal);
+        return principal;
+    }
+
+    public UserPrincipal getById(Long id, Function<Long, UserPrincipal> loader) {
+        UserPrincipal principal = byId.get(id, loader);
+        byUsername.put(principal.getUsername(), principal);
+        return principal;
+    }
+
+    // Also runs without a transaction, e.g. for changes flushed by a test or a runner
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        invalidate(event.getUserId());
+    }
+
+    public void invalidate(Long userId) {
+        // Matched by id rather than by key, so an entry under a username the user no longer has is dropped too
+        byId.invalidate(userId);
+        byUsername.asMap().values().removeIf(principal -> principal.getId().equals(userId));
+    }
+
+    private static <K> Cache<K, UserPrincipal> newCache() {
+        return Caffeine.newBuilder()
+                .maximumSize(AppConstants.USER_CACHE_MAX_SIZE)
+                .expireAfterWrite(Duration.ofMinutes(AppConstants.USER_CACHE_TTL_MINUTES))
+                .recordStats()
+                .build();
+    }
+}
@@ -0,0 +1,69 @@
+package com.gefrierschrank.app.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of tokens whose signature was already verified, mapped to their claims. Entries are
+ * keyed by the {@link JwtUtils#hashToken(String) hash} of the token, so the tokens themselves are
+ * not kept in memory. Each entry expires together with its token; lookups are lock-free, so the
+ * cache adds no contention to requests that are authenticated concurrently.
+ */
+class VerifiedTokenCache {
+
+    private final Cache<String, Claims> claimsByDigest;
+
+    VerifiedTokenCache(int maxSize) {
+        this.claimsByDigest = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpires())
+                .build();
+    }
+
+    Claims get(String digest, Date now) {
+        Claims claims = claimsByDigest.getIfPresent(digest);
+        // The cache drops entries on its own clock; checking the caller's time keeps expiry exact
+        if (claims != null && !claims.getExpiration().after(now)) {
+            claimsByDigest.invalidate(digest);
+            return null;
+        }
+        return claims;
+    }
+
+    void put(String digest, Claims claims) {
+        // Tokens without expiry are never cached, so every entry has a date to be checked against
+        if (claims.getExpiration() != null) {
+            claimsByDigest.put(digest, claims);
+        }
+    }
+
+    // Runs pending evictions now instead of on the cache's next writes; lets tests check the size bound
+    long size() {
+        claimsByDigest.cleanUp();
+        return claimsByDigest.estimatedSize();
+    }
+
+    private static final class UntilTokenExpires implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String digest, Claims claims, long currentTime) {
+            long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(String digest, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(digest, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String digest, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.gefrierschrank.app.service;
+
+import com.gefrierschrank.app.entity.Category;
+import com.gefrierschrank.app.event.CategoryChangedEvent;
+import com.gefrierschrank.app.repository.CategoryRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * In-memory copy of all categories. Readers get an immutable snapshot, sorted by name, through a
+ * single volatile read; every committed {@link CategoryChangedEvent} loads a new snapshot and swaps
+ * it in. The categories handed out are detached copies shared by all callers and must not be modified.
+ */
+@Component
+public class CategoryRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(CategoryRegistry.class);
+
+    private final CategoryRepository categoryRepository;
+    private final Object reloadLock = new Object();
+    private volatile Snapshot snapshot;
+
+    public CategoryRegistry(CategoryRepository categoryRepository) {
+        this.categoryRepository = categoryRepository;
+    }
+
+    public List<Category> getAll() {
+        return snapshot().categories();
+    }
+
+    public Optional<Category> findById(Long id) {
+        return Optional.ofNullable(snapshot().byId().get(id));
+    }
+
+    public Category getById(Long id) {
+        return findById(id).orElseThrow(() -> new EntityNotFoundException("Category not found with id: " + id));
+    }
+
+    public Optional<Category> findByNameIgnoreCase(String name) {
+        return Optional.ofNullable(snapshot().byName().get(name.toLowerCase(Locale.ROOT)));
+    }
+
+    // Also picks up the default categories, which are saved without events before the application is ready
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        // Serialized, so a reload that started before a later commit cannot overwrite that commit's snapshot
+        synchronized (reloadLock) {
+            List<Category> categories = categoryRepository.findAllByOrderByNameAsc().stream()
+                    .map(CategoryRegistry::copyOf)
+                    .toList();
+            Map<Long, Category> byId = new HashMap<>();
+            Map<String, Category> byName = new HashMap<>();
+            for (Category category : categories) {
+                byId.put(category.getId(), category);
+                byName.put(category.getName().toLowerCase(Locale.ROOT), category);
+            }
+            snapshot = new Snapshot(categories, Map.copyOf(byId), Map.copyOf(byName));
+            logger.debug("Loaded {} categories", categories.size());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        reload();
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (reloadLock) {
+                if (snapshot == null) {
+                    reload();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    // A copy outside any persistence context, so nothing done to the managed instance can leak into the snapshot
+    private static Category copyOf(Category category) {
+        Category copy = new Category(category.getName(), category.getIcon(), category.getDefaultUnit(),
+                category.getUnitStep(), category.getMinValue(), category.getMaxValue());
+        copy.setId(category.getId());
+        copy.setCreatedAt(category.getCreatedAt());
+        copy.setUpdatedAt(category.getUpdatedAt());
+        return copy;
+    }
+
+    private record Snapshot(List<Category> categories, Map<Long, Category> byId, Map<String, Category> byName) {
+    }
+}
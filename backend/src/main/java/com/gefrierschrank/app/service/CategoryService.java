@@ -2,14 +2,17 @@ package com.gefrierschrank.app.service;
 
 import com.gefrierschrank.app.dto.CategoryDto;
 import com.gefrierschrank.app.entity.Category;
+import com.gefrierschrank.app.event.CategoryChangedEvent;
 import com.gefrierschrank.app.mapper.CategoryMapper;
 import com.gefrierschrank.app.repository.CategoryRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
@@ -22,34 +25,38 @@ public class CategoryService {
     private static final Logger logger = LoggerFactory.getLogger(CategoryService.class);
     
     private final CategoryRepository categoryRepository;
+    private final CategoryRegistry categoryRegistry;
     private final CategoryMapper categoryMapper;
+    private final ApplicationEventPublisher eventPublisher;
     
-    public CategoryService(CategoryRepository categoryRepository, CategoryMapper categoryMapper) {
+    public CategoryService(CategoryRepository categoryRepository, CategoryRegistry categoryRegistry,
+                           CategoryMapper categoryMapper, ApplicationEventPublisher eventPublisher) {
         this.categoryRepository = categoryRepository;
+        this.categoryRegistry = categoryRegistry;
         this.categoryMapper = categoryMapper;
+        this.eventPublisher = eventPublisher;
     }
     
-    @Transactional(readOnly = true)
+    // Reads are answered from the registry snapshot and never open a transaction
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<CategoryDto> getAllCategories() {
         logger.debug("Fetching all categories");
-        return categoryRepository.findAllByOrderByNameAsc()
+        return categoryRegistry.getAll()
                 .stream()
                 .map(categoryMapper::toDto)
                 .collect(Collectors.toList());
     }
     
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public CategoryDto getCategoryById(Long id) {
         logger.debug("Fetching category with id: {}", id);
-        Category category = categoryRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Category not found with id: " + id));
-        return categoryMapper.toDto(category);
+        return categoryMapper.toDto(categoryRegistry.getById(id));
     }
     
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public CategoryDto getCategoryByName(String name) {
         logger.debug("Fetching category with name: {}", name);
-        Category category = categoryRepository.findByNameIgnoreCase(name)
+        Category category = categoryRegistry.findByNameIgnoreCase(name)
                 .orElseThrow(() -> new EntityNotFoundException("Category not found with name: " + name));
         return categoryMapper.toDto(category);
     }
@@ -74,6 +81,7 @@ public class CategoryService {
         Category category = categoryMapper.toEntity(categoryDto);
         category = categoryRepository.save(category);
         
+        eventPublisher.publishEvent(new CategoryChangedEvent(category.getId()));
         logger.info("Category created successfully with id: {}", category.getId());
         return categoryMapper.toDto(category);
     }
@@ -104,6 +112,7 @@ public class CategoryService {
         
         existingCategory = categoryRepository.save(existingCategory);
         
+        eventPublisher.publishEvent(new CategoryChangedEvent(existingCategory.getId()));
         logger.info("Category updated successfully with id: {}", existingCategory.getId());
         return categoryMapper.toDto(existingCategory);
     }
@@ -120,16 +129,18 @@ public class CategoryService {
         }
         
         categoryRepository.delete(category);
+        
+        eventPublisher.publishEvent(new CategoryChangedEvent(id));
         logger.info("Category deleted successfully with id: {}", id);
     }
     
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public boolean existsById(Long id) {
-        return categoryRepository.existsById(id);
+        return categoryRegistry.findById(id).isPresent();
     }
     
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public boolean existsByName(String name) {
-        return categoryRepository.existsByNameIgnoreCase(name);
+        return categoryRegistry.findByNameIgnoreCase(name).isPresent();
     }
 }
\ No newline at end of file
@@ -0,0 +1,248 @@
+package com.gefrierschrank.app.service;
+
+import com.gefrierschrank.app.constants.AppConstants;
+import com.gefrierschrank.app.dto.BatchItemResponse;
+import com.gefrierschrank.app.dto.BatchItemResult;
+import com.gefrierschrank.app.dto.BatchUpdateItemRequest;
+import com.gefrierschrank.app.dto.CreateItemRequest;
+import com.gefrierschrank.app.dto.ItemDto;
+import com.gefrierschrank.app.entity.Category;
+import com.gefrierschrank.app.entity.DeletedItem;
+import com.gefrierschrank.app.entity.Item;
+import com.gefrierschrank.app.entity.User;
+import com.gefrierschrank.app.event.ItemChangedEvent;
+import com.gefrierschrank.app.repository.DeletedItemRepository;
+import com.gefrierschrank.app.repository.ItemRepository;
+import com.gefrierschrank.app.repository.UserRepository;
+import com.gefrierschrank.app.security.UserPrincipal;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Creates, updates and deletes many items of one user in a single transaction. Categories come
+ * from the {@link CategoryRegistry} and the affected items are loaded with one query; elements
+ * that fail validation are reported and skipped while the rest is written with JDBC batching.
+ */
+@Service
+@Transactional
+public class ItemBatchService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ItemBatchService.class);
+    
+    private static final String NULL_ELEMENT = "Item must not be null";
+    
+    private final ItemRepository itemRepository;
+    private final CategoryRegistry categoryRegistry;
+    private final UserRepository userRepository;
+    private final DeletedItemRepository deletedItemRepository;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    public ItemBatchService(ItemRepository itemRepository,
+                            CategoryRegistry categoryRegistry,
+                            UserRepository userRepository,
+                            DeletedItemRepository deletedItemRepository,
+                            Validator validator,
+                            ApplicationEventPublisher eventPublisher) {
+        this.itemRepository = itemRepository;
+        this.categoryRegistry = categoryRegistry;
+        this.userRepository = userRepository;
+        this.deletedItemRepository = deletedItemRepository;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+    }
+    
+    public BatchItemResponse createItems(List<CreateItemRequest> requests, UserPrincipal principal) {
+        logger.info("Creating {} items in a batch for user: {}", requests.size(), principal.getUsername());
+        validateBatchSize(requests);
+        
+        User user = userRepository.getReferenceById(principal.getId());
+        
+        List<BatchItemResult> results = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            CreateItemRequest request = requests.get(i);
+            String error = request == null ? NULL_ELEMENT
+                    : validate(request, request.getCategoryId(), request.getQuantity());
+            if (error != null) {
+                results.add(BatchItemResult.failed(i, null, error));
+                continue;
+            }
+            
+            Item item = new Item();
+            item.setUser(user);
+            item.setName(request.getName());
+            item.setCategory(categoryRegistry.getById(request.getCategoryId()));
+            item.setQuantity(request.getQuantity());
+            item.setUnit(request.getUnit());
+            item.setExpiryDate(request.getExpiryDate());
+            item.setExpiryType(request.getExpiryType());
+            item.setPhotoPath(request.getPhotoPath());
+            item.setDescription(request.getDescription());
+            items.add(item);
+            indexes.add(i);
+        }
+        
+        itemRepository.saveAll(items);
+        itemRepository.flush();
+        for (int i = 0; i < items.size(); i++) {
+            results.add(saved(indexes.get(i), items.get(i), principal));
+        }
+        
+        BatchItemResponse response = new BatchItemResponse(results);
+        logger.info("Batch create for user {} finished: {} created, {} failed",
+                principal.getUsername(), response.getSucceeded(), response.getFailed());
+        return response;
+    }
+    
+    public BatchItemResponse updateItems(List<BatchUpdateItemRequest> requests, UserPrincipal principal) {
+        logger.info("Updating {} items in a batch for user: {}", requests.size(), principal.getUsername());
+        validateBatchSize(requests);
+        
+        User user = userRepository.getReferenceById(principal.getId());
+        Map<Long, Item> items = loadItems(user, requests.stream()
+                .filter(Objects::nonNull)
+                .map(BatchUpdateItemRequest::getId));
+        
+        List<BatchItemResult> results = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        List<Item> updated = new ArrayList<>();
+        Set<Long> seenIds = new HashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            BatchUpdateItemRequest request = requests.get(i);
+            Long id = request == null ? null : request.getId();
+            String error = request == null ? NULL_ELEMENT
+                    : validate(request, request.getCategoryId(), request.getQuantity());
+            if (error == null && !items.containsKey(id)) {
+                error = "Item not found with id: " + id;
+            }
+            if (error == null && !seenIds.add(id)) {
+                error = "Item " + id + " appears more than once in the batch";
+            }
+            if (error != null) {
+                results.add(BatchItemResult.failed(i, id, error));
+                continue;
+            }
+            
+            Item item = items.get(id);
+            item.setName(request.getName());
+            item.setCategory(categoryRegistry.getById(request.getCategoryId()));
+            item.setQuantity(request.getQuantity());
+            item.setUnit(request.getUnit());
+            item.setExpiryDate(request.getExpiryDate());
+            item.setExpiryType(request.getExpiryType());
+            item.setPhotoPath(request.getPhotoPath());
+            item.setDescription(request.getDescription());
+            updated.add(item);
+            indexes.add(i);
+        }
+        
+        // Dirty checking turns the changes into batched UPDATEs; flush so updatedAt is set for the results
+        itemRepository.flush();
+        for (int i = 0; i < updated.size(); i++) {
+            results.add(saved(indexes.get(i), updated.get(i), principal));
+        }
+        
+        BatchItemResponse response = new BatchItemResponse(results);
+        logger.info("Batch update for user {} finished: {} updated, {} failed",
+                principal.getUsername(), response.getSucceeded(), response.getFailed());
+        return response;
+    }
+    
+    public BatchItemResponse deleteItems(List<Long> ids, UserPrincipal principal) {
+        logger.info("Deleting {} items in a batch for user: {}", ids.size(), principal.getUsername());
+        validateBatchSize(ids);
+        
+        User user = userRepository.getReferenceById(principal.getId());
+        Map<Long, Item> items = loadItems(user, ids.stream());
+        
+        List<BatchItemResult> results = new ArrayList<>();
+        List<Item> deleted = new ArrayList<>();
+        Set<Long> seenIds = new HashSet<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            if (id == null) {
+                results.add(BatchItemResult.failed(i, null, NULL_ELEMENT));
+            } else if (!items.containsKey(id)) {
+                results.add(BatchItemResult.failed(i, id, "Item not found with id: " + id));
+            } else if (!seenIds.add(id)) {
+                results.add(BatchItemResult.failed(i, id, "Item " + id + " appears more than once in the batch"));
+            } else {
+                deleted.add(items.get(id));
+                results.add(BatchItemResult.deleted(i, id));
+            }
+        }
+        
+        // One DELETE statement for all items instead of one per entity; the tombstones are batched inserts
+        itemRepository.deleteAllInBatch(deleted);
+        deletedItemRepository.saveAll(deleted.stream()
+                .map(item -> new DeletedItem(item.getId(), principal.getId()))
+                .toList());
+        deleted.forEach(item -> eventPublisher.publishEvent(ItemChangedEvent.deleted(principal.getUsername(), item.getId())));
+        
+        BatchItemResponse response = new BatchItemResponse(results);
+        logger.info("Batch delete for user {} finished: {} deleted, {} failed",
+                principal.getUsername(), response.getSucceeded(), response.getFailed());
+        return response;
+    }
+    
+    private BatchItemResult saved(int index, Item item, UserPrincipal principal) {
+        ItemDto dto = new ItemDto(item, principal.getUsername());
+        eventPublisher.publishEvent(ItemChangedEvent.saved(dto));
+        return BatchItemResult.saved(index, dto);
+    }
+    
+    // Returns the first problem with the element, or null if it can be written
+    private String validate(Object request, Long categoryId, BigDecimal quantity) {
+        Set<ConstraintViolation<Object>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+        }
+        Category category = categoryRegistry.findById(categoryId).orElse(null);
+        if (category == null) {
+            return "Category not found with id: " + categoryId;
+        }
+        
+        try {
+            ItemService.validateQuantityConstraints(quantity, category);
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+        return null;
+    }
+    
+    private Map<Long, Item> loadItems(User user, Stream<Long> itemIds) {
+        Set<Long> ids = itemIds.filter(Objects::nonNull).collect(Collectors.toSet());
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return itemRepository.findByUserAndIdIn(user, ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+    }
+    
+    private void validateBatchSize(List<?> elements) {
+        if (elements.isEmpty() || elements.size() > AppConstants.MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch size must be between 1 and " + AppConstants.MAX_BATCH_SIZE);
+        }
+    }
+}
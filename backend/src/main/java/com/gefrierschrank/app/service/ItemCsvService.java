@@ -0,0 +1,428 @@
+package com.gefrierschrank.app.service;
+
+import com.gefrierschrank.app.constants.AppConstants;
+import com.gefrierschrank.app.dto.CreateItemRequest;
+import com.gefrierschrank.app.dto.ItemDto;
+import com.gefrierschrank.app.dto.ItemImportError;
+import com.gefrierschrank.app.dto.ItemImportResponse;
+import com.gefrierschrank.app.entity.Category;
+import com.gefrierschrank.app.entity.ExpiryType;
+import com.gefrierschrank.app.entity.Item;
+import com.gefrierschrank.app.entity.User;
+import com.gefrierschrank.app.event.ItemChangedEvent;
+import com.gefrierschrank.app.repository.ItemRepository;
+import com.gefrierschrank.app.repository.UserRepository;
+import com.gefrierschrank.app.security.UserPrincipal;
+import com.opencsv.CSVReader;
+import com.opencsv.CSVWriterBuilder;
+import com.opencsv.ICSVWriter;
+import com.opencsv.exceptions.CsvValidationException;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Writes a user's inventory as CSV and reads it back. Neither direction holds the whole file in
+ * memory: the export writes rows as a database cursor advances, the import reads the upload in
+ * chunks, validates several chunks at once on a small pool and writes each chunk's valid rows in a
+ * transaction of its own, in file order.
+ */
+@Service
+public class ItemCsvService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ItemCsvService.class);
+
+    static final String[] HEADER = {
+            "id", "name", "category", "quantity", "unit", "expiryDate", "expiryType", "description",
+            "createdAt", "updatedAt"
+    };
+
+    // Columns the import reads; any others, such as the export's id and timestamps, are ignored
+    private static final List<String> REQUIRED_COLUMNS = List.of("name", "category", "quantity", "unit");
+    private static final List<String> OPTIONAL_COLUMNS = List.of("expiryDate", "expiryType", "description");
+
+    // Text cells that spreadsheet programs would evaluate as a formula; leading quotes are included so
+    // that a value which already starts with one is escaped as well and survives the round trip
+    private static final Pattern FORMULA_PREFIX = Pattern.compile("^'*[=+\\-@\t\r]");
+
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final CategoryRegistry categoryRegistry;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int threads;
+    private final ThreadPoolExecutor executor;
+
+    @Autowired
+    public ItemCsvService(ItemRepository itemRepository, UserRepository userRepository,
+                          CategoryRegistry categoryRegistry, Validator validator,
+                          ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager,
+                          @Value("${app.import.batch-size:1000}") int batchSize) {
+        this(itemRepository, userRepository, categoryRegistry, validator, eventPublisher, transactionManager,
+                batchSize, Runtime.getRuntime().availableProcessors());
+    }
+
+    ItemCsvService(ItemRepository itemRepository, UserRepository userRepository,
+                   CategoryRegistry categoryRegistry, Validator validator,
+                   ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager,
+                   int batchSize, int threads) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Import batch size must be at least 1");
+        }
+        this.itemRepository = itemRepository;
+        this.userRepository = userRepository;
+        this.categoryRegistry = categoryRegistry;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.threads = threads;
+
+        // A full queue makes the importing thread validate the chunk itself, which slows its reading down;
+        // once shut down, tasks are refused rather than silently dropped, so no import waits forever
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "item-import-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (task, pool) -> {
+                    if (pool.isShutdown()) {
+                        throw new RejectedExecutionException("Item import pool is shut down");
+                    }
+                    task.run();
+                });
+    }
+
+    /**
+     * Writes all items of the user, newest first, as UTF-8 CSV with a header row. The stream is
+     * flushed but not closed.
+     *
+     * @return the number of items written
+     */
+    @Transactional(readOnly = true)
+    public int exportCsv(UserPrincipal principal, OutputStream out) throws IOException {
+        logger.info("Exporting items as CSV for user: {}", principal.getUsername());
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        ICSVWriter csv = new CSVWriterBuilder(writer).build();
+        csv.writeNext(HEADER, false);
+
+        int count = 0;
+        try (Stream<ItemDto> items = itemRepository.streamDtosByUser(userRepository.getReferenceById(principal.getId()))) {
+            Iterator<ItemDto> iterator = items.iterator();
+            while (iterator.hasNext()) {
+                csv.writeNext(toRow(iterator.next()), false);
+                count++;
+            }
+        }
+        csv.flush();
+
+        logger.info("Exported {} items for user: {}", count, principal.getUsername());
+        return count;
+    }
+
+    /**
+     * Imports UTF-8 CSV with a header row naming at least the columns name, category (by name),
+     * quantity and unit; expiryDate (yyyy-MM-dd), expiryType and description are optional, so a
+     * file from {@link #exportCsv} can be imported as is. Rows failing validation are reported and
+     * skipped. Every chunk of valid rows is committed on its own: if writing fails, the chunks
+     * before it stay imported.
+     */
+    public ItemImportResponse importCsv(InputStream in, UserPrincipal principal) throws IOException {
+        logger.info("Importing items from CSV for user: {}", principal.getUsername());
+        long start = System.currentTimeMillis();
+
+        ImportProgress progress = new ImportProgress();
+        // At most one chunk per thread is read ahead, which bounds the memory an import can take
+        Deque<Future<ValidatedChunk>> pending = new ArrayDeque<>();
+        try (CSVReader reader = new CSVReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            Map<String, Integer> columns = readColumns(reader.readNext());
+
+            List<CsvRow> chunk = new ArrayList<>(batchSize);
+            String[] line;
+            while ((line = reader.readNext()) != null) {
+                if (isBlank(line)) {
+                    continue;
+                }
+                chunk.add(new CsvRow(reader.getRecordsRead(), line));
+                if (chunk.size() == batchSize) {
+                    List<CsvRow> rows = chunk;
+                    pending.addLast(executor.submit(() -> validate(rows, columns)));
+                    chunk = new ArrayList<>(batchSize);
+                    if (pending.size() > threads) {
+                        write(await(pending.removeFirst()), principal, progress);
+                    }
+                }
+            }
+            if (!chunk.isEmpty()) {
+                List<CsvRow> rows = chunk;
+                pending.addLast(executor.submit(() -> validate(rows, columns)));
+            }
+            while (!pending.isEmpty()) {
+                write(await(pending.removeFirst()), principal, progress);
+            }
+        } catch (CsvValidationException e) {
+            throw new IllegalArgumentException("Malformed CSV: " + e.getMessage(), e);
+        } finally {
+            pending.forEach(future -> future.cancel(true));
+        }
+
+        ItemImportResponse response = new ItemImportResponse(progress.imported, progress.failed, progress.errors);
+        logger.info("CSV import for user {} finished in {} ms: {} imported, {} failed",
+                principal.getUsername(), System.currentTimeMillis() - start, response.getImported(), response.getFailed());
+        return response;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static String[] toRow(ItemDto item) {
+        return new String[] {
+                String.valueOf(item.getId()),
+                escapeFormula(item.getName()),
+                escapeFormula(item.getCategoryName()),
+                item.getQuantity() == null ? "" : item.getQuantity().toPlainString(),
+                escapeFormula(item.getUnit()),
+                Objects.toString(item.getExpiryDate(), ""),
+                Objects.toString(item.getExpiryType(), ""),
+                escapeFormula(Objects.toString(item.getDescription(), "")),
+                Objects.toString(item.getCreatedAt(), ""),
+                Objects.toString(item.getUpdatedAt(), "")
+        };
+    }
+
+    // A leading quote makes spreadsheet programs show the cell as text instead of running it as a formula
+    static String escapeFormula(String value) {
+        return value != null && FORMULA_PREFIX.matcher(value).find() ? "'" + value : value;
+    }
+
+    // Undoes escapeFormula; an apostrophe in front of anything else is part of the text
+    static String unescapeFormula(String value) {
+        return value != null && value.startsWith("'") && FORMULA_PREFIX.matcher(value).find() ? value.substring(1) : value;
+    }
+
+    // Maps the known column names, matched ignoring case, to their position in the header
+    private static Map<String, Integer> readColumns(String[] header) {
+        if (header == null) {
+            throw new IllegalArgumentException("The CSV file is empty");
+        }
+
+        Map<String, String> known = new HashMap<>();
+        Stream.concat(REQUIRED_COLUMNS.stream(), OPTIONAL_COLUMNS.stream())
+                .forEach(column -> known.put(column.toLowerCase(Locale.ROOT), column));
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.length; i++) {
+            // Spreadsheet programs like to start UTF-8 files with a byte order mark
+            String name = (i == 0 ? header[i].replace("\uFEFF", "") : header[i]).strip().toLowerCase(Locale.ROOT);
+            if (known.containsKey(name)) {
+                columns.putIfAbsent(known.get(name), i);
+            }
+        }
+
+        for (String column : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(column)) {
+                throw new IllegalArgumentException("The CSV header is missing the column: " + column);
+            }
+        }
+        return columns;
+    }
+
+    private ValidatedChunk validate(List<CsvRow> rows, Map<String, Integer> columns) {
+        List<Item> items = new ArrayList<>(rows.size());
+        List<ItemImportError> errors = new ArrayList<>();
+        for (CsvRow row : rows) {
+            try {
+                items.add(toItem(row.values(), columns));
+            } catch (IllegalArgumentException e) {
+                errors.add(new ItemImportError(row.number(), e.getMessage()));
+            }
+        }
+        return new ValidatedChunk(items, errors);
+    }
+
+    // Same rules as creating a single item; the category is looked up by name in the in-memory registry
+    private Item toItem(String[] values, Map<String, Integer> columns) {
+        CreateItemRequest request = new CreateItemRequest();
+        request.setName(unescapeFormula(value(values, columns, "name")));
+        request.setUnit(unescapeFormula(value(values, columns, "unit")));
+        request.setDescription(unescapeFormula(value(values, columns, "description")));
+        request.setQuantity(parseQuantity(value(values, columns, "quantity")));
+        request.setExpiryDate(parseExpiryDate(value(values, columns, "expiryDate")));
+        String expiryType = value(values, columns, "expiryType");
+        if (expiryType != null) {
+            request.setExpiryType(parseExpiryType(expiryType));
+        }
+
+        String categoryName = unescapeFormula(value(values, columns, "category"));
+        Category category = categoryName == null ? null : categoryRegistry.findByNameIgnoreCase(categoryName)
+                .orElseThrow(() -> new IllegalArgumentException("Category not found with name: " + categoryName));
+        request.setCategoryId(category == null ? null : category.getId());
+
+        Set<ConstraintViolation<CreateItemRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+        ItemService.validateQuantityConstraints(request.getQuantity(), category);
+
+        Item item = new Item();
+        item.setName(request.getName());
+        item.setCategory(category);
+        item.setQuantity(request.getQuantity());
+        item.setUnit(request.getUnit());
+        item.setExpiryDate(request.getExpiryDate());
+        item.setExpiryType(request.getExpiryType());
+        item.setDescription(request.getDescription());
+        return item;
+    }
+
+    private void write(ValidatedChunk chunk, UserPrincipal principal, ImportProgress progress) {
+        progress.addErrors(chunk.errors());
+        if (chunk.items().isEmpty()) {
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = userRepository.getReferenceById(principal.getId());
+            chunk.items().forEach(item -> item.setUser(user));
+            itemRepository.saveAll(chunk.items());
+            itemRepository.flush();
+            chunk.items().forEach(item ->
+                    eventPublisher.publishEvent(ItemChangedEvent.saved(new ItemDto(item, principal.getUsername()))));
+        });
+        progress.imported += chunk.items().size();
+    }
+
+    private static ValidatedChunk await(Future<ValidatedChunk> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Validating CSV rows failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while importing CSV", e);
+        }
+    }
+
+    private static String value(String[] values, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= values.length || values[index].isBlank()) {
+            return null;
+        }
+        return values[index].strip();
+    }
+
+    // Accepts a decimal comma as well, as spreadsheets with German settings write it
+    private static BigDecimal parseQuantity(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value.indexOf('.') < 0 ? value.replace(',', '.') : value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("quantity: '" + value + "' is not a number");
+        }
+    }
+
+    private static LocalDate parseExpiryDate(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("expiryDate: '" + value + "' is not a date of the form yyyy-MM-dd");
+        }
+    }
+
+    private static ExpiryType parseExpiryType(String value) {
+        try {
+            return ExpiryType.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("expiryType: '" + value + "' must be one of "
+                    + Arrays.toString(ExpiryType.values()));
+        }
+    }
+
+    private static boolean isBlank(String[] line) {
+        return Arrays.stream(line).allMatch(String::isBlank);
+    }
+
+    private record CsvRow(long number, String[] values) {
+    }
+
+    private record ValidatedChunk(List<Item> items, List<ItemImportError> errors) {
+    }
+
+    // Only touched by the importing thread
+    private static final class ImportProgress {
+
+        private int imported;
+        private int failed;
+        private final List<ItemImportError> errors = new ArrayList<>();
+
+        void addErrors(List<ItemImportError> chunkErrors) {
+            failed += chunkErrors.size();
+            for (ItemImportError error : chunkErrors) {
+                if (errors.size() == AppConstants.IMPORT_MAX_REPORTED_ERRORS) {
+                    return;
+                }
+                errors.add(error);
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.gefrierschrank.app.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.gefrierschrank.app.dto.ItemDto;
+import com.gefrierschrank.app.repository.ItemRepository;
+import com.gefrierschrank.app.repository.UserRepository;
+import com.gefrierschrank.app.security.UserPrincipal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes a user's inventory as newline-delimited JSON, one {@link ItemDto} per line, in the same
+ * format as the JSON endpoints. Items are serialized as the database cursor advances, so the first
+ * line goes out before the rest is read and memory does not grow with the number of items.
+ */
+@Service
+public class ItemNdjsonService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ItemNdjsonService.class);
+
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final ObjectWriter itemWriter;
+
+    public ItemNdjsonService(ItemRepository itemRepository, UserRepository userRepository, ObjectMapper objectMapper) {
+        this.itemRepository = itemRepository;
+        this.userRepository = userRepository;
+        // Lines are terminated explicitly instead of separated by Jackson's root value separator;
+        // flushing is left to the response buffer, flushing every line would send a chunk per item
+        this.itemWriter = objectMapper.writerFor(ItemDto.class)
+                .withRootValueSeparator((String) null)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Writes all items of the user, newest first. Only the first line is flushed right away, so
+     * clients can start rendering before the rest arrives; the stream is not closed.
+     *
+     * @return the number of items written
+     */
+    @Transactional(readOnly = true)
+    public int exportNdjson(UserPrincipal principal, OutputStream out) throws IOException {
+        logger.debug("Streaming items as NDJSON for user: {}", principal.getUsername());
+
+        int count = 0;
+        try (JsonGenerator generator = itemWriter.createGenerator(out);
+             Stream<ItemDto> items = itemRepository.streamDtosByUser(userRepository.getReferenceById(principal.getId()))) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            Iterator<ItemDto> iterator = items.iterator();
+            while (iterator.hasNext()) {
+                itemWriter.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+                if (++count == 1) {
+                    generator.flush();
+                }
+            }
+        }
+
+        logger.debug("Streamed {} items for user: {}", count, principal.getUsername());
+        return count;
+    }
+}
@@ -1,27 +1,47 @@
 package com.gefrierschrank.app.service;
 
+import com.gefrierschrank.app.constants.AppConstants;
 import com.gefrierschrank.app.dto.CreateItemRequest;
+import com.gefrierschrank.app.dto.CursorPage;
+import com.gefrierschrank.app.dto.ItemChangesResponse;
+import com.gefrierschrank.app.dto.ItemCursor;
 import com.gefrierschrank.app.dto.ItemDto;
+import com.gefrierschrank.app.dto.ItemStatisticsDto;
+import com.gefrierschrank.app.dto.ItemSuggestionDto;
 import com.gefrierschrank.app.dto.UpdateItemRequest;
 import com.gefrierschrank.app.entity.Category;
+import com.gefrierschrank.app.entity.DeletedItem;
 import com.gefrierschrank.app.entity.Item;
+import com.gefrierschrank.app.event.ItemChangedEvent;
 import com.gefrierschrank.app.entity.User;
-import com.gefrierschrank.app.repository.CategoryRepository;
+import com.gefrierschrank.app.repository.DeletedItemRepository;
 import com.gefrierschrank.app.repository.ItemRepository;
+import com.gefrierschrank.app.repository.ItemRepositoryCustom;
+import com.gefrierschrank.app.repository.ItemSpecifications;
 import com.gefrierschrank.app.repository.UserRepository;
+import com.gefrierschrank.app.search.ItemSearchIndex;
+import com.gefrierschrank.app.search.SuggestionTrie;
+import com.gefrierschrank.app.security.UserPrincipal;
 import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @Transactional
@@ -29,56 +49,82 @@ public class ItemService {
     
     private static final Logger logger = LoggerFactory.getLogger(ItemService.class);
     
+    private static final Sort CREATED_SORT = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+    private static final Sort EXPIRY_SORT = Sort.by(Sort.Order.asc("expiryDate").nullsLast(), Sort.Order.asc("id"));
+    
     private final ItemRepository itemRepository;
-    private final CategoryRepository categoryRepository;
+    private final CategoryRegistry categoryRegistry;
     private final UserRepository userRepository;
+    private final DeletedItemRepository deletedItemRepository;
+    private final ItemStatisticsTracker statisticsTracker;
+    private final ItemSearchIndex searchIndex;
+    private final ApplicationEventPublisher eventPublisher;
     
     public ItemService(ItemRepository itemRepository, 
-                      CategoryRepository categoryRepository,
-                      UserRepository userRepository) {
+                      CategoryRegistry categoryRegistry,
+                      UserRepository userRepository,
+                      DeletedItemRepository deletedItemRepository,
+                      ItemStatisticsTracker statisticsTracker,
+                      ItemSearchIndex searchIndex,
+                      ApplicationEventPublisher eventPublisher) {
         this.itemRepository = itemRepository;
-        this.categoryRepository = categoryRepository;
+        this.categoryRegistry = categoryRegistry;
         this.userRepository = userRepository;
+        this.deletedItemRepository = deletedItemRepository;
+        this.statisticsTracker = statisticsTracker;
+        this.searchIndex = searchIndex;
+        this.eventPublisher = eventPublisher;
+    }
+    
+    @Transactional(readOnly = true)
+    public List<ItemDto> getAllItemsByUser(UserPrincipal principal) {
+        logger.debug("Fetching all items for user: {}", principal.getUsername());
+        User user = userReference(principal);
+        return itemRepository.findDtosByUser(user);
     }
     
+    /**
+     * Items created or updated after {@code since} and the ids of items deleted after it, or the whole
+     * inventory if {@code since} is null or older than the retained tombstones. The changes read
+     * start {@link AppConstants#SYNC_OVERLAP_SECONDS} before {@code since}: an item's timestamp is
+     * taken before its transaction commits, so a change can become visible after a sync that
+     * already handed out a later watermark.
+     */
     @Transactional(readOnly = true)
-    public List<ItemDto> getAllItemsByUser(String username) {
-        logger.debug("Fetching all items for user: {}", username);
-        User user = getUserByUsername(username);
-        return itemRepository.findByUserOrderByCreatedAtDesc(user)
-                .stream()
-                .map(ItemDto::new)
-                .collect(Collectors.toList());
+    public ItemChangesResponse getItemChanges(LocalDateTime since, UserPrincipal principal) {
+        logger.debug("Fetching item changes since {} for user: {}", since, principal.getUsername());
+        // Taken before reading, so whatever commits while this runs is picked up by the next sync
+        LocalDateTime watermark = LocalDateTime.now();
+        User user = userReference(principal);
+        
+        if (since == null || since.isBefore(watermark.minusDays(AppConstants.DELETED_ITEM_RETENTION_DAYS))) {
+            return ItemChangesResponse.full(itemRepository.findDtosByUser(user), watermark);
+        }
+        LocalDateTime from = since.minusSeconds(AppConstants.SYNC_OVERLAP_SECONDS);
+        return ItemChangesResponse.delta(itemRepository.findDtosByUserUpdatedAfter(user, from),
+                deletedItemRepository.findItemIdsDeletedAfter(principal.getId(), from), watermark);
     }
     
     @Transactional(readOnly = true)
-    public Page<ItemDto> getItemsByUserPaginated(String username, Pageable pageable) {
-        logger.debug("Fetching paginated items for user: {}", username);
-        User user = getUserByUsername(username);
-        return itemRepository.findByUserOrderByCreatedAtDesc(user, pageable)
-                .map(ItemDto::new);
+    public Page<ItemDto> getItemsByUserPaginated(UserPrincipal principal, Pageable pageable) {
+        logger.debug("Fetching paginated items for user: {}", principal.getUsername());
+        User user = userReference(principal);
+        return itemRepository.findDtosByUser(user, pageable);
     }
     
     @Transactional(readOnly = true)
-    public ItemDto getItemById(Long id, String username) {
-        logger.debug("Fetching item with id: {} for user: {}", id, username);
-        Item item = itemRepository.findById(id)
+    public ItemDto getItemById(Long id, UserPrincipal principal) {
+        logger.debug("Fetching item with id: {} for user: {}", id, principal.getUsername());
+        // Items of other users are reported as not found, so their ids cannot be probed
+        return itemRepository.findDtoByIdAndUserId(id, principal.getId())
                 .orElseThrow(() -> new EntityNotFoundException("Item not found with id: " + id));
-        
-        // Ensure user can only access their own items
-        if (!item.getUser().getUsername().equals(username)) {
-            throw new SecurityException("User is not authorized to access this item");
-        }
-        
-        return new ItemDto(item);
     }
     
-    public ItemDto createItem(CreateItemRequest request, String username) {
-        logger.info("Creating new item: {} for user: {}", request.getName(), username);
+    public ItemDto createItem(CreateItemRequest request, UserPrincipal principal) {
+        logger.info("Creating new item: {} for user: {}", request.getName(), principal.getUsername());
         
-        User user = getUserByUsername(username);
-        Category category = categoryRepository.findById(request.getCategoryId())
-                .orElseThrow(() -> new EntityNotFoundException("Category not found with id: " + request.getCategoryId()));
+        User user = userReference(principal);
+        Category category = categoryRegistry.getById(request.getCategoryId());
         
         // Validate quantity against category constraints
         validateQuantityConstraints(request.getQuantity(), category);
@@ -97,18 +143,18 @@ public class ItemService {
         item = itemRepository.save(item);
         
         logger.info("Item created successfully with id: {}", item.getId());
-        return new ItemDto(item);
+        ItemDto createdItem = new ItemDto(item, principal.getUsername());
+        eventPublisher.publishEvent(ItemChangedEvent.saved(createdItem));
+        return createdItem;
     }
     
-    @PreAuthorize("@itemService.isItemOwner(#id, authentication.name)")
-    public ItemDto updateItem(Long id, UpdateItemRequest request, String username) {
-        logger.info("Updating item with id: {} for user: {}", id, username);
+    public ItemDto updateItem(Long id, UpdateItemRequest request, UserPrincipal principal) {
+        logger.info("Updating item with id: {} for user: {}", id, principal.getUsername());
         
-        Item existingItem = itemRepository.findById(id)
+        Item existingItem = itemRepository.findByIdAndUserId(id, principal.getId())
                 .orElseThrow(() -> new EntityNotFoundException("Item not found with id: " + id));
         
-        Category category = categoryRepository.findById(request.getCategoryId())
-                .orElseThrow(() -> new EntityNotFoundException("Category not found with id: " + request.getCategoryId()));
+        Category category = categoryRegistry.getById(request.getCategoryId());
         
         // Validate quantity against category constraints
         validateQuantityConstraints(request.getQuantity(), category);
@@ -126,119 +172,241 @@ public class ItemService {
         existingItem = itemRepository.save(existingItem);
         
         logger.info("Item updated successfully with id: {}", existingItem.getId());
-        return new ItemDto(existingItem);
+        ItemDto updatedItem = new ItemDto(existingItem, principal.getUsername());
+        eventPublisher.publishEvent(ItemChangedEvent.saved(updatedItem));
+        return updatedItem;
     }
     
-    @PreAuthorize("@itemService.isItemOwner(#id, authentication.name)")
-    public void deleteItem(Long id, String username) {
-        logger.info("Deleting item with id: {} for user: {}", id, username);
+    public void deleteItem(Long id, UserPrincipal principal) {
+        logger.info("Deleting item with id: {} for user: {}", id, principal.getUsername());
         
-        Item item = itemRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Item not found with id: " + id));
+        if (itemRepository.deleteByIdAndUserId(id, principal.getId()) == 0) {
+            throw new EntityNotFoundException("Item not found with id: " + id);
+        }
+        deletedItemRepository.save(new DeletedItem(id, principal.getId()));
         
-        itemRepository.delete(item);
+        eventPublisher.publishEvent(ItemChangedEvent.deleted(principal.getUsername(), id));
         logger.info("Item deleted successfully with id: {}", id);
     }
     
+    // Older tombstones are no longer needed: syncs from before the retention period get the full inventory
+    @Scheduled(cron = "0 30 3 * * *")
+    public void purgeDeletedItems() {
+        int purged = deletedItemRepository.deleteOlderThan(
+                LocalDateTime.now().minusDays(AppConstants.DELETED_ITEM_RETENTION_DAYS));
+        if (purged > 0) {
+            logger.info("Purged {} tombstones of deleted items", purged);
+        }
+    }
+    
     // Search and filter methods
     @Transactional(readOnly = true)
-    public List<ItemDto> searchItemsByName(String searchTerm, String username) {
-        logger.debug("Searching items with term: {} for user: {}", searchTerm, username);
-        User user = getUserByUsername(username);
-        return itemRepository.findByUserAndNameContainingIgnoreCase(user, searchTerm)
-                .stream()
-                .map(ItemDto::new)
-                .collect(Collectors.toList());
+    public List<ItemDto> searchItemsByName(String searchTerm, UserPrincipal principal) {
+        logger.debug("Searching items with term: {} for user: {}", searchTerm, principal.getUsername());
+        User user = userReference(principal);
+        Set<Long> itemIds = searchIndex.search(principal.getUsername(), searchTerm);
+        if (itemIds.isEmpty()) {
+            return List.of();
+        }
+        return itemRepository.findDtosByUserAndIdIn(user, itemIds);
+    }
+    
+    @Transactional(readOnly = true)
+    public List<ItemDto> fuzzySearchItemsByName(String searchTerm, UserPrincipal principal) {
+        logger.debug("Fuzzy searching items with term: {} for user: {}", searchTerm, principal.getUsername());
+        User user = userReference(principal);
+        Map<Long, Integer> distances = searchIndex.fuzzySearch(principal.getUsername(), searchTerm);
+        if (distances.isEmpty()) {
+            return List.of();
+        }
+        
+        // Rows arrive newest first and the sort is stable, so equal distances stay ordered by recency
+        List<ItemDto> items = new ArrayList<>(itemRepository.findDtosByUserAndIdIn(user, distances.keySet()));
+        items.sort(Comparator.comparing(item -> distances.get(item.getId())));
+        return items;
+    }
+    
+    // Answered from the in-memory trie; the database is only read when the user's index is first loaded
+    @Transactional(readOnly = true)
+    public List<ItemSuggestionDto> suggestItemNames(String prefix, UserPrincipal principal, int limit) {
+        if (limit < 1 || limit > SuggestionTrie.TOP_K) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + SuggestionTrie.TOP_K);
+        }
+        
+        return searchIndex.suggest(principal.getUsername(), prefix, limit).stream()
+                .map(suggestion -> new ItemSuggestionDto(suggestion.name(), suggestion.count()))
+                .toList();
     }
     
     @Transactional(readOnly = true)
-    public List<ItemDto> getItemsByCategory(Long categoryId, String username) {
-        logger.debug("Fetching items by category: {} for user: {}", categoryId, username);
-        User user = getUserByUsername(username);
-        Category category = categoryRepository.findById(categoryId)
-                .orElseThrow(() -> new EntityNotFoundException("Category not found with id: " + categoryId));
-        
-        return itemRepository.findByUserAndCategoryOrderByCreatedAtDesc(user, category)
-                .stream()
-                .map(ItemDto::new)
-                .collect(Collectors.toList());
+    public List<ItemDto> getItemsByCategory(Long categoryId, UserPrincipal principal) {
+        logger.debug("Fetching items by category: {} for user: {}", categoryId, principal.getUsername());
+        User user = userReference(principal);
+        Category category = categoryRegistry.getById(categoryId);
+        
+        return itemRepository.findDtosByUserAndCategory(user, category);
     }
     
     @Transactional(readOnly = true)
-    public List<ItemDto> getExpiringSoonItems(int days, String username) {
-        logger.debug("Fetching items expiring within {} days for user: {}", days, username);
-        User user = getUserByUsername(username);
+    public List<ItemDto> getExpiringSoonItems(int days, UserPrincipal principal) {
+        logger.debug("Fetching items expiring within {} days for user: {}", days, principal.getUsername());
+        User user = userReference(principal);
         LocalDate expiryDate = LocalDate.now().plusDays(days);
         
-        return itemRepository.findByUserAndExpiringSoon(user, expiryDate)
-                .stream()
-                .map(ItemDto::new)
-                .collect(Collectors.toList());
+        return itemRepository.findDtosByUserAndExpiringSoon(user, expiryDate);
     }
     
     @Transactional(readOnly = true)
-    public List<ItemDto> getExpiredItems(String username) {
-        logger.debug("Fetching expired items for user: {}", username);
-        User user = getUserByUsername(username);
-        
-        return itemRepository.findByUserAndExpired(user)
-                .stream()
-                .map(ItemDto::new)
-                .collect(Collectors.toList());
+    public List<ItemDto> getExpiredItems(UserPrincipal principal) {
+        logger.debug("Fetching expired items for user: {}", principal.getUsername());
+        User user = userReference(principal);
+        
+        return itemRepository.findDtosByUserAndExpired(user);
     }
     
     @Transactional(readOnly = true)
-    public Page<ItemDto> getItemsWithFilters(String username, Long categoryId, String searchTerm, 
+    public Page<ItemDto> getItemsWithFilters(UserPrincipal principal, Long categoryId, String searchTerm, 
                                            Boolean expiringSoon, Integer expiryDays, String sortBy, 
                                            Pageable pageable) {
-        logger.debug("Fetching filtered items for user: {}", username);
+        logger.debug("Fetching filtered items for user: {}", principal.getUsername());
+        
+        Specification<Item> specification = buildFilterSpecification(principal, categoryId, searchTerm, expiringSoon, expiryDays);
+        Pageable sortedPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), toSort(sortBy));
+        
+        return itemRepository.findDtos(specification, sortedPageable);
+    }
+    
+    // Keyset (cursor) scrolling
+    @Transactional(readOnly = true)
+    public CursorPage<ItemDto> getItemsByUserAfterCursor(UserPrincipal principal, String cursor, int size) {
+        logger.debug("Fetching item slice after cursor for user: {}", principal.getUsername());
+        validateSliceSize(size);
         
-        User user = getUserByUsername(username);
-        Category category = categoryId != null ? 
-            categoryRepository.findById(categoryId).orElse(null) : null;
+        ItemCursor after = cursor == null || cursor.isBlank() ? null : decodeCursor(cursor, ItemCursor.SortKey.CREATED);
+        User user = userReference(principal);
+        Pageable slice = PageRequest.of(0, size + 1);
         
-        boolean hasExpiryFilter = Boolean.TRUE.equals(expiringSoon);
-        LocalDate expiryDate = hasExpiryFilter ? 
-            LocalDate.now().plusDays(expiryDays != null ? expiryDays : 7) : null;
+        List<ItemDto> items = after == null
+                ? itemRepository.findDtoSliceByUser(user, slice)
+                : itemRepository.findDtoSliceByUserBefore(user, after.getCreatedAt(), after.getId(), slice);
         
-        return itemRepository.findByUserWithFilters(
-            user, category, searchTerm, hasExpiryFilter, expiryDate, sortBy, pageable
-        ).map(ItemDto::new);
+        return toCursorPage(items, size, ItemCursor.SortKey.CREATED);
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPage<ItemDto> getItemsWithFiltersAfterCursor(UserPrincipal principal, Long categoryId, String searchTerm,
+                                                            Boolean expiringSoon, Integer expiryDays, String sortBy,
+                                                            String cursor, int size) {
+        logger.debug("Fetching filtered item slice after cursor for user: {}", principal.getUsername());
+        validateSliceSize(size);
+        
+        ItemCursor.SortKey sortKey = toCursorSortKey(sortBy);
+        ItemCursor after = cursor == null || cursor.isBlank() ? null : decodeCursor(cursor, sortKey);
+        
+        Specification<Item> specification = buildFilterSpecification(principal, categoryId, searchTerm, expiringSoon, expiryDays);
+        if (after != null) {
+            specification = specification.and(sortKey == ItemCursor.SortKey.CREATED
+                    ? ItemSpecifications.createdBefore(after.getCreatedAt(), after.getId())
+                    : ItemSpecifications.expiringAfter(after.getExpiryDate(), after.getId()));
+        }
+        
+        Sort sort = sortKey == ItemCursor.SortKey.CREATED ? CREATED_SORT : EXPIRY_SORT;
+        List<ItemDto> items = itemRepository.findDtos(specification, sort, size + 1);
+        
+        return toCursorPage(items, size, sortKey);
     }
     
     // Statistics methods
     @Transactional(readOnly = true)
-    public long getTotalItemsCount(String username) {
-        User user = getUserByUsername(username);
-        return itemRepository.countByUser(user);
+    public ItemStatisticsDto getItemStatistics(UserPrincipal principal) {
+        logger.debug("Fetching item statistics for user: {}", principal.getUsername());
+        return statisticsTracker.getStatistics(principal.getUsername());
     }
     
     @Transactional(readOnly = true)
-    public long getExpiringSoonCount(int days, String username) {
-        User user = getUserByUsername(username);
+    public long getExpiringSoonCount(int days, UserPrincipal principal) {
+        User user = userReference(principal);
         LocalDate expiryDate = LocalDate.now().plusDays(days);
         return itemRepository.countByUserAndExpiringSoon(user, expiryDate);
     }
     
-    @Transactional(readOnly = true)
-    public long getExpiredCount(String username) {
-        User user = getUserByUsername(username);
-        return itemRepository.countByUserAndExpired(user);
+    // Helper methods
+    // A proxy carrying only the id: binding it in a query or setting it on an item does not load the user
+    private User userReference(UserPrincipal principal) {
+        return userRepository.getReferenceById(principal.getId());
     }
     
-    // Helper methods
-    public boolean isItemOwner(Long itemId, String username) {
-        return itemRepository.findById(itemId)
-                .map(item -> item.getUser().getUsername().equals(username))
-                .orElse(false);
+    // Only the filters that were actually requested become predicates
+    private Specification<Item> buildFilterSpecification(UserPrincipal principal, Long categoryId, String searchTerm,
+                                                         Boolean expiringSoon, Integer expiryDays) {
+        Specification<Item> specification = ItemSpecifications.ownedBy(userReference(principal));
+        
+        if (categoryId != null) {
+            specification = specification.and(ItemSpecifications.inCategory(categoryId));
+        }
+        if (searchTerm != null && !searchTerm.isBlank()) {
+            specification = specification.and(ItemSpecifications.idIn(searchIndex.search(principal.getUsername(), searchTerm)));
+        }
+        if (Boolean.TRUE.equals(expiringSoon)) {
+            int days = expiryDays != null ? expiryDays : AppConstants.DEFAULT_EXPIRY_WARNING_DAYS;
+            specification = specification.and(ItemSpecifications.expiringOnOrBefore(LocalDate.now().plusDays(days)));
+        }
+        
+        return specification;
     }
     
-    private User getUserByUsername(String username) {
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new EntityNotFoundException("User not found with username: " + username));
+    // One sort key per sortBy value, id breaks ties. All but category are backed by a (user_id, column)
+    // index; category sorts by the joined category name, which no items index covers
+    private Sort toSort(String sortBy) {
+        if (sortBy == null) {
+            return CREATED_SORT;
+        }
+        
+        return switch (sortBy) {
+            case "name" -> Sort.by(Sort.Order.asc("name"), Sort.Order.asc("id"));
+            case "expiry" -> EXPIRY_SORT;
+            case "category" -> Sort.by(Sort.Order.asc(ItemRepositoryCustom.CATEGORY_NAME), Sort.Order.asc("id"));
+            case "quantity" -> Sort.by(Sort.Order.desc("quantity"), Sort.Order.desc("id"));
+            default -> CREATED_SORT;
+        };
+    }
+    
+    private void validateSliceSize(int size) {
+        if (size < 1 || size > AppConstants.MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + AppConstants.MAX_PAGE_SIZE);
+        }
+    }
+    
+    private ItemCursor.SortKey toCursorSortKey(String sortBy) {
+        if (sortBy == null || "created".equals(sortBy)) {
+            return ItemCursor.SortKey.CREATED;
+        }
+        if ("expiry".equals(sortBy)) {
+            return ItemCursor.SortKey.EXPIRY;
+        }
+        throw new IllegalArgumentException("Cursor pagination only supports sorting by 'created' or 'expiry'");
+    }
+    
+    private ItemCursor decodeCursor(String cursor, ItemCursor.SortKey expectedSortKey) {
+        ItemCursor decoded = ItemCursor.decode(cursor);
+        if (decoded.getSortKey() != expectedSortKey) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort order");
+        }
+        return decoded;
+    }
+    
+    private CursorPage<ItemDto> toCursorPage(List<ItemDto> items, int size, ItemCursor.SortKey sortKey) {
+        if (items.size() <= size) {
+            return new CursorPage<>(items, null, size);
+        }
+        
+        List<ItemDto> page = items.subList(0, size);
+        String nextCursor = ItemCursor.after(page.get(size - 1), sortKey).encode();
+        return new CursorPage<>(page, nextCursor, size);
     }
     
-    private void validateQuantityConstraints(java.math.BigDecimal quantity, Category category) {
+    // Shared with ItemBatchService
+    static void validateQuantityConstraints(java.math.BigDecimal quantity, Category category) {
         if (quantity.compareTo(category.getMinValue()) < 0) {
             throw new IllegalArgumentException("Quantity cannot be less than minimum value: " + category.getMinValue());
         }
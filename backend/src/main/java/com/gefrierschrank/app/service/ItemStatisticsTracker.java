@@ -0,0 +1,210 @@
+package com.gefrierschrank.app.service;
+
+import com.gefrierschrank.app.constants.AppConstants;
+import com.gefrierschrank.app.dto.ItemDto;
+import com.gefrierschrank.app.dto.ItemStatisticsDto;
+import com.gefrierschrank.app.entity.ExpiryType;
+import com.gefrierschrank.app.event.CategoryChangedEvent;
+import com.gefrierschrank.app.event.ItemChangedEvent;
+import com.gefrierschrank.app.repository.ItemRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keeps the dashboard counters of every user in memory so that reading statistics does not touch
+ * the database. A user's counters are loaded from the database on first access and then follow the
+ * committed {@link ItemChangedEvent}s. The load runs inside the map's computeIfAbsent, so an event
+ * for that user blocks until the counters are complete instead of being applied to half-loaded
+ * ones or lost. The expiring/expired buckets depend on the current date and are shifted once a day
+ * by {@link #rollOver()}.
+ */
+@Component
+public class ItemStatisticsTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(ItemStatisticsTracker.class);
+
+    private final ItemRepository itemRepository;
+    private final Clock clock;
+    private final ConcurrentMap<String, UserStatistics> statisticsByUsername = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ItemStatisticsTracker(ItemRepository itemRepository) {
+        this(itemRepository, Clock.systemDefaultZone());
+    }
+
+    ItemStatisticsTracker(ItemRepository itemRepository, Clock clock) {
+        this.itemRepository = itemRepository;
+        this.clock = clock;
+    }
+
+    public ItemStatisticsDto getStatistics(String username) {
+        LocalDate today = LocalDate.now(clock);
+        UserStatistics statistics = statisticsByUsername.computeIfAbsent(username, key -> load(key, today));
+        statistics.rollOverTo(today);
+        return statistics.snapshot();
+    }
+
+    @TransactionalEventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        // Users that were never loaded are skipped; their first read loads the committed state
+        statisticsByUsername.computeIfPresent(event.getUsername(), (username, statistics) -> {
+            statistics.apply(event.getItemId(), event.isDeleted() ? null : ItemFact.of(event.getItem()));
+            return statistics;
+        });
+    }
+
+    @TransactionalEventListener
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        // Category names are part of the counters; a rename is rare enough to simply reload
+        invalidateAll();
+    }
+
+    @Scheduled(cron = "0 0 0 * * *")
+    public void rollOver() {
+        LocalDate today = LocalDate.now(clock);
+        statisticsByUsername.values().forEach(statistics -> statistics.rollOverTo(today));
+        logger.debug("Rolled expiry counters of {} users over to {}", statisticsByUsername.size(), today);
+    }
+
+    public void invalidateAll() {
+        statisticsByUsername.clear();
+    }
+
+    private UserStatistics load(String username, LocalDate today) {
+        logger.debug("Loading item statistics for user: {}", username);
+        UserStatistics statistics = new UserStatistics(today);
+        for (Object[] row : itemRepository.findStatisticsFactsByUsername(username)) {
+            statistics.apply((Long) row[0], new ItemFact((String) row[1], (ExpiryType) row[2], (LocalDate) row[3]));
+        }
+        return statistics;
+    }
+
+    private record ItemFact(String categoryName, ExpiryType expiryType, LocalDate expiryDate) {
+
+        static ItemFact of(ItemDto item) {
+            return new ItemFact(item.getCategoryName(), item.getExpiryType(), item.getExpiryDate());
+        }
+    }
+
+    /**
+     * Counters of one user. Item changes only take the read lock, so they update the LongAdders
+     * concurrently; the daily rollover takes the write lock to re-bucket against a new date.
+     */
+    private static final class UserStatistics {
+
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final ConcurrentMap<Long, ItemFact> items = new ConcurrentHashMap<>();
+        private final LongAdder total = new LongAdder();
+        private final LongAdder expiringSoon = new LongAdder();
+        private final LongAdder expired = new LongAdder();
+        private final ConcurrentMap<String, LongAdder> byCategory = new ConcurrentHashMap<>();
+        private final Map<ExpiryType, LongAdder> byExpiryType = new EnumMap<>(ExpiryType.class);
+        private final ConcurrentMap<LocalDate, LongAdder> byExpiryDate = new ConcurrentHashMap<>();
+        private volatile LocalDate today;
+
+        UserStatistics(LocalDate today) {
+            this.today = today;
+            for (ExpiryType expiryType : ExpiryType.values()) {
+                byExpiryType.put(expiryType, new LongAdder());
+            }
+        }
+
+        // Replaces whatever was counted for the item before, so applying the same change twice is harmless
+        void apply(Long itemId, ItemFact fact) {
+            lock.readLock().lock();
+            try {
+                ItemFact previous = fact == null ? items.remove(itemId) : items.put(itemId, fact);
+                if (previous != null) {
+                    count(previous, -1);
+                }
+                if (fact != null) {
+                    count(fact, 1);
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void rollOverTo(LocalDate date) {
+            if (date.equals(today)) {
+                return;
+            }
+
+            lock.writeLock().lock();
+            try {
+                if (date.equals(today)) {
+                    return;
+                }
+                today = date;
+                expiringSoon.reset();
+                expired.reset();
+                byExpiryDate.forEach((expiryDate, count) -> {
+                    LongAdder bucket = bucketFor(expiryDate);
+                    if (bucket != null) {
+                        bucket.add(count.sum());
+                    }
+                });
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        ItemStatisticsDto snapshot() {
+            lock.readLock().lock();
+            try {
+                Map<String, Long> categoryCounts = new LinkedHashMap<>();
+                byCategory.forEach((name, count) -> {
+                    long sum = count.sum();
+                    if (sum > 0) {
+                        categoryCounts.put(name, sum);
+                    }
+                });
+                Map<ExpiryType, Long> expiryTypeCounts = new EnumMap<>(ExpiryType.class);
+                byExpiryType.forEach((expiryType, count) -> expiryTypeCounts.put(expiryType, count.sum()));
+
+                return new ItemStatisticsDto(total.sum(), expiringSoon.sum(), expired.sum(),
+                        AppConstants.DEFAULT_EXPIRY_WARNING_DAYS, categoryCounts, expiryTypeCounts);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private void count(ItemFact fact, int delta) {
+            total.add(delta);
+            byCategory.computeIfAbsent(fact.categoryName(), name -> new LongAdder()).add(delta);
+            byExpiryType.get(fact.expiryType()).add(delta);
+            if (fact.expiryDate() != null) {
+                byExpiryDate.computeIfAbsent(fact.expiryDate(), date -> new LongAdder()).add(delta);
+                LongAdder bucket = bucketFor(fact.expiryDate());
+                if (bucket != null) {
+                    bucket.add(delta);
+                }
+            }
+        }
+
+        private LongAdder bucketFor(LocalDate expiryDate) {
+            if (expiryDate.isBefore(today)) {
+                return expired;
+            }
+            if (!expiryDate.isAfter(today.plusDays(AppConstants.DEFAULT_EXPIRY_WARNING_DAYS))) {
+                return expiringSoon;
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.gefrierschrank.app.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Moves the id sequences past the ids already in use. Databases created while the entities still
+ * used identity columns get their sequences from the schema update starting at 1, so the first
+ * sequence-generated ids would collide with existing rows. Runs before the other command line
+ * runners so that no insert happens first.
+ */
+@Service
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SequenceMigrationService implements CommandLineRunner {
+    
+    private static final Logger logger = LoggerFactory.getLogger(SequenceMigrationService.class);
+    
+    private static final Map<String, String> SEQUENCE_BY_TABLE = new LinkedHashMap<>();
+    
+    static {
+        SEQUENCE_BY_TABLE.put("users", "users_seq");
+        SEQUENCE_BY_TABLE.put("categories", "categories_seq");
+        SEQUENCE_BY_TABLE.put("items", "items_seq");
+    }
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    public SequenceMigrationService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    @Override
+    public void run(String... args) {
+        SEQUENCE_BY_TABLE.forEach(this::alignSequence);
+    }
+    
+    void alignSequence(String table, String sequence) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        // BASE_VALUE is the value the next NEXT VALUE FOR call returns (H2 2.x)
+        Long nextValue = jdbcTemplate.queryForObject(
+                "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = ?",
+                Long.class, sequence.toUpperCase());
+        
+        if (nextValue != null && nextValue <= maxId) {
+            jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (maxId + 1));
+            logger.info("Restarted sequence {} at {} to follow the existing ids of {}", sequence, maxId + 1, table);
+        }
+    }
+}
@@ -4,6 +4,9 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.gefrierschrank.app.dto.JwtResponse;
 import com.gefrierschrank.app.dto.LoginRequest;
 import com.gefrierschrank.app.security.JwtUtils;
+import com.gefrierschrank.app.security.LoginService;
+import com.gefrierschrank.app.security.RefreshTokenService;
+import com.gefrierschrank.app.security.TokenRevocationService;
 import com.gefrierschrank.app.security.UserPrincipal;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -39,6 +42,15 @@ class AuthControllerTest {
     @MockBean
     private JwtUtils jwtUtils;
 
+    @MockBean
+    private TokenRevocationService tokenRevocationService;
+
+    @MockBean
+    private RefreshTokenService refreshTokenService;
+
+    @MockBean
+    private LoginService loginService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -1,8 +1,17 @@
 package com.gefrierschrank.app.controller;
 
+import com.gefrierschrank.app.dto.BatchItemResponse;
+import com.gefrierschrank.app.dto.BatchItemResult;
 import com.gefrierschrank.app.dto.CreateItemRequest;
+import com.gefrierschrank.app.dto.ItemChangesResponse;
 import com.gefrierschrank.app.dto.ItemDto;
+import com.gefrierschrank.app.dto.ItemImportResponse;
+import com.gefrierschrank.app.dto.ItemSuggestionDto;
 import com.gefrierschrank.app.entity.ExpiryType;
+import com.gefrierschrank.app.security.UserPrincipal;
+import com.gefrierschrank.app.service.ItemBatchService;
+import com.gefrierschrank.app.service.ItemCsvService;
+import com.gefrierschrank.app.service.ItemNdjsonService;
 import com.gefrierschrank.app.service.ItemService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,16 +23,22 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
@@ -34,11 +49,18 @@ class ItemControllerUnitTest {
     private ItemService itemService;
 
     @Mock
-    private Authentication authentication;
+    private ItemBatchService itemBatchService;
+
+    @Mock
+    private ItemCsvService itemCsvService;
+
+    @Mock
+    private ItemNdjsonService itemNdjsonService;
 
     @InjectMocks
     private ItemController itemController;
 
+    private UserPrincipal principal;
     private ItemDto testItemDto;
     private CreateItemRequest createRequest;
 
@@ -63,124 +85,241 @@ class ItemControllerUnitTest {
         createRequest.setExpiryDate(LocalDate.now().plusDays(7));
         createRequest.setExpiryType(ExpiryType.BEST_BEFORE);
 
-        // Setup authentication mock
-        when(authentication.getName()).thenReturn("testuser");
+        // Setup authenticated principal
+        principal = new UserPrincipal(1L, "testuser", "test@example.com", null, List.of());
     }
 
     @Test
     void getAllItems_ShouldReturnItemList() {
         // Given
         List<ItemDto> itemList = Arrays.asList(testItemDto);
-        when(itemService.getAllItemsByUser("testuser")).thenReturn(itemList);
+        when(itemService.getAllItemsByUser(principal)).thenReturn(itemList);
 
         // When
-        ResponseEntity<List<ItemDto>> response = itemController.getAllItems(authentication);
+        ResponseEntity<List<ItemDto>> response = itemController.getAllItems(principal);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(1);
         assertThat(response.getBody().get(0).getName()).isEqualTo("Test Item");
-        verify(itemService).getAllItemsByUser("testuser");
+        verify(itemService).getAllItemsByUser(principal);
     }
 
     @Test
     void getItemsPaginated_ShouldReturnPagedItems() {
         // Given
         Page<ItemDto> pagedItems = new PageImpl<>(Arrays.asList(testItemDto));
-        when(itemService.getItemsByUserPaginated(eq("testuser"), any(Pageable.class))).thenReturn(pagedItems);
+        when(itemService.getItemsByUserPaginated(eq(principal), any(Pageable.class))).thenReturn(pagedItems);
 
         // When
-        ResponseEntity<Page<ItemDto>> response = itemController.getItemsPaginated(0, 20, authentication);
+        ResponseEntity<Page<ItemDto>> response = itemController.getItemsPaginated(0, 20, principal);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody().getContent()).hasSize(1);
-        verify(itemService).getItemsByUserPaginated(eq("testuser"), any(Pageable.class));
+        verify(itemService).getItemsByUserPaginated(eq(principal), any(Pageable.class));
     }
 
     @Test
     void getItemById_ShouldReturnItem() {
         // Given
-        when(itemService.getItemById(1L, "testuser")).thenReturn(testItemDto);
+        when(itemService.getItemById(1L, principal)).thenReturn(testItemDto);
 
         // When
-        ResponseEntity<ItemDto> response = itemController.getItemById(1L, authentication);
+        ResponseEntity<ItemDto> response = itemController.getItemById(1L, principal);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody().getName()).isEqualTo("Test Item");
-        verify(itemService).getItemById(1L, "testuser");
+        verify(itemService).getItemById(1L, principal);
     }
 
     @Test
     void createItem_ShouldCreateAndReturnItem() {
         // Given
-        when(itemService.createItem(createRequest, "testuser")).thenReturn(testItemDto);
+        when(itemService.createItem(createRequest, principal)).thenReturn(testItemDto);
 
         // When
-        ResponseEntity<ItemDto> response = itemController.createItem(createRequest, authentication);
+        ResponseEntity<ItemDto> response = itemController.createItem(createRequest, principal);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
         assertThat(response.getBody().getName()).isEqualTo("Test Item");
-        verify(itemService).createItem(createRequest, "testuser");
+        verify(itemService).createItem(createRequest, principal);
     }
 
     @Test
     void deleteItem_ShouldDeleteItem() {
         // Given
-        doNothing().when(itemService).deleteItem(1L, "testuser");
+        doNothing().when(itemService).deleteItem(1L, principal);
 
         // When
-        ResponseEntity<Void> response = itemController.deleteItem(1L, authentication);
+        ResponseEntity<Void> response = itemController.deleteItem(1L, principal);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
-        verify(itemService).deleteItem(1L, "testuser");
+        verify(itemService).deleteItem(1L, principal);
     }
 
     @Test
     void searchItemsByName_ShouldReturnMatchingItems() {
         // Given
         List<ItemDto> searchResults = Arrays.asList(testItemDto);
-        when(itemService.searchItemsByName("Test", "testuser")).thenReturn(searchResults);
+        when(itemService.searchItemsByName("Test", principal)).thenReturn(searchResults);
 
         // When
-        ResponseEntity<List<ItemDto>> response = itemController.searchItemsByName("Test", authentication);
+        ResponseEntity<List<ItemDto>> response = itemController.searchItemsByName("Test", false, principal);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(1);
-        verify(itemService).searchItemsByName("Test", "testuser");
+        verify(itemService).searchItemsByName("Test", principal);
+    }
+
+    @Test
+    void searchItemsByName_Fuzzy_ShouldUseFuzzySearch() {
+        // Given
+        List<ItemDto> searchResults = Arrays.asList(testItemDto);
+        when(itemService.fuzzySearchItemsByName("Tset", principal)).thenReturn(searchResults);
+
+        // When
+        ResponseEntity<List<ItemDto>> response = itemController.searchItemsByName("Tset", true, principal);
+
+        // Then
+        assertThat(response.getBody()).hasSize(1);
+        verify(itemService, never()).searchItemsByName(anyString(), any());
+    }
+
+    @Test
+    void suggestItemNames_ShouldReturnSuggestions() {
+        // Given
+        List<ItemSuggestionDto> suggestions = List.of(new ItemSuggestionDto("Test Item", 3));
+        when(itemService.suggestItemNames("te", principal, 5)).thenReturn(suggestions);
+
+        // When
+        ResponseEntity<List<ItemSuggestionDto>> response = itemController.suggestItemNames("te", 5, principal);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(suggestions);
+    }
+
+    @Test
+    void deleteItems_ShouldDelegateToBatchService() {
+        // Given
+        List<Long> ids = List.of(1L, 2L);
+        BatchItemResponse batchResponse = new BatchItemResponse(
+                List.of(BatchItemResult.deleted(0, 1L), BatchItemResult.failed(1, 2L, "Item not found with id: 2")));
+        when(itemBatchService.deleteItems(ids, principal)).thenReturn(batchResponse);
+
+        // When
+        ResponseEntity<BatchItemResponse> response = itemController.deleteItems(ids, principal);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().getSucceeded()).isEqualTo(1);
+        assertThat(response.getBody().getFailed()).isEqualTo(1);
     }
 
     @Test
     void getExpiringSoonItems_ShouldReturnExpiringItems() {
         // Given
         List<ItemDto> expiringItems = Arrays.asList(testItemDto);
-        when(itemService.getExpiringSoonItems(7, "testuser")).thenReturn(expiringItems);
+        when(itemService.getExpiringSoonItems(7, principal)).thenReturn(expiringItems);
 
         // When
-        ResponseEntity<List<ItemDto>> response = itemController.getExpiringSoonItems(7, authentication);
+        ResponseEntity<List<ItemDto>> response = itemController.getExpiringSoonItems(7, principal);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(1);
-        verify(itemService).getExpiringSoonItems(7, "testuser");
+        verify(itemService).getExpiringSoonItems(7, principal);
     }
 
     @Test
     void getExpiredItems_ShouldReturnExpiredItems() {
         // Given
         List<ItemDto> expiredItems = Arrays.asList(testItemDto);
-        when(itemService.getExpiredItems("testuser")).thenReturn(expiredItems);
+        when(itemService.getExpiredItems(principal)).thenReturn(expiredItems);
 
         // When
-        ResponseEntity<List<ItemDto>> response = itemController.getExpiredItems(authentication);
+        ResponseEntity<List<ItemDto>> response = itemController.getExpiredItems(principal);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(1);
-        verify(itemService).getExpiredItems("testuser");
+        verify(itemService).getExpiredItems(principal);
+    }
+
+    @Test
+    void getItemChanges_ShouldReturnChangesSinceWatermark() {
+        // Given
+        LocalDateTime since = LocalDateTime.of(2030, 1, 1, 12, 0);
+        ItemChangesResponse changes = ItemChangesResponse.delta(List.of(testItemDto), List.of(2L), since.plusHours(1));
+        when(itemService.getItemChanges(since, principal)).thenReturn(changes);
+
+        // When
+        ResponseEntity<ItemChangesResponse> response = itemController.getItemChanges(since, principal);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(changes);
+    }
+
+    @Test
+    void streamAllItems_ShouldWriteNdjsonIntoResponse() throws Exception {
+        // Given
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        itemController.streamAllItems(principal, response);
+
+        // Then
+        assertThat(response.getContentType()).isEqualTo("application/x-ndjson;charset=UTF-8");
+        verify(itemNdjsonService).exportNdjson(principal, response.getOutputStream());
+        verifyNoInteractions(itemService);
+    }
+
+    @Test
+    void exportItemsCsv_ShouldStreamAttachmentIntoResponse() throws Exception {
+        // Given
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        itemController.exportItemsCsv(principal, response);
+
+        // Then
+        assertThat(response.getContentType()).isEqualTo("text/csv;charset=UTF-8");
+        assertThat(response.getHeader(HttpHeaders.CONTENT_DISPOSITION))
+                .isEqualTo("attachment; filename=\"gefrierschrank-items.csv\"");
+        verify(itemCsvService).exportCsv(principal, response.getOutputStream());
+    }
+
+    @Test
+    void importItemsCsv_ShouldReturnImportReport() throws Exception {
+        // Given
+        MockMultipartFile file = new MockMultipartFile("file", "items.csv", "text/csv",
+                "name,category,quantity,unit\nLachs,Fisch,1,kg\n".getBytes(StandardCharsets.UTF_8));
+        ItemImportResponse report = new ItemImportResponse(1, 0, List.of());
+        when(itemCsvService.importCsv(any(InputStream.class), eq(principal))).thenReturn(report);
+
+        // When
+        ResponseEntity<ItemImportResponse> response = itemController.importItemsCsv(file, principal);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(report);
+    }
+
+    @Test
+    void importItemsCsv_EmptyFile_ShouldThrowException() {
+        // Given
+        MockMultipartFile file = new MockMultipartFile("file", "items.csv", "text/csv", new byte[0]);
+
+        // When & Then
+        assertThatThrownBy(() -> itemController.importItemsCsv(file, principal))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("The uploaded file is empty");
+        verifyNoInteractions(itemCsvService);
     }
-}
\ No newline at end of file
+}
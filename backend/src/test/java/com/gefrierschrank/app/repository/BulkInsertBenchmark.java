@@ -0,0 +1,128 @@
+package com.gefrierschrank.app.repository;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Persisting a batch of items through Hibernate with the old identity ids against the pooled-lo
+ * sequence ids, both with the application's JDBC batch settings. Identity ids force one INSERT
+ * round trip per row to read back the key; sequence ids let Hibernate send the rows in JDBC batches.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkInsertBenchmark {
+
+    @Param({"identity", "sequence"})
+    private String idGeneration;
+
+    @Param({"40", "1000"})
+    private int rowCount;
+
+    private SessionFactory sessionFactory;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(IdentityItem.class)
+                .addAnnotatedClass(SequenceItem.class)
+                .setProperty(AvailableSettings.URL, "jdbc:h2:mem:bulk_insert_benchmark;DB_CLOSE_DELAY=-1")
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, "50")
+                .setProperty(AvailableSettings.ORDER_INSERTS, "true")
+                .setProperty(AvailableSettings.PREFERRED_POOLED_OPTIMIZER, "pooled-lo")
+                .buildSessionFactory();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearTables() {
+        inTransaction(session -> {
+            session.createMutationQuery("DELETE FROM IdentityItem").executeUpdate();
+            session.createMutationQuery("DELETE FROM SequenceItem").executeUpdate();
+        });
+    }
+
+    @Benchmark
+    public void persistItems() {
+        boolean identity = "identity".equals(idGeneration);
+        inTransaction(session -> {
+            for (int i = 0; i < rowCount; i++) {
+                BenchmarkItem item = identity ? new IdentityItem() : new SequenceItem();
+                item.name = "Item " + i;
+                item.quantity = BigDecimal.ONE;
+                item.unit = "kg";
+                item.expiryDate = LocalDate.now().plusDays(i % 365);
+                session.persist(item);
+            }
+        });
+    }
+
+    private void inTransaction(Consumer<Session> work) {
+        try (Session session = sessionFactory.openSession()) {
+            Transaction transaction = session.beginTransaction();
+            work.accept(session);
+            transaction.commit();
+        }
+    }
+
+    @MappedSuperclass
+    public abstract static class BenchmarkItem {
+        String name;
+        BigDecimal quantity;
+        String unit;
+        LocalDate expiryDate;
+    }
+
+    @Entity(name = "IdentityItem")
+    @Table(name = "identity_items")
+    public static class IdentityItem extends BenchmarkItem {
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        Long id;
+    }
+
+    @Entity(name = "SequenceItem")
+    @Table(name = "sequence_items")
+    public static class SequenceItem extends BenchmarkItem {
+        @Id
+        @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequence_items_seq")
+        @SequenceGenerator(name = "sequence_items_seq", sequenceName = "sequence_items_seq", allocationSize = 50)
+        Long id;
+    }
+}
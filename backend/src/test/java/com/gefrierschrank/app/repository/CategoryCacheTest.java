@@ -0,0 +1,96 @@
+package com.gefrierschrank.app.repository;
+
+import com.gefrierschrank.app.entity.Category;
+import com.gefrierschrank.app.event.CategoryCacheEvictionListener;
+import com.gefrierschrank.app.event.CategoryChangedEvent;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Every repository call runs in a session of its own, so hits can only come from the second-level cache
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(CategoryCacheEvictionListener.class)
+class CategoryCacheTest {
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private Statistics statistics;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        category = categoryRepository.save(new Category("Fleisch", "kg", new BigDecimal("0.1"),
+                new BigDecimal("0.1"), new BigDecimal("50.0")));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    void findById_ShouldBeServedFromSecondLevelCache() {
+        // When
+        categoryRepository.findById(category.getId());
+        Category found = categoryRepository.findById(category.getId()).orElseThrow();
+
+        // Then
+        assertThat(found.getName()).isEqualTo("Fleisch");
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(2);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void categoryQueries_ShouldBeServedFromQueryCache() {
+        // When
+        categoryRepository.findAllByOrderByNameAsc();
+        categoryRepository.findAllByOrderByNameAsc();
+        categoryRepository.findByNameIgnoreCase("fleisch");
+        categoryRepository.findByNameIgnoreCase("fleisch");
+
+        // Then
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(2);
+        assertThat(statistics.getQueryCacheMissCount()).isEqualTo(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void categoryChangedEvent_ShouldEvictCategoryRegions() {
+        // Given
+        categoryRepository.findAllByOrderByNameAsc();
+        statistics.clear();
+
+        // When
+        eventPublisher.publishEvent(new CategoryChangedEvent(category.getId()));
+        categoryRepository.findById(category.getId());
+        categoryRepository.findAllByOrderByNameAsc();
+
+        // Then
+        assertThat(statistics.getSecondLevelCacheMissCount()).isEqualTo(1);
+        assertThat(statistics.getQueryCacheMissCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+}
@@ -1,5 +1,6 @@
 package com.gefrierschrank.app.repository;
 
+import com.gefrierschrank.app.dto.ItemDto;
 import com.gefrierschrank.app.entity.Category;
 import com.gefrierschrank.app.entity.ExpiryType;
 import com.gefrierschrank.app.entity.Item;
@@ -12,11 +13,15 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -80,11 +85,22 @@ class ItemRepositoryTest {
         item4 = createItem("Broccoli", vegetableCategory, testUser, LocalDate.now().plusDays(14), LocalDateTime.now().minusHours(4));
         item5 = createItem("Other User Item", meatCategory, otherUser, LocalDate.now().plusDays(5), LocalDateTime.now().minusHours(5));
 
-        entityManager.persistAndFlush(item1);
-        entityManager.persistAndFlush(item2);
-        entityManager.persistAndFlush(item3);
-        entityManager.persistAndFlush(item4);
-        entityManager.persistAndFlush(item5);
+        persist(item1);
+        persist(item2);
+        persist(item3);
+        persist(item4);
+        persist(item5);
+    }
+
+    // @PrePersist stamps the current time over createdAt, so the intended one is written back afterwards
+    private void persist(Item item) {
+        LocalDateTime createdAt = item.getCreatedAt();
+        entityManager.persistAndFlush(item);
+        entityManager.getEntityManager().createQuery("UPDATE Item i SET i.createdAt = :createdAt WHERE i.id = :id")
+                .setParameter("createdAt", createdAt)
+                .setParameter("id", item.getId())
+                .executeUpdate();
+        entityManager.refresh(item);
     }
 
     private Item createItem(String name, Category category, User user, LocalDate expiryDate, LocalDateTime createdAt) {
@@ -102,9 +118,9 @@ class ItemRepositoryTest {
     }
 
     @Test
-    void findByUserOrderByCreatedAtDesc_ShouldReturnUserItemsInDescOrder() {
+    void findDtosByUser_ShouldReturnUserItemsInDescOrder() {
         // When
-        List<Item> items = itemRepository.findByUserOrderByCreatedAtDesc(testUser);
+        List<ItemDto> items = itemRepository.findDtosByUser(testUser);
 
         // Then
         assertThat(items).hasSize(4);
@@ -118,12 +134,12 @@ class ItemRepositoryTest {
     }
 
     @Test
-    void findByUserOrderByCreatedAtDesc_WithPageable_ShouldReturnPagedResults() {
+    void findDtosByUser_WithPageable_ShouldReturnPagedResults() {
         // Given
         Pageable pageable = PageRequest.of(0, 2);
 
         // When
-        Page<Item> itemPage = itemRepository.findByUserOrderByCreatedAtDesc(testUser, pageable);
+        Page<ItemDto> itemPage = itemRepository.findDtosByUser(testUser, pageable);
 
         // Then
         assertThat(itemPage.getContent()).hasSize(2);
@@ -134,48 +150,28 @@ class ItemRepositoryTest {
     }
 
     @Test
-    void findByUserAndCategoryOrderByCreatedAtDesc_ShouldReturnCategorySpecificItems() {
+    void findDtosByUserAndCategory_ShouldReturnCategorySpecificItems() {
         // When
-        List<Item> meatItems = itemRepository.findByUserAndCategoryOrderByCreatedAtDesc(testUser, meatCategory);
+        List<ItemDto> meatItems = itemRepository.findDtosByUserAndCategory(testUser, meatCategory);
 
         // Then
         assertThat(meatItems).hasSize(2);
         assertThat(meatItems.get(0).getName()).isEqualTo("Chicken Breast");
         assertThat(meatItems.get(1).getName()).isEqualTo("Beef Steak");
-        assertThat(meatItems).allMatch(item -> item.getCategory().equals(meatCategory));
-    }
-
-    @Test
-    void findByUserAndNameContainingIgnoreCase_ShouldReturnMatchingItems() {
-        // When
-        List<Item> items = itemRepository.findByUserAndNameContainingIgnoreCase(testUser, "beef");
-
-        // Then
-        assertThat(items).hasSize(1);
-        assertThat(items.get(0).getName()).isEqualTo("Beef Steak");
+        assertThat(meatItems).allMatch(item -> item.getCategoryId().equals(meatCategory.getId()));
     }
 
     @Test
-    void findByUserAndNameContainingIgnoreCase_CaseInsensitive_ShouldWork() {
-        // When
-        List<Item> items = itemRepository.findByUserAndNameContainingIgnoreCase(testUser, "CHICKEN");
-
-        // Then
-        assertThat(items).hasSize(1);
-        assertThat(items.get(0).getName()).isEqualTo("Chicken Breast");
-    }
-
-    @Test
-    void findByUserAndExpiringSoon_ShouldReturnItemsExpiringSoon() {
+    void findDtosByUserAndExpiringSoon_ShouldReturnItemsExpiringSoon() {
         // Given
         LocalDate expiryDate = LocalDate.now().plusDays(7);
 
         // When
-        List<Item> expiring = itemRepository.findByUserAndExpiringSoon(testUser, expiryDate);
+        List<ItemDto> expiring = itemRepository.findDtosByUserAndExpiringSoon(testUser, expiryDate);
 
         // Then
         assertThat(expiring).hasSize(2);
-        assertThat(expiring).extracting(Item::getName)
+        assertThat(expiring).extracting(ItemDto::getName)
                 .containsExactly("Chicken Breast", "Beef Steak"); // Ordered by expiry date ASC
         assertThat(expiring).allMatch(item -> 
                 item.getExpiryDate().isAfter(LocalDate.now().minusDays(1)) && 
@@ -183,9 +179,9 @@ class ItemRepositoryTest {
     }
 
     @Test
-    void findByUserAndExpired_ShouldReturnExpiredItems() {
+    void findDtosByUserAndExpired_ShouldReturnExpiredItems() {
         // When
-        List<Item> expired = itemRepository.findByUserAndExpired(testUser);
+        List<ItemDto> expired = itemRepository.findDtosByUserAndExpired(testUser);
 
         // Then
         assertThat(expired).hasSize(1);
@@ -194,14 +190,17 @@ class ItemRepositoryTest {
     }
 
     @Test
-    void findByUserWithFilters_AllFilters_ShouldReturnFilteredResults() {
+    void findDtos_AllFilters_ShouldReturnFilteredResults() {
         // Given
         LocalDate expiryDate = LocalDate.now().plusDays(10);
-        Pageable pageable = PageRequest.of(0, 10);
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("name", "id"));
+        Specification<Item> specification = ItemSpecifications.ownedBy(testUser)
+                .and(ItemSpecifications.inCategory(meatCategory.getId()))
+                .and(ItemSpecifications.idIn(Set.of(item2.getId(), item5.getId())))
+                .and(ItemSpecifications.expiringOnOrBefore(expiryDate));
 
-        // When - Filter by meat category, name containing "beef", expiring soon
-        Page<Item> filtered = itemRepository.findByUserWithFilters(
-                testUser, meatCategory, "beef", true, expiryDate, "name", pageable);
+        // When - Filter by meat category, search hits (Beef Steak, other user's item), expiring soon
+        Page<ItemDto> filtered = itemRepository.findDtos(specification, pageable);
 
         // Then
         assertThat(filtered.getContent()).hasSize(1);
@@ -209,13 +208,12 @@ class ItemRepositoryTest {
     }
 
     @Test
-    void findByUserWithFilters_NoFilters_ShouldReturnAllUserItems() {
+    void findDtos_NoFilters_ShouldReturnAllUserItems() {
         // Given
-        Pageable pageable = PageRequest.of(0, 10);
+        Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt", "id"));
 
         // When - No filters applied
-        Page<Item> all = itemRepository.findByUserWithFilters(
-                testUser, null, null, false, null, "created", pageable);
+        Page<ItemDto> all = itemRepository.findDtos(ItemSpecifications.ownedBy(testUser), pageable);
 
         // Then
         assertThat(all.getContent()).hasSize(4);
@@ -223,13 +221,12 @@ class ItemRepositoryTest {
     }
 
     @Test
-    void findByUserWithFilters_SortByName_ShouldSortCorrectly() {
+    void findDtos_SortByName_ShouldSortCorrectly() {
         // Given
-        Pageable pageable = PageRequest.of(0, 10);
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("name", "id"));
 
         // When
-        Page<Item> sorted = itemRepository.findByUserWithFilters(
-                testUser, null, null, false, null, "name", pageable);
+        Page<ItemDto> sorted = itemRepository.findDtos(ItemSpecifications.ownedBy(testUser), pageable);
 
         // Then
         assertThat(sorted.getContent()).hasSize(4);
@@ -239,26 +236,6 @@ class ItemRepositoryTest {
         assertThat(sorted.getContent().get(3).getName()).isEqualTo("Chicken Breast");
     }
 
-    @Test
-    void countByUser_ShouldReturnCorrectCount() {
-        // When
-        long count = itemRepository.countByUser(testUser);
-
-        // Then
-        assertThat(count).isEqualTo(4);
-    }
-
-    @Test
-    void countByUserAndCategory_ShouldReturnCategoryCount() {
-        // When
-        long meatCount = itemRepository.countByUserAndCategory(testUser, meatCategory);
-        long vegetableCount = itemRepository.countByUserAndCategory(testUser, vegetableCategory);
-
-        // Then
-        assertThat(meatCount).isEqualTo(2);
-        assertThat(vegetableCount).isEqualTo(2);
-    }
-
     @Test
     void countByUserAndExpiringSoon_ShouldReturnExpiringCount() {
         // Given
@@ -272,87 +249,94 @@ class ItemRepositoryTest {
     }
 
     @Test
-    void countByUserAndExpired_ShouldReturnExpiredCount() {
-        // When
-        long count = itemRepository.countByUserAndExpired(testUser);
-
-        // Then
-        assertThat(count).isEqualTo(1); // Only Carrots
-    }
-
-    @Test
-    void findCategoryStatsByUser_ShouldReturnCategoryStatistics() {
+    void findStatisticsFactsByUsername_ShouldReturnOneRowPerUserItem() {
         // When
-        List<Object[]> stats = itemRepository.findCategoryStatsByUser(testUser);
+        List<Object[]> facts = itemRepository.findStatisticsFactsByUsername("testuser");
 
         // Then
-        assertThat(stats).hasSize(2);
-        
-        // Both categories have 2 items each, check that both are present
-        assertThat(stats).anySatisfy(stat -> {
-            assertThat(stat[0]).isIn("Fleisch", "Gemüse");
-            assertThat(stat[1]).isEqualTo(2L);
+        assertThat(facts).hasSize(4);
+        assertThat(facts).anySatisfy(fact -> {
+            assertThat(fact[0]).isEqualTo(item3.getId());
+            assertThat(fact[1]).isEqualTo("Gemüse");
+            assertThat(fact[2]).isEqualTo(ExpiryType.BEST_BEFORE);
+            assertThat(fact[3]).isEqualTo(item3.getExpiryDate());
         });
     }
 
     @Test
-    void findRecentItemsByUser_WithPageable_ShouldReturnRecentItems() {
+    void findDtos_ExpiringOnOrBefore_ShouldReturnItemsBeforeDate() {
         // Given
-        Pageable pageable = PageRequest.of(0, 2);
+        LocalDate date = LocalDate.now().plusDays(5);
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("expiryDate", "id"));
 
         // When
-        List<Item> recent = itemRepository.findRecentItemsByUser(testUser, pageable);
+        List<ItemDto> items = itemRepository.findDtos(ItemSpecifications.ownedBy(testUser)
+                .and(ItemSpecifications.expiringOnOrBefore(date)), pageable).getContent();
 
         // Then
-        assertThat(recent).hasSize(2);
-        assertThat(recent.get(0).getName()).isEqualTo("Chicken Breast");
-        assertThat(recent.get(1).getName()).isEqualTo("Beef Steak");
+        assertThat(items).hasSize(2);
+        assertThat(items).extracting(ItemDto::getName)
+                .containsExactly("Carrots", "Chicken Breast"); // Ordered by expiry date ASC
     }
 
     @Test
-    void findByUserAndExpiryDateBetween_ShouldReturnItemsInDateRange() {
-        // Given
-        LocalDate startDate = LocalDate.now();
-        LocalDate endDate = LocalDate.now().plusDays(10);
-
+    void repository_ShouldOnlyReturnDataForCorrectUser() {
+        // Test that all queries properly filter by user
+        
         // When
-        List<Item> items = itemRepository.findByUserAndExpiryDateBetween(testUser, startDate, endDate);
+        List<ItemDto> testUserItems = itemRepository.findDtosByUser(testUser);
+        List<ItemDto> otherUserItems = itemRepository.findDtosByUser(otherUser);
 
         // Then
-        assertThat(items).hasSize(2);
-        assertThat(items).extracting(Item::getName)
-                .containsExactly("Chicken Breast", "Beef Steak"); // Ordered by expiry date ASC
+        assertThat(testUserItems).hasSize(4);
+        assertThat(otherUserItems).hasSize(1);
+        assertThat(otherUserItems.get(0).getName()).isEqualTo("Other User Item");
+        
+        // Cross-check - no overlap
+        assertThat(testUserItems).noneMatch(item -> item.getUserId().equals(otherUser.getId()));
+        assertThat(otherUserItems).noneMatch(item -> item.getUserId().equals(testUser.getId()));
     }
 
     @Test
-    void findByUserAndExpiryDateBefore_ShouldReturnItemsBeforeDate() {
+    void findDtoSliceByUserBefore_ShouldScrollAllItemsWithoutOverlap() {
         // Given
-        LocalDate date = LocalDate.now().plusDays(5);
+        Pageable slice = PageRequest.of(0, 2);
+        List<Long> expectedIds = itemRepository.findDtoSliceByUser(testUser, PageRequest.of(0, 10))
+                .stream().map(ItemDto::getId).toList();
 
         // When
-        List<Item> items = itemRepository.findByUserAndExpiryDateBefore(testUser, date);
+        List<Long> scrolledIds = new ArrayList<>();
+        List<ItemDto> page = itemRepository.findDtoSliceByUser(testUser, slice);
+        while (!page.isEmpty()) {
+            page.forEach(dto -> scrolledIds.add(dto.getId()));
+            ItemDto last = page.get(page.size() - 1);
+            page = itemRepository.findDtoSliceByUserBefore(testUser, last.getCreatedAt(), last.getId(), slice);
+        }
 
         // Then
-        assertThat(items).hasSize(2);
-        assertThat(items).extracting(Item::getName)
-                .containsExactly("Carrots", "Chicken Breast"); // Ordered by expiry date ASC
+        assertThat(expectedIds).hasSize(4);
+        assertThat(scrolledIds).containsExactlyElementsOf(expectedIds);
     }
 
     @Test
-    void repository_ShouldOnlyReturnDataForCorrectUser() {
-        // Test that all queries properly filter by user
-        
+    void findDtosAfterExpiryCursor_ShouldScrollItemsWithoutExpiryLast() {
+        // Given
+        Item frozenBread = createItem("Bread", vegetableCategory, testUser, null, LocalDateTime.now());
+        persist(frozenBread);
+        Sort byExpiry = Sort.by(Sort.Order.asc("expiryDate").nullsLast(), Sort.Order.asc("id"));
+
         // When
-        List<Item> testUserItems = itemRepository.findByUserOrderByCreatedAtDesc(testUser);
-        List<Item> otherUserItems = itemRepository.findByUserOrderByCreatedAtDesc(otherUser);
+        List<String> scrolledNames = new ArrayList<>();
+        List<ItemDto> page = itemRepository.findDtos(ItemSpecifications.ownedBy(testUser), byExpiry, 2);
+        while (!page.isEmpty()) {
+            page.forEach(dto -> scrolledNames.add(dto.getName()));
+            ItemDto last = page.get(page.size() - 1);
+            page = itemRepository.findDtos(ItemSpecifications.ownedBy(testUser)
+                    .and(ItemSpecifications.expiringAfter(last.getExpiryDate(), last.getId())), byExpiry, 2);
+        }
 
         // Then
-        assertThat(testUserItems).hasSize(4);
-        assertThat(otherUserItems).hasSize(1);
-        assertThat(otherUserItems.get(0).getName()).isEqualTo("Other User Item");
-        
-        // Cross-check - no overlap
-        assertThat(testUserItems).noneMatch(item -> item.getUser().equals(otherUser));
-        assertThat(otherUserItems).noneMatch(item -> item.getUser().equals(testUser));
+        assertThat(scrolledNames)
+                .containsExactly("Carrots", "Chicken Breast", "Beef Steak", "Broccoli", "Bread");
     }
 }
\ No newline at end of file
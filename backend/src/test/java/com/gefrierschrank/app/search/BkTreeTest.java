@@ -0,0 +1,93 @@
+package com.gefrierschrank.app.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class BkTreeTest {
+
+    private BkTree tree;
+
+    @BeforeEach
+    void setUp() {
+        tree = new BkTree();
+        tree.put(1L, "Spinat (TK)");
+        tree.put(2L, "Lachsfilet");
+        tree.put(3L, "Hähnchenbrust");
+        tree.put(4L, "Spargel");
+    }
+
+    @Test
+    void levenshtein_ShouldCountInsertionsDeletionsAndSubstitutions() {
+        assertThat(BkTree.levenshtein("spinnat", "spinat")).isEqualTo(1);
+        assertThat(BkTree.levenshtein("kitten", "sitting")).isEqualTo(3);
+        assertThat(BkTree.levenshtein("", "abc")).isEqualTo(3);
+    }
+
+    @Test
+    void search_Misspelling_ShouldMatchNameWord() {
+        assertThat(tree.search("Spinnat", 1)).containsExactly(entry(1L, 1));
+    }
+
+    @Test
+    void search_SplitWord_ShouldMatchCompactName() {
+        assertThat(tree.search("Lachs filet", 1)).containsExactly(entry(2L, 0));
+    }
+
+    @Test
+    void search_JoinedWords_ShouldMatchNeighbouringWords() {
+        // Given
+        tree.put(5L, "Rinder Hack 500g");
+
+        // When & Then
+        assertThat(tree.search("rinderhak", 2)).containsExactly(entry(5L, 1));
+        assertThat(tree.search("500", 0)).isEmpty();
+    }
+
+    @Test
+    void search_GermanSpelling_ShouldBeFolded() {
+        assertThat(tree.search("haenchenbrust", 2)).containsExactly(entry(3L, 1));
+    }
+
+    @Test
+    void search_DistanceLimit_ShouldExcludeFartherWords() {
+        // "sparat" is 2 edits from "spinat" and 3 from "spargel"
+        assertThat(tree.search("sparat", 1)).isEmpty();
+        assertThat(tree.search("sparat", 2)).containsOnlyKeys(1L);
+        assertThat(tree.search("sparat", 3)).containsOnlyKeys(1L, 4L);
+    }
+
+    @Test
+    void putAndRemove_ShouldReplaceKeysOfItem() {
+        // When
+        tree.put(2L, "Forelle");
+        tree.remove(4L);
+
+        // Then
+        assertThat(tree.search("lachsfilet", 1)).isEmpty();
+        assertThat(tree.search("forele", 1)).containsExactly(entry(2L, 1));
+        assertThat(tree.search("spargel", 0)).isEmpty();
+    }
+
+    @Test
+    void remove_ManyItems_ShouldRebuildAndKeepRemainingItems() {
+        // Given
+        for (long id = 100; id < 300; id++) {
+            tree.put(id, "Vorrat " + id);
+        }
+
+        // When
+        for (long id = 100; id < 300; id++) {
+            tree.remove(id);
+        }
+
+        // Then
+        Map<Long, Integer> matches = tree.search("spinat", 0);
+        assertThat(matches).containsOnlyKeys(1L);
+        assertThat(tree.search("vorrat", 0)).isEmpty();
+    }
+}
@@ -0,0 +1,60 @@
+package com.gefrierschrank.app.search;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Typo tolerant lookups in one user's {@link BkTree}, with the edit budget the search endpoint
+ * picks for each term.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FuzzySearchBenchmark {
+
+    private static final String[] WORDS = {
+        "Hähnchenbrust", "Rinderhack", "Lachsfilet", "Erbsen", "Brokkoli", "Himbeeren", "Spinat",
+        "Kloßteig", "Schweinebauch", "Forelle", "Blaubeeren", "Bohnen", "Pizza", "Brötchen", "Eis"
+    };
+
+    @Param({"10000", "100000", "1000000"})
+    private int itemCount;
+
+    @Param({"Spinnat", "Lachs filet", "Hänchenbrust"})
+    private String term;
+
+    private BkTree tree;
+    private int maxEdits;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tree = new BkTree();
+        Random random = new Random(42);
+        for (long id = 1; id <= itemCount; id++) {
+            tree.put(id, WORDS[random.nextInt(WORDS.length)] + " " + random.nextInt(10_000));
+        }
+        maxEdits = ItemSearchIndex.maxEditsFor(term);
+    }
+
+    @Benchmark
+    public Map<Long, Integer> bkTree() {
+        return tree.search(term, maxEdits);
+    }
+}
@@ -0,0 +1,111 @@
+package com.gefrierschrank.app.search;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Substring search over one user's item names: the trigram index against the
+ * {@code LOWER(name) LIKE '%term%'} query it replaces, on an in-memory H2 table with the same
+ * (user_id, name) index as the items table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemSearchBenchmark {
+
+    private static final String[] WORDS = {
+        "Hähnchenbrust", "Rinderhack", "Lachsfilet", "Erbsen", "Brokkoli", "Himbeeren", "Spinat",
+        "Kloßteig", "Schweinebauch", "Forelle", "Blaubeeren", "Bohnen", "Pizza", "Brötchen", "Eis"
+    };
+
+    @Param({"10000", "100000", "1000000"})
+    private int itemCount;
+
+    // A frequent word and a term that matches a handful of items
+    @Param({"hähnchen", "lachsfilet 4711"})
+    private String term;
+
+    private Connection connection;
+    private PreparedStatement likeQuery;
+    private TrigramIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:search_benchmark;DB_CLOSE_DELAY=-1");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS items");
+            statement.execute("CREATE TABLE items (id BIGINT PRIMARY KEY, user_id BIGINT NOT NULL, name VARCHAR(100) NOT NULL)");
+            statement.execute("CREATE INDEX idx_item_user_name ON items (user_id, name)");
+        }
+
+        index = new TrigramIndex();
+        Random random = new Random(42);
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO items VALUES (?, 1, ?)")) {
+            for (long id = 1; id <= itemCount; id++) {
+                String name = WORDS[random.nextInt(WORDS.length)] + " " + random.nextInt(10_000);
+                insert.setLong(1, id);
+                insert.setString(2, name);
+                insert.addBatch();
+                if (id % 1_000 == 0) {
+                    insert.executeBatch();
+                }
+                index.put(id, name);
+            }
+            insert.executeBatch();
+        }
+
+        likeQuery = connection.prepareStatement(
+                "SELECT id FROM items WHERE user_id = 1 AND LOWER(name) LIKE LOWER(CONCAT('%', ?, '%'))");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public List<Long> likeQuery() throws SQLException {
+        likeQuery.setString(1, term);
+        List<Long> ids = new ArrayList<>();
+        try (ResultSet resultSet = likeQuery.executeQuery()) {
+            while (resultSet.next()) {
+                ids.add(resultSet.getLong(1));
+            }
+        }
+        return ids;
+    }
+
+    @Benchmark
+    public Set<Long> trigramIndex() {
+        return index.search(term);
+    }
+}
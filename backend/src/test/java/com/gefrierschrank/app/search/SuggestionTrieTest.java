@@ -0,0 +1,146 @@
+package com.gefrierschrank.app.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SuggestionTrieTest {
+
+    private SuggestionTrie trie;
+
+    @BeforeEach
+    void setUp() {
+        trie = new SuggestionTrie();
+        trie.add("Hähnchenbrust");
+        trie.add("Hähnchenbrust");
+        trie.add("Hähnchenschenkel");
+        trie.add("Hackfleisch");
+        trie.add("Hackfleisch");
+        trie.add("Hackfleisch");
+        trie.add("Himbeeren");
+    }
+
+    @Test
+    void suggest_ShouldRankByFrequency() {
+        assertThat(names(trie.suggest("h", 10)))
+                .containsExactly("Hackfleisch", "Hähnchenbrust", "Hähnchenschenkel", "Himbeeren");
+        assertThat(trie.suggest("ha", 1)).containsExactly(new SuggestionTrie.Suggestion("Hackfleisch", 3));
+    }
+
+    @Test
+    void suggest_PrefixEndingInsideEdge_ShouldMatch() {
+        // "haehnchen" is a shared edge; "haehn" stops in the middle of it
+        assertThat(names(trie.suggest("Hähn", 10))).containsExactly("Hähnchenbrust", "Hähnchenschenkel");
+        assertThat(names(trie.suggest("haehnchens", 10))).containsExactly("Hähnchenschenkel");
+    }
+
+    @Test
+    void suggest_UnknownPrefix_ShouldReturnNothing() {
+        assertThat(trie.suggest("hx", 10)).isEmpty();
+        assertThat(trie.suggest("haehnchenx", 10)).isEmpty();
+    }
+
+    @Test
+    void remove_ShouldUpdateCountsAndDropUnusedNames() {
+        // When
+        trie.remove("Hackfleisch");
+        trie.remove("Hackfleisch");
+        trie.remove("Himbeeren");
+
+        // Then
+        assertThat(trie.suggest("h", 10)).containsExactly(
+                new SuggestionTrie.Suggestion("Hähnchenbrust", 2),
+                new SuggestionTrie.Suggestion("Hackfleisch", 1),
+                new SuggestionTrie.Suggestion("Hähnchenschenkel", 1));
+    }
+
+    @Test
+    void remove_NameNeverAdded_ShouldNotChangeTrie() {
+        // Given
+        int nodes = trie.nodeCount();
+
+        // When - "haehnchen" is an inner node, the others end inside an edge or have no edge at all
+        trie.remove("Hähnchen");
+        trie.remove("Hähnchenkeule");
+        trie.remove("Hackfl");
+        trie.remove("Zucchini");
+
+        // Then
+        assertThat(trie.nodeCount()).isEqualTo(nodes);
+        assertThat(names(trie.suggest("h", 10)))
+                .containsExactly("Hackfleisch", "Hähnchenbrust", "Hähnchenschenkel", "Himbeeren");
+    }
+
+    @Test
+    void remove_LastOccurrence_ShouldUnlinkLeafAndMergeSingleChildIntoParentEdge() {
+        // Given - h -> {a -> {ckfleisch, ehnchen -> {brust, schenkel}}, imbeeren}
+        assertThat(trie.nodeCount()).isEqualTo(7);
+
+        // When - the schenkel leaf goes, and the unused ehnchen node is left with brust only
+        trie.remove("Hähnchenschenkel");
+
+        // Then
+        assertThat(trie.nodeCount()).isEqualTo(5);
+        assertThat(trie.suggest("Hähnchen", 10)).containsExactly(new SuggestionTrie.Suggestion("Hähnchenbrust", 2));
+        assertThat(trie.suggest("haehnchens", 10)).isEmpty();
+
+        // When - without Hackfleisch, a keeps a single child as well
+        trie.remove("Hackfleisch");
+        trie.remove("Hackfleisch");
+        trie.remove("Hackfleisch");
+
+        // Then - h -> {aehnchenbrust, imbeeren}
+        assertThat(trie.nodeCount()).isEqualTo(3);
+        assertThat(names(trie.suggest("haeh", 10))).containsExactly("Hähnchenbrust");
+        assertThat(names(trie.suggest("h", 10))).containsExactly("Hähnchenbrust", "Himbeeren");
+    }
+
+    @Test
+    void add_AfterPruning_ShouldSplitMergedEdgeAgain() {
+        // Given
+        trie.remove("Hähnchenschenkel");
+        trie.remove("Himbeeren");
+
+        // When
+        trie.add("Hähnchenschenkel");
+        trie.add("Himbeeren");
+
+        // Then
+        assertThat(trie.nodeCount()).isEqualTo(7);
+        assertThat(names(trie.suggest("h", 10)))
+                .containsExactly("Hackfleisch", "Hähnchenbrust", "Hähnchenschenkel", "Himbeeren");
+    }
+
+    @Test
+    void add_DifferentSpelling_ShouldCountAsSameNameWithLatestSpelling() {
+        // When
+        trie.add("haehnchenschenkel");
+
+        // Then
+        assertThat(trie.suggest("haehnchens", 10))
+                .containsExactly(new SuggestionTrie.Suggestion("haehnchenschenkel", 2));
+    }
+
+    @Test
+    void suggest_ManyNames_ShouldKeepOnlyTopKPerNode() {
+        // Given
+        for (int i = 0; i < 30; i++) {
+            trie.add("Eis " + i);
+        }
+        trie.add("Eis 7");
+
+        // When
+        List<SuggestionTrie.Suggestion> suggestions = trie.suggest("eis", 20);
+
+        // Then
+        assertThat(suggestions).hasSize(SuggestionTrie.TOP_K);
+        assertThat(suggestions.get(0)).isEqualTo(new SuggestionTrie.Suggestion("Eis 7", 2));
+    }
+
+    private static List<String> names(List<SuggestionTrie.Suggestion> suggestions) {
+        return suggestions.stream().map(SuggestionTrie.Suggestion::name).toList();
+    }
+}
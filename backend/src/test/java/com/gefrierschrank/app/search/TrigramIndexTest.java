@@ -0,0 +1,65 @@
+package com.gefrierschrank.app.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrigramIndexTest {
+
+    private TrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex();
+        index.put(1L, "Hähnchenbrust");
+        index.put(2L, "Rinderhack");
+        index.put(3L, "Kloßteig");
+        index.put(4L, "Suppenhuhn");
+    }
+
+    @Test
+    void normalize_ShouldFoldCaseUmlautsAndSharpS() {
+        assertThat(GermanTextNormalizer.normalize("Hähnchen")).isEqualTo("haehnchen");
+        assertThat(GermanTextNormalizer.normalize("KLÖßE")).isEqualTo("kloesse");
+        assertThat(GermanTextNormalizer.normalize(null)).isEmpty();
+    }
+
+    @Test
+    void search_SpellingVariants_ShouldFindSameItem() {
+        assertThat(index.search("hähnchen")).containsExactly(1L);
+        assertThat(index.search("HAEHNCHEN")).containsExactly(1L);
+        assertThat(index.search("klossteig")).containsExactly(3L);
+    }
+
+    @Test
+    void search_TrigramsInWrongOrder_ShouldNotMatch() {
+        // Given - every trigram of "ananananas" occurs in "ananas", but it is no substring
+        index.put(5L, "Ananas");
+
+        // When & Then
+        assertThat(index.search("ananananas")).isEmpty();
+        assertThat(index.search("nanas")).containsExactly(5L);
+    }
+
+    @Test
+    void search_ShortTerm_ShouldScanNames() {
+        assertThat(index.search("hu")).containsExactlyInAnyOrder(4L);
+        assertThat(index.search("")).hasSize(4);
+    }
+
+    @Test
+    void putAndRemove_ShouldKeepPostingsCurrent() {
+        // When
+        index.put(2L, "Lachsfilet");
+        index.remove(4L);
+
+        // Then
+        assertThat(index.search("rinder")).isEmpty();
+        assertThat(index.search("lachs")).isEqualTo(Set.of(2L));
+        assertThat(index.search("suppe")).isEmpty();
+        assertThat(index.size()).isEqualTo(3);
+    }
+}
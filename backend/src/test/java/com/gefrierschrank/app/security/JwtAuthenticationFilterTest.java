@@ -1,255 +1,293 @@
 package com.gefrierschrank.app.security;
 
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
 import jakarta.servlet.FilterChain;
-import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class JwtAuthenticationFilterTest {
 
-    private JwtUtils jwtUtils;
+    private static final String JWT_SECRET =
+            "myVerySecureSecretKeyThatIsLongEnoughForJWTHMACAlgorithmAndMeetsThe256BitRequirement";
+    private static final int JWT_EXPIRATION_SECONDS = 900;
 
     @Mock
     private UserDetailsServiceImpl userDetailsService;
 
     @Mock
-    private HttpServletRequest request;
-
-    @Mock
-    private HttpServletResponse response;
+    private TokenRevocationService tokenRevocationService;
 
     @Mock
     private FilterChain filterChain;
 
-    @Mock
-    private UserDetails userDetails;
-
+    private JwtUtils jwtUtils;
     private JwtAuthenticationFilter jwtAuthenticationFilter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private UserPrincipal userPrincipal;
 
     @BeforeEach
     void setUp() {
         SecurityContextHolder.clearContext();
-        
-        // Create a real JwtUtils instance for testing
-        jwtUtils = new JwtUtils();
-        
-        // Initialize filter with dependencies
+
+        jwtUtils = newJwtUtils(JWT_SECRET, JWT_EXPIRATION_SECONDS);
+
         jwtAuthenticationFilter = new JwtAuthenticationFilter();
-        // Set the jwtUtils and userDetailsService using reflection
-        setField(jwtAuthenticationFilter, "jwtUtils", jwtUtils);
-        setField(jwtAuthenticationFilter, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(jwtAuthenticationFilter, "jwtUtils", jwtUtils);
+        ReflectionTestUtils.setField(jwtAuthenticationFilter, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(jwtAuthenticationFilter, "tokenRevocationService", tokenRevocationService);
+
+        request = new MockHttpServletRequest();
+        response = new MockHttpServletResponse();
+
+        List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+        userPrincipal = new UserPrincipal(1L, "testuser", "test@example.com", "encoded", authorities);
     }
-    
-    private void setField(Object target, String fieldName, Object value) {
-        try {
-            var field = target.getClass().getDeclaredField(fieldName);
-            field.setAccessible(true);
-            field.set(target, value);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to set field " + fieldName, e);
-        }
+
+    @Test
+    void doFilterInternal_ValidToken_ShouldAuthenticateFromClaimsWithoutLoadingUser() throws Exception {
+        // Given
+        String token = jwtUtils.generateJwtTokenFor(userPrincipal);
+        request.addHeader("Authorization", "Bearer " + token);
+
+        // When
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        // Then
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+        assertThat(principal.getId()).isEqualTo(1L);
+        assertThat(principal.getUsername()).isEqualTo("testuser");
+        assertThat(authentication.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_USER");
+        // Kept so that logout can revoke exactly this token
+        assertThat(authentication.getCredentials()).isEqualTo(token);
+
+        verify(tokenRevocationService).isRevoked(jwtUtils.parseAndValidate(token).getId());
+        verify(filterChain).doFilter(request, response);
+        verifyNoInteractions(userDetailsService);
     }
 
     @Test
-    void doFilterInternal_ValidJwtToken_ShouldSetAuthentication() throws Exception {
+    void doFilterInternal_LegacyTokenWithoutClaims_ShouldFallBackToLoadingUser() throws Exception {
         // Given
-        String token = "valid.jwt.token";
-        String username = "testuser";
-        
-        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
-        when(jwtUtils.validateJwtToken(token)).thenReturn(true);
-        when(jwtUtils.getUserNameFromJwtToken(token)).thenReturn(username);
-        when(userDetailsService.loadUserByUsername(username)).thenReturn(userDetails);
-        when(userDetails.getUsername()).thenReturn(username);
+        String token = legacyToken("testuser");
+        request.addHeader("Authorization", "Bearer " + token);
+        when(userDetailsService.loadUserByUsername("testuser")).thenReturn(userPrincipal);
 
         // When
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
         // Then
-        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
-        assertThat(SecurityContextHolder.getContext().getAuthentication().getPrincipal()).isEqualTo(userDetails);
-        
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication.getPrincipal()).isSameAs(userPrincipal);
+        assertThat(authentication.getCredentials()).isEqualTo(token);
+
+        verify(tokenRevocationService).isRevoked(jwtUtils.parseAndValidate(token).getId());
+        verify(userDetailsService).loadUserByUsername("testuser");
         verify(filterChain).doFilter(request, response);
-        verify(jwtUtils).validateJwtToken(token);
-        verify(jwtUtils).getUserNameFromJwtToken(token);
-        verify(userDetailsService).loadUserByUsername(username);
     }
 
     @Test
-    void doFilterInternal_InvalidJwtToken_ShouldNotSetAuthentication() throws Exception {
+    void doFilterInternal_LegacyTokenOfDeletedUser_ShouldNotSetAuthentication() throws Exception {
         // Given
-        String token = "invalid.jwt.token";
-        
-        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
-        when(jwtUtils.validateJwtToken(token)).thenReturn(false);
+        request.addHeader("Authorization", "Bearer " + legacyToken("testuser"));
+        when(userDetailsService.loadUserByUsername("testuser"))
+                .thenThrow(new UsernameNotFoundException("User Not Found with username: testuser"));
 
         // When
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
         // Then
         assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
-        
         verify(filterChain).doFilter(request, response);
-        verify(jwtUtils).validateJwtToken(token);
-        verify(jwtUtils, never()).getUserNameFromJwtToken(anyString());
-        verify(userDetailsService, never()).loadUserByUsername(anyString());
     }
 
     @Test
-    void doFilterInternal_NoAuthorizationHeader_ShouldNotSetAuthentication() throws Exception {
+    void doFilterInternal_RevokedToken_ShouldNotSetAuthentication() throws Exception {
         // Given
-        when(request.getHeader("Authorization")).thenReturn(null);
+        String token = jwtUtils.generateJwtTokenFor(userPrincipal);
+        request.addHeader("Authorization", "Bearer " + token);
+        when(tokenRevocationService.isRevoked(jwtUtils.parseAndValidate(token).getId())).thenReturn(true);
 
         // When
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
         // Then
         assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
-        
         verify(filterChain).doFilter(request, response);
-        verify(jwtUtils, never()).validateJwtToken(anyString());
-        verify(jwtUtils, never()).getUserNameFromJwtToken(anyString());
-        verify(userDetailsService, never()).loadUserByUsername(anyString());
+        verifyNoInteractions(userDetailsService);
     }
 
     @Test
-    void doFilterInternal_AuthorizationHeaderWithoutBearer_ShouldNotSetAuthentication() throws Exception {
+    void doFilterInternal_MalformedToken_ShouldNotSetAuthentication() throws Exception {
         // Given
-        when(request.getHeader("Authorization")).thenReturn("Basic dGVzdDp0ZXN0");
+        request.addHeader("Authorization", "Bearer invalid.jwt.token");
 
         // When
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
         // Then
         assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
-        
         verify(filterChain).doFilter(request, response);
-        verify(jwtUtils, never()).validateJwtToken(anyString());
-        verify(jwtUtils, never()).getUserNameFromJwtToken(anyString());
-        verify(userDetailsService, never()).loadUserByUsername(anyString());
+        verifyNoInteractions(tokenRevocationService, userDetailsService);
     }
 
     @Test
-    void doFilterInternal_EmptyBearerToken_ShouldNotSetAuthentication() throws Exception {
+    void doFilterInternal_TokenSignedWithOtherKey_ShouldNotSetAuthentication() throws Exception {
         // Given
-        when(request.getHeader("Authorization")).thenReturn("Bearer ");
+        JwtUtils otherIssuer = newJwtUtils(JWT_SECRET.replace('m', 'n'), JWT_EXPIRATION_SECONDS);
+        request.addHeader("Authorization", "Bearer " + otherIssuer.generateJwtTokenFor(userPrincipal));
 
         // When
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
         // Then
         assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
-        
         verify(filterChain).doFilter(request, response);
-        verify(jwtUtils, never()).validateJwtToken(anyString());
-        verify(jwtUtils, never()).getUserNameFromJwtToken(anyString());
-        verify(userDetailsService, never()).loadUserByUsername(anyString());
+        verifyNoInteractions(tokenRevocationService, userDetailsService);
     }
 
     @Test
-    void doFilterInternal_ExceptionDuringTokenProcessing_ShouldContinueFilterChain() throws Exception {
+    void doFilterInternal_ExpiredToken_ShouldNotSetAuthentication() throws Exception {
         // Given
-        String token = "problematic.jwt.token";
-        
-        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
-        when(jwtUtils.validateJwtToken(token)).thenThrow(new RuntimeException("JWT processing error"));
+        JwtUtils expiredIssuer = newJwtUtils(JWT_SECRET, -60);
+        request.addHeader("Authorization", "Bearer " + expiredIssuer.generateJwtTokenFor(userPrincipal));
+
+        // When
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        // Then
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verify(filterChain).doFilter(request, response);
+        verifyNoInteractions(tokenRevocationService, userDetailsService);
+    }
 
+    @Test
+    void doFilterInternal_NoAuthorizationHeader_ShouldNotSetAuthentication() throws Exception {
         // When
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
         // Then
         assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
-        
         verify(filterChain).doFilter(request, response);
-        verify(jwtUtils).validateJwtToken(token);
-        verify(jwtUtils, never()).getUserNameFromJwtToken(anyString());
-        verify(userDetailsService, never()).loadUserByUsername(anyString());
+        verifyNoInteractions(tokenRevocationService, userDetailsService);
     }
 
     @Test
-    void doFilterInternal_UserDetailsServiceThrowsException_ShouldNotSetAuthentication() throws Exception {
+    void doFilterInternal_AuthorizationHeaderWithoutBearer_ShouldNotSetAuthentication() throws Exception {
         // Given
-        String token = "valid.jwt.token";
-        String username = "testuser";
-        
-        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
-        when(jwtUtils.validateJwtToken(token)).thenReturn(true);
-        when(jwtUtils.getUserNameFromJwtToken(token)).thenReturn(username);
-        when(userDetailsService.loadUserByUsername(username)).thenThrow(new RuntimeException("User not found"));
+        request.addHeader("Authorization", "Basic dGVzdDp0ZXN0");
 
         // When
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
         // Then
         assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
-        
         verify(filterChain).doFilter(request, response);
-        verify(jwtUtils).validateJwtToken(token);
-        verify(jwtUtils).getUserNameFromJwtToken(token);
-        verify(userDetailsService).loadUserByUsername(username);
+        verifyNoInteractions(tokenRevocationService, userDetailsService);
     }
 
     @Test
-    void doFilterInternal_AlreadyAuthenticated_ShouldNotReAuthenticate() throws Exception {
+    void doFilterInternal_EmptyBearerToken_ShouldNotSetAuthentication() throws Exception {
         // Given
-        String token = "valid.jwt.token";
-        String username = "testuser";
-        
-        // Set existing authentication
-        SecurityContextHolder.getContext().setAuthentication(
-            mock(org.springframework.security.core.Authentication.class)
-        );
-        
-        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
-        when(jwtUtils.validateJwtToken(token)).thenReturn(true);
-        when(jwtUtils.getUserNameFromJwtToken(token)).thenReturn(username);
+        request.addHeader("Authorization", "Bearer ");
 
         // When
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
         // Then
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
         verify(filterChain).doFilter(request, response);
-        verify(jwtUtils).validateJwtToken(token);
-        verify(jwtUtils).getUserNameFromJwtToken(token);
-        // Should not load user details if already authenticated
-        verify(userDetailsService, never()).loadUserByUsername(anyString());
+        verifyNoInteractions(tokenRevocationService, userDetailsService);
     }
 
     @Test
     void doFilterInternal_BearerTokenWithSpaces_ShouldExtractCorrectly() throws Exception {
         // Given
-        String token = "valid.jwt.token";
-        String username = "testuser";
-        
-        when(request.getHeader("Authorization")).thenReturn("Bearer   " + token + "   ");
-        when(jwtUtils.validateJwtToken(token)).thenReturn(true);
-        when(jwtUtils.getUserNameFromJwtToken(token)).thenReturn(username);
-        when(userDetailsService.loadUserByUsername(username)).thenReturn(userDetails);
-        when(userDetails.getUsername()).thenReturn(username);
+        String token = jwtUtils.generateJwtTokenFor(userPrincipal);
+        request.addHeader("Authorization", "Bearer   " + token + "   ");
+
+        // When
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        // Then
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(((UserPrincipal) authentication.getPrincipal()).getUsername()).isEqualTo("testuser");
+        assertThat(authentication.getCredentials()).isEqualTo(token);
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    void doFilterInternal_RevocationCheckFails_ShouldContinueFilterChain() throws Exception {
+        // Given
+        request.addHeader("Authorization", "Bearer " + jwtUtils.generateJwtTokenFor(userPrincipal));
+        when(tokenRevocationService.isRevoked(anyString())).thenThrow(new IllegalStateException("Store unavailable"));
 
         // When
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
         // Then
-        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
-        
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verify(filterChain).doFilter(request, response);
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void doFilterInternal_AlreadyAuthenticated_ShouldNotLoadUser() throws Exception {
+        // Given
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(userPrincipal, null, userPrincipal.getAuthorities()));
+        request.addHeader("Authorization", "Bearer " + jwtUtils.generateJwtTokenFor(userPrincipal));
+
+        // When
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        // Then
+        assertThat(((UserPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal()).getId())
+                .isEqualTo(1L);
         verify(filterChain).doFilter(request, response);
-        verify(jwtUtils).validateJwtToken(token);
-        verify(jwtUtils).getUserNameFromJwtToken(token);
-        verify(userDetailsService).loadUserByUsername(username);
+        verifyNoInteractions(userDetailsService);
+    }
+
+    private static JwtUtils newJwtUtils(String secret, int expirationSeconds) {
+        JwtUtils utils = new JwtUtils();
+        ReflectionTestUtils.setField(utils, "jwtSecret", secret);
+        ReflectionTestUtils.setField(utils, "jwtExpirationMs", expirationSeconds);
+        return utils;
+    }
+
+    // Shape of the tokens issued before the user id and roles claims were added
+    private static String legacyToken(String username) {
+        return Jwts.builder()
+                .id(UUID.randomUUID().toString())
+                .subject(username)
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + JWT_EXPIRATION_SECONDS * 1000L))
+                .signWith(Keys.hmacShaKeyFor(JWT_SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,108 @@
+package com.gefrierschrank.app.security;
+
+import com.gefrierschrank.app.constants.AppConstants;
+import com.gefrierschrank.app.repository.RevokedTokenRepository;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Authentication of one request by {@link JwtAuthenticationFilter}: a token seen before (served
+ * from the verified token cache), a stream of tokens that always miss the cache, and the previous
+ * validation that rebuilt the key and parser and verified the signature twice.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    private static final String SECRET =
+            "myVerySecureSecretKeyThatIsLongEnoughForJWTHMACAlgorithmAndMeetsThe256BitRequirement";
+
+    // Cycling through more tokens than the cache holds makes every lookup a miss
+    private static final int UNCACHED_TOKEN_COUNT = 2 * AppConstants.JWT_VERIFIED_TOKEN_CACHE_SIZE;
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private JwtUtils jwtUtils;
+    private JwtAuthenticationFilter filter;
+    private String hotToken;
+    private String[] coldTokens;
+    private int nextColdToken;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 86400);
+        filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtils", jwtUtils);
+        // Nothing revoked: every lookup is answered by the Bloom filter alone
+        TokenRevocationService revocations = new TokenRevocationService(mock(RevokedTokenRepository.class), jwtUtils);
+        revocations.rebuildFilter();
+        ReflectionTestUtils.setField(filter, "tokenRevocationService", revocations);
+
+        List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority(AppConstants.ROLE_USER));
+        coldTokens = new String[UNCACHED_TOKEN_COUNT];
+        for (int i = 0; i < coldTokens.length; i++) {
+            UserPrincipal principal = new UserPrincipal((long) i, "user" + i, null, null, authorities);
+            coldTokens[i] = jwtUtils.generateJwtToken(
+                    new UsernamePasswordAuthenticationToken(principal, null, authorities));
+        }
+        hotToken = coldTokens[0];
+    }
+
+    @Benchmark
+    public Authentication filterCachedToken() throws Exception {
+        return authenticate(hotToken);
+    }
+
+    @Benchmark
+    public Authentication filterUncachedToken() throws Exception {
+        String token = coldTokens[nextColdToken];
+        nextColdToken = (nextColdToken + 1) % coldTokens.length;
+        return authenticate(token);
+    }
+
+    @Benchmark
+    public String previousValidation() {
+        // What the filter did before: validateJwtToken and getUserNameFromJwtToken, each with a new key and parser
+        Jwts.parser().verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes())).build().parseSignedClaims(hotToken);
+        return Jwts.parser().verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes())).build()
+                .parseSignedClaims(hotToken).getPayload().getSubject();
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilterInternal(request, new MockHttpServletResponse(), NO_OP_CHAIN);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
@@ -1,5 +1,6 @@
 package com.gefrierschrank.app.security;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
@@ -226,6 +227,102 @@ class JwtUtilsTest {
         assertThat(jwtUtils.validateJwtToken(token)).isTrue();
     }
 
+    @Test
+    void getUserPrincipal_ShouldRestoreIdAndRolesFromClaims() {
+        // Given
+        List<SimpleGrantedAuthority> authorities = Arrays.asList(
+            new SimpleGrantedAuthority("ROLE_ADMIN")
+        );
+        UserPrincipal userPrincipal = new UserPrincipal(7L, "admin", "admin@example.com",
+                "encodedpassword", authorities);
+        String token = jwtUtils.generateJwtToken(
+                new UsernamePasswordAuthenticationToken(userPrincipal, null, authorities));
+
+        // When
+        UserPrincipal principal = jwtUtils.getUserPrincipal(jwtUtils.parseAndValidate(token));
+
+        // Then
+        assertThat(principal.getId()).isEqualTo(7L);
+        assertThat(principal.getUsername()).isEqualTo("admin");
+        assertThat(principal.getAuthorities()).extracting("authority").containsExactly("ROLE_ADMIN");
+        assertThat(principal.getPassword()).isNull();
+    }
+
+    @Test
+    void getUserPrincipal_TokenWithoutClaims_ShouldReturnNull() {
+        // Given - token in the format issued before user id and roles were added
+        String legacyToken = Jwts.builder()
+                .subject("testuser")
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
+                .signWith(Keys.hmacShaKeyFor(jwtSecret.getBytes()))
+                .compact();
+
+        // When
+        UserPrincipal principal = jwtUtils.getUserPrincipal(jwtUtils.parseAndValidate(legacyToken));
+
+        // Then
+        assertThat(principal).isNull();
+        assertThat(jwtUtils.getUserNameFromJwtToken(legacyToken)).isEqualTo("testuser");
+    }
+
+    @Test
+    void parseAndValidate_SameTokenTwice_ShouldReuseVerifiedClaims() {
+        // Given
+        List<SimpleGrantedAuthority> authorities = Arrays.asList(
+            new SimpleGrantedAuthority("ROLE_USER")
+        );
+        UserPrincipal userPrincipal = new UserPrincipal(1L, "testuser", "test@example.com",
+                "encodedpassword", authorities);
+        String token = jwtUtils.generateJwtToken(
+                new UsernamePasswordAuthenticationToken(userPrincipal, null, authorities));
+
+        // When
+        Claims first = jwtUtils.parseAndValidate(token);
+        Claims second = jwtUtils.parseAndValidate(token);
+
+        // Then
+        assertThat(first.getSubject()).isEqualTo("testuser");
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    void parseAndValidate_TamperedPayload_ShouldThrowException() {
+        // Given - a verified token whose payload is swapped for another user's
+        List<SimpleGrantedAuthority> authorities = Arrays.asList(
+            new SimpleGrantedAuthority("ROLE_USER")
+        );
+        String token = jwtUtils.generateJwtToken(new UsernamePasswordAuthenticationToken(
+                new UserPrincipal(1L, "testuser", null, null, authorities), null, authorities));
+        String otherToken = jwtUtils.generateJwtToken(new UsernamePasswordAuthenticationToken(
+                new UserPrincipal(2L, "admin", null, null, authorities), null, authorities));
+        jwtUtils.parseAndValidate(token);
+        String[] parts = token.split("\\.");
+        String tampered = parts[0] + "." + otherToken.split("\\.")[1] + "." + parts[2];
+
+        // When & Then
+        assertThatThrownBy(() -> jwtUtils.parseAndValidate(tampered))
+                .isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void generateRefreshToken_ShouldReturnDistinctUrlSafeTokens() {
+        // When
+        String first = jwtUtils.generateRefreshToken();
+        String second = jwtUtils.generateRefreshToken();
+
+        // Then
+        assertThat(first).hasSize(43).matches("[A-Za-z0-9_-]+");
+        assertThat(second).isNotEqualTo(first);
+    }
+
+    @Test
+    void hashToken_ShouldBeStableAndDifferPerToken() {
+        assertThat(JwtUtils.hashToken("a.b.c")).isEqualTo(JwtUtils.hashToken("a.b.c"))
+                .hasSize(64)
+                .isNotEqualTo(JwtUtils.hashToken("a.b.d"));
+    }
+
     @Test
     void validateJwtToken_TokenWithDifferentSecret_ShouldReturnFalse() {
         // Given - Create token with different secret
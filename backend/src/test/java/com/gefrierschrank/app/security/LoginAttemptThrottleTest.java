@@ -0,0 +1,106 @@
+package com.gefrierschrank.app.security;
+
+import com.gefrierschrank.app.constants.AppConstants;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoginAttemptThrottleTest {
+
+    private static final Instant NOW = Instant.parse("2024-06-01T12:00:00Z");
+
+    @Test
+    void isUsernameBlocked_AfterMaxFailures_ShouldBlockIgnoringCase() {
+        // Given
+        LoginAttemptThrottle throttle = new LoginAttemptThrottle(Clock.fixed(NOW, ZoneOffset.UTC));
+        for (int i = 0; i < AppConstants.LOGIN_MAX_FAILURES_PER_USERNAME - 1; i++) {
+            throttle.recordFailure("testuser", "10.0.0." + i);
+        }
+        assertThat(throttle.isUsernameBlocked("testuser")).isFalse();
+
+        // When
+        throttle.recordFailure("TestUser", "10.0.0.99");
+
+        // Then
+        assertThat(throttle.isUsernameBlocked("testuser")).isTrue();
+        assertThat(throttle.isUsernameBlocked("otheruser")).isFalse();
+        assertThat(throttle.isAddressBlocked("10.0.0.99")).isFalse();
+    }
+
+    @Test
+    void isAddressBlocked_AfterMaxFailuresAcrossUsernames_ShouldBlock() {
+        // Given
+        LoginAttemptThrottle throttle = new LoginAttemptThrottle(Clock.fixed(NOW, ZoneOffset.UTC));
+
+        // When
+        for (int i = 0; i < AppConstants.LOGIN_MAX_FAILURES_PER_IP; i++) {
+            throttle.recordFailure("user" + i, "10.0.0.1");
+        }
+
+        // Then
+        assertThat(throttle.isAddressBlocked("10.0.0.1")).isTrue();
+        assertThat(throttle.isUsernameBlocked("user1")).isFalse();
+    }
+
+    @Test
+    void recordSuccess_ShouldClearUsernameButNotAddress() {
+        // Given
+        LoginAttemptThrottle throttle = new LoginAttemptThrottle(Clock.fixed(NOW, ZoneOffset.UTC));
+        for (int i = 0; i < AppConstants.LOGIN_MAX_FAILURES_PER_IP; i++) {
+            throttle.recordFailure("testuser", "10.0.0.1");
+        }
+
+        // When
+        throttle.recordSuccess("testuser");
+
+        // Then
+        assertThat(throttle.isUsernameBlocked("testuser")).isFalse();
+        assertThat(throttle.isAddressBlocked("10.0.0.1")).isTrue();
+    }
+
+    @Test
+    void isUsernameBlocked_AfterWindowPassed_ShouldAllowAgain() {
+        // Given
+        MutableClock clock = new MutableClock(NOW);
+        LoginAttemptThrottle throttle = new LoginAttemptThrottle(clock);
+        for (int i = 0; i < AppConstants.LOGIN_MAX_FAILURES_PER_USERNAME; i++) {
+            throttle.recordFailure("testuser", "10.0.0.1");
+        }
+
+        // When
+        clock.now = NOW.plus(Duration.ofSeconds(AppConstants.LOGIN_FAILURE_WINDOW_SECONDS));
+        throttle.evictIdle();
+
+        // Then
+        assertThat(throttle.isUsernameBlocked("testuser")).isFalse();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.gefrierschrank.app.security;
+
+import com.gefrierschrank.app.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoginServiceTest {
+
+    @Mock
+    private AuthenticationManager authenticationManager;
+
+    @Mock
+    private LoginAttemptThrottle loginAttemptThrottle;
+
+    private SimpleMeterRegistry meterRegistry;
+    private LoginService loginService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        loginService = new LoginService(authenticationManager, loginAttemptThrottle, meterRegistry, 1, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        loginService.shutdown();
+    }
+
+    @Test
+    void authenticate_ValidCredentials_ShouldReturnAuthenticationAndClearFailures() {
+        // Given
+        Authentication authentication = new UsernamePasswordAuthenticationToken("testuser", null, List.of());
+        when(authenticationManager.authenticate(any())).thenReturn(authentication);
+
+        // When
+        Authentication result = loginService.authenticate("testuser", "password", "10.0.0.1");
+
+        // Then
+        assertThat(result).isSameAs(authentication);
+        verify(loginAttemptThrottle).recordSuccess("testuser");
+    }
+
+    @Test
+    void authenticate_BadCredentials_ShouldRecordFailureAndRethrow() {
+        // Given
+        when(authenticationManager.authenticate(any())).thenThrow(new BadCredentialsException("Bad credentials"));
+
+        // When & Then
+        assertThatThrownBy(() -> loginService.authenticate("testuser", "wrong", "10.0.0.1"))
+                .isInstanceOf(BadCredentialsException.class);
+        verify(loginAttemptThrottle).recordFailure("testuser", "10.0.0.1");
+    }
+
+    @Test
+    void authenticate_ThrottledUsername_ShouldRejectWithoutCheckingPassword() {
+        // Given
+        when(loginAttemptThrottle.isUsernameBlocked("testuser")).thenReturn(true);
+        when(loginAttemptThrottle.retryAfterSeconds()).thenReturn(60L);
+
+        // When & Then
+        assertThatThrownBy(() -> loginService.authenticate("testuser", "password", "10.0.0.1"))
+                .isInstanceOf(TooManyRequestsException.class)
+                .extracting("retryAfterSeconds").isEqualTo(60L);
+        verify(authenticationManager, never()).authenticate(any());
+        assertThat(meterRegistry.counter("auth.login.rejected", "reason", "username_throttled").count()).isEqualTo(1);
+    }
+
+    @Test
+    void authenticate_QueueFull_ShouldRejectWithTooManyRequests() throws Exception {
+        // Given - one thread busy and one attempt queued
+        CountDownLatch checking = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(authenticationManager.authenticate(any())).thenAnswer(invocation -> {
+            checking.countDown();
+            release.await();
+            return new UsernamePasswordAuthenticationToken("testuser", null, List.of());
+        });
+        CompletableFuture<Authentication> running =
+                CompletableFuture.supplyAsync(() -> loginService.authenticate("testuser", "password", "10.0.0.1"));
+        assertThat(checking.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Authentication> queued =
+                CompletableFuture.supplyAsync(() -> loginService.authenticate("testuser", "password", "10.0.0.2"));
+        while (meterRegistry.get("auth.login.queue.size").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        // When & Then
+        assertThatThrownBy(() -> loginService.authenticate("testuser", "password", "10.0.0.3"))
+                .isInstanceOf(TooManyRequestsException.class);
+        assertThat(meterRegistry.counter("auth.login.rejected", "reason", "queue_full").count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isNotNull();
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isNotNull();
+    }
+}
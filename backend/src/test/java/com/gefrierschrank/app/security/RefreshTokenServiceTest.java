@@ -0,0 +1,137 @@
+package com.gefrierschrank.app.security;
+
+import com.gefrierschrank.app.entity.RefreshToken;
+import com.gefrierschrank.app.entity.User;
+import com.gefrierschrank.app.exception.InvalidRefreshTokenException;
+import com.gefrierschrank.app.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import({RefreshTokenService.class, JwtUtils.class, UserDetailsServiceImpl.class, UserPrincipalCache.class,
+        SimpleMeterRegistry.class})
+class RefreshTokenServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    private User user;
+    private UserPrincipal principal;
+
+    @BeforeEach
+    void setUp() {
+        user = new User("testuser", "test@example.com", "encodedpassword");
+        user.setRole(User.Role.USER);
+        entityManager.persistAndFlush(user);
+        principal = UserPrincipal.create(user);
+    }
+
+    @Test
+    void issue_ShouldStoreOnlyTheHash() {
+        // When
+        String refreshToken = refreshTokenService.issue(principal);
+
+        // Then
+        RefreshToken stored = refreshTokenRepository.findAll().get(0);
+        assertThat(stored.getTokenHash()).isEqualTo(JwtUtils.hashToken(refreshToken)).isNotEqualTo(refreshToken);
+        assertThat(stored.getUser().getId()).isEqualTo(user.getId());
+        assertThat(stored.getExpiresAt()).isAfter(LocalDateTime.now().plusDays(29));
+    }
+
+    @Test
+    void rotate_ValidToken_ShouldReturnNewAccessAndRefreshToken() {
+        // Given
+        String refreshToken = refreshTokenService.issue(principal);
+
+        // When
+        RefreshTokenService.RefreshedTokens tokens = refreshTokenService.rotate(refreshToken);
+
+        // Then
+        assertThat(tokens.refreshToken()).isNotEqualTo(refreshToken);
+        assertThat(tokens.principal().getId()).isEqualTo(user.getId());
+        assertThat(jwtUtils.parseAndValidate(tokens.accessToken()).getSubject()).isEqualTo("testuser");
+        assertThat(refreshTokenService.rotate(tokens.refreshToken()).refreshToken()).isNotNull();
+    }
+
+    @Test
+    void rotate_UsedToken_ShouldRevokeWholeFamily() {
+        // Given
+        String refreshToken = refreshTokenService.issue(principal);
+        String rotated = refreshTokenService.rotate(refreshToken).refreshToken();
+
+        // When & Then
+        assertThatThrownBy(() -> refreshTokenService.rotate(refreshToken))
+                .isInstanceOf(InvalidRefreshTokenException.class)
+                .hasMessage("Refresh token was already used");
+        assertThatThrownBy(() -> refreshTokenService.rotate(rotated))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+        assertThat(refreshTokenRepository.count()).isZero();
+    }
+
+    @Test
+    void rotate_ExpiredToken_ShouldThrowBadCredentials() {
+        // Given
+        String refreshToken = jwtUtils.generateRefreshToken();
+        entityManager.persistAndFlush(new RefreshToken(JwtUtils.hashToken(refreshToken), "family", user,
+                LocalDateTime.now().minusMinutes(1)));
+
+        // When & Then
+        assertThatThrownBy(() -> refreshTokenService.rotate(refreshToken))
+                .isInstanceOf(InvalidRefreshTokenException.class)
+                .hasMessage("Refresh token is invalid or expired");
+    }
+
+    @Test
+    void rotate_UnknownToken_ShouldThrowBadCredentials() {
+        assertThatThrownBy(() -> refreshTokenService.rotate("unknown"))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+    }
+
+    @Test
+    void revoke_OwnToken_ShouldDeleteFamily() {
+        // Given
+        String refreshToken = refreshTokenService.issue(principal);
+
+        // When
+        refreshTokenService.revoke(refreshToken, principal);
+
+        // Then
+        assertThatThrownBy(() -> refreshTokenService.rotate(refreshToken))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+    }
+
+    @Test
+    void sweepExpired_ShouldKeepLiveTokens() {
+        // Given
+        refreshTokenService.issue(principal);
+        entityManager.persistAndFlush(new RefreshToken(JwtUtils.hashToken("old"), "family", user,
+                LocalDateTime.now().minusDays(1)));
+
+        // When
+        refreshTokenService.sweepExpired();
+
+        // Then
+        assertThat(refreshTokenRepository.findAll()).extracting(RefreshToken::getTokenHash)
+                .doesNotContain(JwtUtils.hashToken("old"))
+                .hasSize(1);
+    }
+}
@@ -0,0 +1,63 @@
+package com.gefrierschrank.app.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlidingWindowCounterTest {
+
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    void sum_ShouldCountEventsInsideTheWindowOnly() {
+        // Given - 3 buckets of one second
+        SlidingWindowCounter counter = new SlidingWindowCounter(3, 1_000);
+        counter.increment(START);
+        counter.increment(START + 1_000);
+        counter.increment(START + 1_500);
+
+        // When & Then
+        assertThat(counter.sum(START + 2_000)).isEqualTo(3);
+        assertThat(counter.sum(START + 3_000)).isEqualTo(2);
+        assertThat(counter.sum(START + 4_000)).isZero();
+    }
+
+    @Test
+    void increment_ReusedBucket_ShouldStartFromZero() {
+        // Given
+        SlidingWindowCounter counter = new SlidingWindowCounter(3, 1_000);
+        counter.increment(START);
+        counter.increment(START);
+
+        // When - same bucket index, one turn of the ring later
+        counter.increment(START + 3_000);
+
+        // Then
+        assertThat(counter.sum(START + 3_000)).isEqualTo(1);
+    }
+
+    @Test
+    void increment_Concurrently_ShouldNotLoseEvents() throws Exception {
+        // Given
+        SlidingWindowCounter counter = new SlidingWindowCounter(15, 60_000);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // When
+        for (int i = 0; i < 8; i++) {
+            executor.execute(() -> {
+                for (int j = 0; j < 10_000; j++) {
+                    counter.increment(START);
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        // Then
+        assertThat(counter.sum(START)).isEqualTo(80_000);
+    }
+}
@@ -0,0 +1,132 @@
+package com.gefrierschrank.app.security;
+
+import com.gefrierschrank.app.entity.RevokedToken;
+import com.gefrierschrank.app.repository.RevokedTokenRepository;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Revocations commit in their own transaction, like they do when called from the controller
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({TokenRevocationService.class, JwtUtils.class})
+class TokenRevocationServiceTest {
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    private UserPrincipal user;
+    private UserPrincipal admin;
+
+    @BeforeEach
+    void setUp() {
+        revokedTokenRepository.deleteAll();
+        tokenRevocationService.rebuildFilter();
+        user = new UserPrincipal(1L, "testuser", null, null, List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        admin = new UserPrincipal(2L, "admin", null, null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+    }
+
+    @Test
+    void revoke_OwnToken_ShouldMarkOnlyThatTokenRevoked() {
+        // Given
+        String token = tokenFor(user);
+        String otherToken = tokenFor(user);
+
+        // When
+        tokenRevocationService.revoke(token, user);
+
+        // Then
+        assertThat(tokenRevocationService.isRevoked(idOf(token))).isTrue();
+        assertThat(tokenRevocationService.isRevoked(idOf(otherToken))).isFalse();
+        RevokedToken saved = revokedTokenRepository.findById(idOf(token)).orElseThrow();
+        assertThat(saved.getUserId()).isEqualTo(1L);
+        assertThat(saved.getExpiresAt()).isAfter(LocalDateTime.now());
+    }
+
+    @Test
+    void revoke_TokenOfAnotherUser_ShouldThrowSecurityException() {
+        // Given
+        String adminToken = tokenFor(admin);
+
+        // When & Then
+        assertThatThrownBy(() -> tokenRevocationService.revoke(adminToken, user))
+                .isInstanceOf(SecurityException.class);
+        assertThat(tokenRevocationService.isRevoked(idOf(adminToken))).isFalse();
+    }
+
+    @Test
+    void revoke_AsAdmin_ShouldRevokeTokenOfAnyUser() {
+        // Given
+        String token = tokenFor(user);
+
+        // When
+        tokenRevocationService.revoke(token, admin);
+
+        // Then
+        assertThat(tokenRevocationService.isRevoked(idOf(token))).isTrue();
+    }
+
+    @Test
+    void revoke_InvalidToken_ShouldThrowIllegalArgumentException() {
+        assertThatThrownBy(() -> tokenRevocationService.revoke("not.a.token", user))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rebuildFilter_ShouldLoadRevocationsSavedBefore() {
+        // Given - revoked by another run of the application
+        String token = tokenFor(user);
+        revokedTokenRepository.save(new RevokedToken(idOf(token), 1L, LocalDateTime.now().plusHours(1)));
+        assertThat(tokenRevocationService.isRevoked(idOf(token))).isFalse();
+
+        // When
+        tokenRevocationService.rebuildFilter();
+
+        // Then
+        assertThat(tokenRevocationService.isRevoked(idOf(token))).isTrue();
+    }
+
+    @Test
+    void sweepExpired_ShouldDeleteOnlyExpiredRevocations() {
+        // Given
+        revokedTokenRepository.save(new RevokedToken("expired", 1L, LocalDateTime.now().minusMinutes(1)));
+        revokedTokenRepository.save(new RevokedToken("live", 1L, LocalDateTime.now().plusHours(1)));
+
+        // When
+        tokenRevocationService.sweepExpired();
+
+        // Then
+        assertThat(revokedTokenRepository.findAll()).extracting(RevokedToken::getTokenId).containsExactly("live");
+        assertThat(tokenRevocationService.isRevoked("live")).isTrue();
+        assertThat(tokenRevocationService.isRevoked("expired")).isFalse();
+    }
+
+    private String tokenFor(UserPrincipal principal) {
+        return jwtUtils.generateJwtToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    private String idOf(String token) {
+        Claims claims = jwtUtils.parseAndValidate(token);
+        return claims.getId();
+    }
+}
@@ -2,11 +2,13 @@ package com.gefrierschrank.app.security;
 
 import com.gefrierschrank.app.entity.User;
 import com.gefrierschrank.app.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -15,6 +17,7 @@ import java.time.LocalDateTime;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,6 +26,9 @@ class UserDetailsServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Spy
+    private UserPrincipalCache userPrincipalCache = new UserPrincipalCache(new SimpleMeterRegistry());
+
     @InjectMocks
     private UserDetailsServiceImpl userDetailsService;
 
@@ -189,4 +195,32 @@ class UserDetailsServiceImplTest {
         
         verify(userRepository).findByUsername("testuser");
     }
-}
\ No newline at end of file
+
+    @Test
+    void loadUserByUsername_SecondCall_ShouldBeServedFromCache() {
+        // Given
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        userDetailsService.loadUserByUsername("testuser");
+
+        // When
+        UserDetails userDetails = userDetailsService.loadUserByUsername("testuser");
+        UserPrincipal byId = userDetailsService.loadUserById(1L);
+
+        // Then
+        assertThat(userDetails.getUsername()).isEqualTo("testuser");
+        assertThat(byId).isSameAs(userDetails);
+        verify(userRepository, times(1)).findByUsername("testuser");
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    void loadUserById_NonExistentUser_ShouldThrowException() {
+        // Given
+        when(userRepository.findById(99L)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThatThrownBy(() -> userDetailsService.loadUserById(99L))
+                .isInstanceOf(UsernameNotFoundException.class)
+                .hasMessage("User Not Found with id: 99");
+    }
+}
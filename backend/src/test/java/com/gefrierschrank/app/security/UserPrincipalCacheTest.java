@@ -0,0 +1,101 @@
+package com.gefrierschrank.app.security;
+
+import com.gefrierschrank.app.entity.User;
+import com.gefrierschrank.app.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Invalidation follows committed changes, so the test commits like the application does
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({UserDetailsServiceImpl.class, UserPrincipalCache.class, SimpleMeterRegistry.class})
+class UserPrincipalCacheTest {
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User("cacheduser", "cached@example.com", "encodedpassword");
+        user.setRole(User.Role.USER);
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void loadUserByUsername_ShouldRecordHitsAndMisses() {
+        // Given
+        double missesBefore = usernameGets("miss");
+        double hitsBefore = usernameGets("hit");
+
+        // When
+        userDetailsService.loadUserByUsername("cacheduser");
+        userDetailsService.loadUserByUsername("cacheduser");
+        userDetailsService.loadUserByUsername("cacheduser");
+
+        // Then
+        assertThat(usernameGets("miss") - missesBefore).isEqualTo(1);
+        assertThat(usernameGets("hit") - hitsBefore).isEqualTo(2);
+    }
+
+    @Test
+    void committedUserUpdate_ShouldInvalidateCachedPrincipal() {
+        // Given
+        UserPrincipal cached = userDetailsService.loadUserById(user.getId());
+        assertThat(cached.getAuthorities()).extracting("authority").containsExactly("ROLE_USER");
+
+        // When
+        user.setRole(User.Role.ADMIN);
+        userRepository.save(user);
+
+        // Then
+        assertThat(userDetailsService.loadUserById(user.getId()).getAuthorities())
+                .extracting("authority").containsExactly("ROLE_ADMIN");
+        assertThat(userDetailsService.loadUserByUsername("cacheduser").getAuthorities())
+                .extracting("authority").containsExactly("ROLE_ADMIN");
+    }
+
+    @Test
+    void committedRename_ShouldDropEntryUnderOldUsername() {
+        // Given
+        userDetailsService.loadUserByUsername("cacheduser");
+
+        // When
+        user.setUsername("renameduser");
+        userRepository.save(user);
+
+        // Then
+        assertThat(userDetailsService.loadUserById(user.getId()).getUsername()).isEqualTo("renameduser");
+        assertThatThrownBy(() -> userDetailsService.loadUserByUsername("cacheduser"))
+                .isInstanceOf(UsernameNotFoundException.class);
+    }
+
+    private double usernameGets(String result) {
+        return meterRegistry.get("cache.gets").tags("cache", "users", "key", "username", "result", result)
+                .functionCounter().count();
+    }
+}
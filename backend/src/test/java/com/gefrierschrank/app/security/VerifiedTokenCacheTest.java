@@ -0,0 +1,71 @@
+package com.gefrierschrank.app.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerifiedTokenCacheTest {
+
+    // Entries also expire on the cache's own clock, so test tokens have to be valid in real time
+    private static final Date NOW = new Date();
+
+    @Test
+    void get_ShouldReturnClaimsUntilTokenExpires() {
+        // Given
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        Claims claims = claimsExpiringAt(new Date(NOW.getTime() + 60_000));
+        cache.put("digest", claims);
+
+        // When & Then
+        assertThat(cache.get("digest", NOW)).isSameAs(claims);
+        assertThat(cache.get("digest", new Date(NOW.getTime() + 60_000))).isNull();
+        assertThat(cache.get("digest", NOW)).isNull();
+    }
+
+    @Test
+    void put_BeyondMaxSize_ShouldEvictDownToMaxSize() {
+        // Given
+        VerifiedTokenCache cache = new VerifiedTokenCache(2);
+        Date expiry = new Date(NOW.getTime() + 60_000);
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            cache.put("digest " + i, claimsExpiringAt(expiry));
+        }
+
+        // Then
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void put_AlreadyExpiredToken_ShouldNotBeKept() {
+        // Given
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+
+        // When
+        cache.put("digest", claimsExpiringAt(new Date(NOW.getTime() - 1_000)));
+
+        // Then
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void put_ClaimsWithoutExpiry_ShouldNotBeCached() {
+        // Given
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+
+        // When
+        cache.put("digest", Jwts.claims().subject("testuser").build());
+
+        // Then
+        assertThat(cache.get("digest", NOW)).isNull();
+    }
+
+    private static Claims claimsExpiringAt(Date expiration) {
+        return Jwts.claims().subject("testuser").expiration(expiration).build();
+    }
+}
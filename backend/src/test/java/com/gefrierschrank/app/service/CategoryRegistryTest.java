@@ -0,0 +1,103 @@
+package com.gefrierschrank.app.service;
+
+import com.gefrierschrank.app.entity.Category;
+import com.gefrierschrank.app.event.CategoryChangedEvent;
+import com.gefrierschrank.app.repository.CategoryRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CategoryRegistryTest {
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    private CategoryRegistry categoryRegistry;
+
+    private Category fisch;
+    private Category fleisch;
+
+    @BeforeEach
+    void setUp() {
+        categoryRegistry = new CategoryRegistry(categoryRepository);
+        fisch = category(1L, "Fisch");
+        fleisch = category(2L, "Fleisch");
+    }
+
+    @Test
+    void reads_ShouldLoadOnceAndServeFromSnapshot() {
+        // Given
+        when(categoryRepository.findAllByOrderByNameAsc()).thenReturn(List.of(fisch, fleisch));
+
+        // When
+        List<Category> all = categoryRegistry.getAll();
+        Category byId = categoryRegistry.getById(2L);
+        Category byName = categoryRegistry.findByNameIgnoreCase("fLEISCH").orElseThrow();
+
+        // Then
+        assertThat(all).extracting(Category::getName).containsExactly("Fisch", "Fleisch");
+        assertThat(byId).isSameAs(byName);
+        assertThat(byId.getMaxValue()).isEqualByComparingTo("50");
+        verify(categoryRepository, times(1)).findAllByOrderByNameAsc();
+    }
+
+    @Test
+    void getById_UnknownId_ShouldThrowException() {
+        // Given
+        when(categoryRepository.findAllByOrderByNameAsc()).thenReturn(List.of(fisch));
+
+        // When & Then
+        assertThatThrownBy(() -> categoryRegistry.getById(99L))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessage("Category not found with id: 99");
+    }
+
+    @Test
+    void onCategoryChanged_ShouldSwapInNewSnapshot() {
+        // Given
+        when(categoryRepository.findAllByOrderByNameAsc()).thenReturn(List.of(fisch, fleisch), List.of(fisch));
+        List<Category> before = categoryRegistry.getAll();
+
+        // When
+        categoryRegistry.onCategoryChanged(new CategoryChangedEvent(2L));
+
+        // Then
+        assertThat(before).hasSize(2);
+        assertThat(categoryRegistry.getAll()).extracting(Category::getName).containsExactly("Fisch");
+        assertThat(categoryRegistry.findById(2L)).isEmpty();
+    }
+
+    @Test
+    void snapshot_ShouldNotFollowChangesToLoadedEntities() {
+        // Given
+        when(categoryRepository.findAllByOrderByNameAsc()).thenReturn(List.of(fisch));
+        categoryRegistry.getAll();
+
+        // When
+        fisch.setName("Meeresfrüchte");
+
+        // Then
+        assertThat(categoryRegistry.getById(1L).getName()).isEqualTo("Fisch");
+        assertThatThrownBy(() -> categoryRegistry.getAll().add(fleisch))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    private static Category category(Long id, String name) {
+        Category category = new Category(name, "kg", new BigDecimal("0.1"), new BigDecimal("0.1"), new BigDecimal("50"));
+        category.setId(id);
+        return category;
+    }
+}
@@ -2,6 +2,7 @@ package com.gefrierschrank.app.service;
 
 import com.gefrierschrank.app.dto.CategoryDto;
 import com.gefrierschrank.app.entity.Category;
+import com.gefrierschrank.app.event.CategoryChangedEvent;
 import com.gefrierschrank.app.mapper.CategoryMapper;
 import com.gefrierschrank.app.repository.CategoryRepository;
 import jakarta.persistence.EntityNotFoundException;
@@ -11,6 +12,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 
 import java.math.BigDecimal;
@@ -28,6 +30,9 @@ class CategoryServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private CategoryMapper categoryMapper = new CategoryMapper();
 
     private CategoryService categoryService;
@@ -58,7 +63,8 @@ class CategoryServiceTest {
         testCategoryDto.setMaxValue(new BigDecimal("5.0"));
 
         // Initialize CategoryService with mocked repository and real mapper
-        categoryService = new CategoryService(categoryRepository, categoryMapper);
+        categoryService = new CategoryService(categoryRepository, new CategoryRegistry(categoryRepository),
+                categoryMapper, eventPublisher);
     }
 
     @Test
@@ -93,7 +99,7 @@ class CategoryServiceTest {
     @Test
     void getCategoryById_ValidId_ShouldReturnCategory() {
         // Given
-        when(categoryRepository.findById(1L)).thenReturn(Optional.of(testCategory));
+        when(categoryRepository.findAllByOrderByNameAsc()).thenReturn(List.of(testCategory));
 
         // When
         CategoryDto result = categoryService.getCategoryById(1L);
@@ -101,13 +107,13 @@ class CategoryServiceTest {
         // Then
         assertThat(result.getId()).isEqualTo(1L);
         assertThat(result.getName()).isEqualTo("Fleisch");
-        verify(categoryRepository).findById(1L);
+        verify(categoryRepository, never()).findById(any());
     }
 
     @Test
     void getCategoryById_InvalidId_ShouldThrowException() {
         // Given
-        when(categoryRepository.findById(999L)).thenReturn(Optional.empty());
+        when(categoryRepository.findAllByOrderByNameAsc()).thenReturn(List.of(testCategory));
 
         // When & Then
         assertThatThrownBy(() -> categoryService.getCategoryById(999L))
@@ -118,20 +124,20 @@ class CategoryServiceTest {
     @Test
     void getCategoryByName_ValidName_ShouldReturnCategory() {
         // Given
-        when(categoryRepository.findByNameIgnoreCase("Fleisch")).thenReturn(Optional.of(testCategory));
+        when(categoryRepository.findAllByOrderByNameAsc()).thenReturn(List.of(testCategory));
 
         // When
-        CategoryDto result = categoryService.getCategoryByName("Fleisch");
+        CategoryDto result = categoryService.getCategoryByName("FLEISCH");
 
         // Then
         assertThat(result.getName()).isEqualTo("Fleisch");
-        verify(categoryRepository).findByNameIgnoreCase("Fleisch");
+        verify(categoryRepository, never()).findByNameIgnoreCase(any());
     }
 
     @Test
     void getCategoryByName_InvalidName_ShouldThrowException() {
         // Given
-        when(categoryRepository.findByNameIgnoreCase("NonExistent")).thenReturn(Optional.empty());
+        when(categoryRepository.findAllByOrderByNameAsc()).thenReturn(List.of(testCategory));
 
         // When & Then
         assertThatThrownBy(() -> categoryService.getCategoryByName("NonExistent"))
@@ -170,6 +176,7 @@ class CategoryServiceTest {
         assertThat(result.getName()).isEqualTo("Gemüse");
         verify(categoryRepository).existsByNameIgnoreCase("Gemüse");
         verify(categoryRepository).save(any(Category.class));
+        verify(eventPublisher).publishEvent(argThat((CategoryChangedEvent event) -> event.getCategoryId().equals(2L)));
     }
 
     @Test
@@ -241,6 +248,7 @@ class CategoryServiceTest {
         assertThat(result.getIcon()).isEqualTo("updated-meat");
         verify(categoryRepository).findById(1L);
         verify(categoryRepository).save(testCategory);
+        verify(eventPublisher).publishEvent(any(CategoryChangedEvent.class));
     }
 
     @Test
@@ -307,6 +315,7 @@ class CategoryServiceTest {
         verify(categoryRepository).findById(1L);
         verify(categoryRepository).hasItems(1L);
         verify(categoryRepository).delete(testCategory);
+        verify(eventPublisher).publishEvent(argThat((CategoryChangedEvent event) -> event.getCategoryId().equals(1L)));
     }
 
     @Test
@@ -335,52 +344,52 @@ class CategoryServiceTest {
     @Test
     void existsById_ExistingId_ShouldReturnTrue() {
         // Given
-        when(categoryRepository.existsById(1L)).thenReturn(true);
+        when(categoryRepository.findAllByOrderByNameAsc()).thenReturn(List.of(testCategory));
 
         // When
         boolean result = categoryService.existsById(1L);
 
         // Then
         assertThat(result).isTrue();
-        verify(categoryRepository).existsById(1L);
+        verify(categoryRepository, never()).existsById(any());
     }
 
     @Test
     void existsById_NonExistingId_ShouldReturnFalse() {
         // Given
-        when(categoryRepository.existsById(999L)).thenReturn(false);
+        when(categoryRepository.findAllByOrderByNameAsc()).thenReturn(List.of(testCategory));
 
         // When
         boolean result = categoryService.existsById(999L);
 
         // Then
         assertThat(result).isFalse();
-        verify(categoryRepository).existsById(999L);
+        verify(categoryRepository, never()).existsById(any());
     }
 
     @Test
     void existsByName_ExistingName_ShouldReturnTrue() {
         // Given
-        when(categoryRepository.existsByNameIgnoreCase("Fleisch")).thenReturn(true);
+        when(categoryRepository.findAllByOrderByNameAsc()).thenReturn(List.of(testCategory));
 
         // When
         boolean result = categoryService.existsByName("Fleisch");
 
         // Then
         assertThat(result).isTrue();
-        verify(categoryRepository).existsByNameIgnoreCase("Fleisch");
+        verify(categoryRepository, never()).existsByNameIgnoreCase(any());
     }
 
     @Test
     void existsByName_NonExistingName_ShouldReturnFalse() {
         // Given
-        when(categoryRepository.existsByNameIgnoreCase("NonExistent")).thenReturn(false);
+        when(categoryRepository.findAllByOrderByNameAsc()).thenReturn(List.of(testCategory));
 
         // When
         boolean result = categoryService.existsByName("NonExistent");
 
         // Then
         assertThat(result).isFalse();
-        verify(categoryRepository).existsByNameIgnoreCase("NonExistent");
+        verify(categoryRepository, never()).existsByNameIgnoreCase(any());
     }
 }
\ No newline at end of file
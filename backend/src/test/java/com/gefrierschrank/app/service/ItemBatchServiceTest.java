@@ -0,0 +1,226 @@
+package com.gefrierschrank.app.service;
+
+import com.gefrierschrank.app.dto.BatchItemResponse;
+import com.gefrierschrank.app.dto.BatchItemResult;
+import com.gefrierschrank.app.dto.BatchUpdateItemRequest;
+import com.gefrierschrank.app.dto.CreateItemRequest;
+import com.gefrierschrank.app.entity.Category;
+import com.gefrierschrank.app.entity.ExpiryType;
+import com.gefrierschrank.app.entity.Item;
+import com.gefrierschrank.app.entity.User;
+import com.gefrierschrank.app.repository.DeletedItemRepository;
+import com.gefrierschrank.app.security.UserPrincipal;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({ItemBatchService.class, CategoryRegistry.class, ValidationAutoConfiguration.class})
+class ItemBatchServiceTest {
+
+    private static final int ITEM_COUNT = 25;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ItemBatchService itemBatchService;
+
+    @Autowired
+    private DeletedItemRepository deletedItemRepository;
+
+    @Autowired
+    private CategoryRegistry categoryRegistry;
+
+    private Statistics statistics;
+    private UserPrincipal principal;
+    private ItemTestFixtures fixtures;
+    private Category category;
+    private List<Long> itemIds;
+    private Long foreignItemId;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new ItemTestFixtures(entityManager);
+        User user = fixtures.persistUser("testuser");
+        principal = UserPrincipal.create(user);
+        User otherUser = fixtures.persistUser("otheruser");
+        category = fixtures.persistCategory();
+
+        itemIds = new ArrayList<>();
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            itemIds.add(fixtures.persistItem("Item " + i, category, user).getId());
+        }
+        foreignItemId = fixtures.persistItem("Foreign", category, otherUser).getId();
+
+        entityManager.flush();
+        entityManager.clear();
+        // The registry snapshot is process-wide; rebuild it so it sees this test's uncommitted category
+        categoryRegistry.reload();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void createItems_ShouldCreateValidElementsAndReportInvalidOnes() {
+        // Given
+        CreateItemRequest valid = new CreateItemRequest("Rinderhack", category.getId(), new BigDecimal("0.5"), "kg",
+                LocalDate.now().plusDays(30), ExpiryType.BEST_BEFORE);
+        CreateItemRequest unknownCategory = new CreateItemRequest("Eis", 999L, new BigDecimal("1.0"), "L",
+                null, ExpiryType.BEST_BEFORE);
+        CreateItemRequest tooMuch = new CreateItemRequest("Gulasch", category.getId(), new BigDecimal("80.0"), "kg",
+                null, ExpiryType.BEST_BEFORE);
+        CreateItemRequest blankName = new CreateItemRequest("", category.getId(), new BigDecimal("1.0"), "kg",
+                null, ExpiryType.BEST_BEFORE);
+
+        // When
+        BatchItemResponse response = itemBatchService.createItems(
+                Arrays.asList(valid, unknownCategory, tooMuch, blankName, null), principal);
+
+        // Then
+        assertThat(response.getSucceeded()).isEqualTo(1);
+        assertThat(response.getFailed()).isEqualTo(4);
+        List<BatchItemResult> results = response.getResults();
+        assertThat(results).extracting(BatchItemResult::getIndex).containsExactly(0, 1, 2, 3, 4);
+        assertThat(results.get(0).getItem().getName()).isEqualTo("Rinderhack");
+        assertThat(results.get(1).getError()).isEqualTo("Category not found with id: 999");
+        assertThat(results.get(2).getError()).startsWith("Quantity cannot be greater than maximum value");
+        assertThat(results.get(3).getError()).startsWith("name: ");
+        assertThat(results.get(4).getError()).isEqualTo("Item must not be null");
+        assertThat(entityManager.find(Item.class, results.get(0).getId())).isNotNull();
+    }
+
+    @Test
+    void createItems_ShouldWriteOneBatchedInsert() {
+        // Given
+        List<CreateItemRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            requests.add(new CreateItemRequest("Einkauf " + i, category.getId(), BigDecimal.ONE, "kg", null, null));
+        }
+
+        // When
+        BatchItemResponse response = itemBatchService.createItems(requests, principal);
+
+        // Then
+        assertThat(response.getSucceeded()).isEqualTo(40);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(40);
+        // at most one sequence call for a new id block, and one prepared INSERT for all rows
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void updateItems_ShouldLoadOnceAndWriteOneBatchedUpdate() {
+        // Given
+        List<BatchUpdateItemRequest> requests = itemIds.stream()
+                .map(id -> updateRequest(id, "Renamed " + id))
+                .toList();
+
+        // When
+        BatchItemResponse response = itemBatchService.updateItems(requests, principal);
+
+        // Then
+        assertThat(response.getSucceeded()).isEqualTo(ITEM_COUNT);
+        assertThat(response.getResults().get(0).getItem().getName()).isEqualTo("Renamed " + itemIds.get(0));
+        // items, and one prepared UPDATE executed as a JDBC batch
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityUpdateCount()).isEqualTo(ITEM_COUNT);
+    }
+
+    @Test
+    void updateItems_ForeignOrDuplicateItem_ShouldFailOnlyThatElement() {
+        // Given
+        List<BatchUpdateItemRequest> requests = List.of(
+                updateRequest(itemIds.get(0), "Renamed"),
+                updateRequest(foreignItemId, "Stolen"),
+                updateRequest(itemIds.get(0), "Again"));
+
+        // When
+        BatchItemResponse response = itemBatchService.updateItems(requests, principal);
+
+        // Then
+        assertThat(response.getResults()).extracting(BatchItemResult::isSuccess).containsExactly(true, false, false);
+        assertThat(response.getResults().get(1).getError()).isEqualTo("Item not found with id: " + foreignItemId);
+        assertThat(entityManager.find(Item.class, foreignItemId).getName()).isEqualTo("Foreign");
+    }
+
+    @Test
+    void deleteItems_ShouldDeleteOwnItemsWithOneStatement() {
+        // Given
+        List<Long> ids = new ArrayList<>(itemIds);
+        ids.add(foreignItemId);
+
+        // When
+        BatchItemResponse response = itemBatchService.deleteItems(ids, principal);
+        entityManager.flush();
+
+        // Then
+        assertThat(response.getSucceeded()).isEqualTo(ITEM_COUNT);
+        assertThat(response.getResults().get(ITEM_COUNT).getError()).isEqualTo("Item not found with id: " + foreignItemId);
+        // items, DELETE ... WHERE id IN (...), tombstone ids, batched tombstone INSERT
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+        entityManager.clear();
+        assertThat(entityManager.find(Item.class, itemIds.get(0))).isNull();
+        assertThat(entityManager.find(Item.class, foreignItemId)).isNotNull();
+        assertThat(deletedItemRepository.findItemIdsDeletedAfter(principal.getId(), LocalDateTime.now().minusMinutes(1)))
+                .containsExactlyInAnyOrderElementsOf(itemIds);
+    }
+
+    @Test
+    void deleteItems_NullElements_ShouldReportEachOne() {
+        // When
+        BatchItemResponse onlyNulls = itemBatchService.deleteItems(Arrays.asList(null, null), principal);
+        BatchItemResponse mixed = itemBatchService.deleteItems(Arrays.asList(null, foreignItemId), principal);
+
+        // Then
+        assertThat(onlyNulls.getSucceeded()).isZero();
+        assertThat(onlyNulls.getResults()).extracting(BatchItemResult::getError)
+                .containsExactly("Item must not be null", "Item must not be null");
+        assertThat(mixed.getSucceeded()).isZero();
+        assertThat(mixed.getResults()).extracting(BatchItemResult::getError)
+                .containsExactly("Item must not be null", "Item not found with id: " + foreignItemId);
+    }
+
+    @Test
+    void createItems_TooManyElements_ShouldThrowException() {
+        // Given
+        List<CreateItemRequest> requests = new ArrayList<>();
+        for (int i = 0; i <= 100; i++) {
+            requests.add(new CreateItemRequest("Item", category.getId(), BigDecimal.ONE, "kg", null, null));
+        }
+
+        // When & Then
+        assertThatThrownBy(() -> itemBatchService.createItems(requests, principal))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Batch size must be between 1 and 100");
+    }
+
+    private BatchUpdateItemRequest updateRequest(Long id, String name) {
+        BatchUpdateItemRequest request = new BatchUpdateItemRequest();
+        request.setId(id);
+        request.setName(name);
+        request.setCategoryId(category.getId());
+        request.setQuantity(new BigDecimal("2.0"));
+        request.setUnit("kg");
+        return request;
+    }
+}
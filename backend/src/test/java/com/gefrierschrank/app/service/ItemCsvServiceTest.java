@@ -0,0 +1,342 @@
+package com.gefrierschrank.app.service;
+
+import com.gefrierschrank.app.constants.AppConstants;
+import com.gefrierschrank.app.dto.ItemDto;
+import com.gefrierschrank.app.dto.ItemImportError;
+import com.gefrierschrank.app.dto.ItemImportResponse;
+import com.gefrierschrank.app.entity.Category;
+import com.gefrierschrank.app.entity.ExpiryType;
+import com.gefrierschrank.app.entity.Item;
+import com.gefrierschrank.app.entity.User;
+import com.gefrierschrank.app.repository.ItemRepository;
+import com.gefrierschrank.app.repository.UserRepository;
+import com.gefrierschrank.app.security.UserPrincipal;
+import com.opencsv.CSVReader;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest
+@Import({ItemCsvService.class, CategoryRegistry.class, ValidationAutoConfiguration.class})
+class ItemCsvServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ItemCsvService itemCsvService;
+
+    @Autowired
+    private CategoryRegistry categoryRegistry;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ItemTestFixtures fixtures;
+    private Category category;
+    private User user;
+    private User otherUser;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new ItemTestFixtures(entityManager);
+        user = fixtures.persistUser("testuser");
+        otherUser = fixtures.persistUser("otheruser");
+        category = fixtures.persistCategory();
+        entityManager.flush();
+        // Import validation runs on pool threads, which cannot see the uncommitted test data
+        categoryRegistry.reload();
+    }
+
+    @Test
+    void exportCsv_ShouldWriteHeaderAndOnlyOwnItemsNewestFirst() throws Exception {
+        // Given
+        Item older = fixtures.persistItem("Rinderhack", category, user);
+        Item newer = fixtures.persistItem("Hähnchenbrust", category, user);
+        fixtures.persistItem("Fremd", category, otherUser);
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int count = itemCsvService.exportCsv(UserPrincipal.create(user), out);
+
+        // Then
+        List<String[]> rows = parse(out);
+        assertThat(count).isEqualTo(2);
+        assertThat(rows.get(0)).containsExactly(ItemCsvService.HEADER);
+        assertThat(rows).hasSize(3);
+        assertThat(rows.get(1)[0]).isEqualTo(String.valueOf(newer.getId()));
+        assertThat(rows.get(1)).contains("Hähnchenbrust", "Fleisch", "1.50", "kg", "2030-01-31", "BEST_BEFORE");
+        assertThat(rows.get(2)[0]).isEqualTo(String.valueOf(older.getId()));
+    }
+
+    @Test
+    void exportCsv_ShouldQuoteSeparatorsQuotesAndLineBreaks() throws Exception {
+        // Given
+        Item item = fixtures.persistItem("Lachs, \"wild\"", category, user);
+        item.setDescription("Zeile 1\nZeile 2");
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        itemCsvService.exportCsv(UserPrincipal.create(user), out);
+
+        // Then
+        List<String[]> rows = parse(out);
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(1)[1]).isEqualTo("Lachs, \"wild\"");
+        assertThat(rows.get(1)[7]).isEqualTo("Zeile 1\nZeile 2");
+    }
+
+    @Test
+    void exportCsv_ShouldEscapeCellsThatSpreadsheetsWouldRunAsFormulas() throws Exception {
+        // Given
+        Item formula = fixtures.persistItem("=HYPERLINK(\"http://example.com\")", category, user);
+        formula.setDescription("-5 Grad");
+        Item quoted = fixtures.persistItem("'@Eis", category, user);
+        quoted.setDescription("Tiefkühl -18");
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        itemCsvService.exportCsv(UserPrincipal.create(user), out);
+
+        // Then
+        List<String[]> rows = parse(out);
+        assertThat(rows).hasSize(3);
+        assertThat(rows.get(1)[1]).isEqualTo("''@Eis");
+        assertThat(rows.get(1)[7]).isEqualTo("Tiefkühl -18");
+        assertThat(rows.get(2)[1]).isEqualTo("'=HYPERLINK(\"http://example.com\")");
+        assertThat(rows.get(2)[7]).isEqualTo("'-5 Grad");
+    }
+
+    @Test
+    void exportCsv_MoreItemsThanFetchSize_ShouldWriteEveryItem() throws Exception {
+        // Given
+        for (int i = 0; i < 1200; i++) {
+            fixtures.persistItem("Item " + i, category, user);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int count = itemCsvService.exportCsv(UserPrincipal.create(user), out);
+
+        // Then
+        assertThat(count).isEqualTo(1200);
+        assertThat(parse(out)).hasSize(1201);
+    }
+
+    @Test
+    void importCsv_ShouldImportValidRowsAndReportInvalidOnes() throws Exception {
+        // Given
+        String csv = """
+                Name,Category,Quantity,Unit,ExpiryDate,ExpiryType,Description
+                Rinderhack,fleisch,"0,5",kg,2030-01-31,use_by,vom Metzger
+                Unbekannt,Obst,1,kg,,,
+                Zu viel,Fleisch,99,kg,,,
+
+                Ohne Menge,Fleisch,,kg,,,
+                Schlechtes Datum,Fleisch,1,kg,31.01.2030,,
+                Hähnchenbrust,Fleisch,1.5,kg,,,
+                """;
+
+        // When
+        ItemImportResponse response = itemCsvService.importCsv(toStream(csv), UserPrincipal.create(user));
+
+        // Then
+        assertThat(response.getImported()).isEqualTo(2);
+        assertThat(response.getFailed()).isEqualTo(4);
+        assertThat(response.isErrorsTruncated()).isFalse();
+        assertThat(response.getErrors()).extracting(ItemImportError::getRow).containsExactly(3L, 4L, 6L, 7L);
+        assertThat(response.getErrors()).extracting(ItemImportError::getError).containsExactly(
+                "Category not found with name: Obst",
+                "Quantity cannot be greater than maximum value: 50.0",
+                "quantity: Quantity is required",
+                "expiryDate: '31.01.2030' is not a date of the form yyyy-MM-dd");
+
+        entityManager.clear();
+        List<ItemDto> items = itemRepository.findDtosByUser(user);
+        assertThat(items).extracting(ItemDto::getName).containsExactlyInAnyOrder("Rinderhack", "Hähnchenbrust");
+        ItemDto rinderhack = items.stream().filter(item -> item.getName().equals("Rinderhack")).findFirst().orElseThrow();
+        assertThat(rinderhack.getQuantity()).isEqualByComparingTo("0.5");
+        assertThat(rinderhack.getExpiryType()).isEqualTo(ExpiryType.USE_BY);
+        assertThat(rinderhack.getExpiryDate()).isEqualTo(LocalDate.of(2030, 1, 31));
+        assertThat(rinderhack.getDescription()).isEqualTo("vom Metzger");
+    }
+
+    @Test
+    void importCsv_ExportedFile_ShouldRecreateItemsForAnotherUser() throws Exception {
+        // Given
+        fixtures.persistItem("Rinderhack", category, user);
+        fixtures.persistItem("Lachs, \"wild\"", category, user);
+        entityManager.flush();
+        entityManager.clear();
+        ByteArrayOutputStream exported = new ByteArrayOutputStream();
+        itemCsvService.exportCsv(UserPrincipal.create(user), exported);
+
+        // When
+        ItemImportResponse response = itemCsvService.importCsv(
+                new ByteArrayInputStream(exported.toByteArray()), UserPrincipal.create(otherUser));
+
+        // Then
+        assertThat(response.getImported()).isEqualTo(2);
+        assertThat(response.getFailed()).isZero();
+        entityManager.clear();
+        assertThat(itemRepository.findDtosByUser(otherUser)).extracting(ItemDto::getName)
+                .containsExactlyInAnyOrder("Rinderhack", "Lachs, \"wild\"");
+    }
+
+    @Test
+    void importCsv_ExportedFormulaCells_ShouldRestoreOriginalText() throws Exception {
+        // Given
+        Item formula = fixtures.persistItem("=1+1", category, user);
+        formula.setDescription("-5 Grad");
+        fixtures.persistItem("'@Eis", category, user);
+        fixtures.persistItem("'Apostroph", category, user);
+        entityManager.flush();
+        entityManager.clear();
+        ByteArrayOutputStream exported = new ByteArrayOutputStream();
+        itemCsvService.exportCsv(UserPrincipal.create(user), exported);
+
+        // When
+        ItemImportResponse response = itemCsvService.importCsv(
+                new ByteArrayInputStream(exported.toByteArray()), UserPrincipal.create(otherUser));
+
+        // Then
+        assertThat(response.getImported()).isEqualTo(3);
+        assertThat(response.getFailed()).isZero();
+        entityManager.clear();
+        assertThat(itemRepository.findDtosByUser(otherUser))
+                .extracting(ItemDto::getName, ItemDto::getDescription)
+                .containsExactlyInAnyOrder(
+                        tuple("=1+1", "-5 Grad"),
+                        tuple("'@Eis", null),
+                        tuple("'Apostroph", null));
+    }
+
+    @Test
+    void importCsv_HandWrittenEscapedCell_ShouldStripOneApostrophe() throws Exception {
+        // Given
+        String csv = "name,category,quantity,unit,description\n"
+                + "'=SUMME(A1),Fleisch,1,kg,'+49 Vorrat\n";
+
+        // When
+        ItemImportResponse response = itemCsvService.importCsv(toStream(csv), UserPrincipal.create(user));
+
+        // Then
+        assertThat(response.getImported()).isEqualTo(1);
+        entityManager.clear();
+        ItemDto imported = itemRepository.findDtosByUser(user).get(0);
+        assertThat(imported.getName()).isEqualTo("=SUMME(A1)");
+        assertThat(imported.getDescription()).isEqualTo("+49 Vorrat");
+    }
+
+    @Test
+    void importCsv_ManySmallChunks_ShouldKeepFileOrderOfErrors() throws Exception {
+        // Given
+        ItemCsvService service = new ItemCsvService(itemRepository, userRepository, categoryRegistry, validator,
+                eventPublisher, transactionManager, 3, 2);
+        StringBuilder csv = new StringBuilder("name,category,quantity,unit\n");
+        for (int i = 0; i < 50; i++) {
+            csv.append("Item ").append(i).append(",Fleisch,").append(i % 7 == 0 ? "0" : "1").append(",kg\n");
+        }
+
+        // When
+        ItemImportResponse response;
+        try {
+            response = service.importCsv(toStream(csv.toString()), UserPrincipal.create(user));
+        } finally {
+            service.shutdown();
+        }
+
+        // Then
+        assertThat(response.getImported()).isEqualTo(42);
+        assertThat(response.getFailed()).isEqualTo(8);
+        assertThat(response.getErrors()).extracting(ItemImportError::getRow)
+                .containsExactly(2L, 9L, 16L, 23L, 30L, 37L, 44L, 51L);
+        assertThat(itemRepository.findDtosByUser(user)).hasSize(42);
+    }
+
+    @Test
+    void importCsv_ManyInvalidRows_ShouldTruncateErrorReport() throws Exception {
+        // Given
+        StringBuilder csv = new StringBuilder("name,category,quantity,unit\n");
+        for (int i = 0; i < AppConstants.IMPORT_MAX_REPORTED_ERRORS + 5; i++) {
+            csv.append("Item ").append(i).append(",Obst,1,kg\n");
+        }
+
+        // When
+        ItemImportResponse response = itemCsvService.importCsv(toStream(csv.toString()), UserPrincipal.create(user));
+
+        // Then
+        assertThat(response.getImported()).isZero();
+        assertThat(response.getFailed()).isEqualTo(AppConstants.IMPORT_MAX_REPORTED_ERRORS + 5);
+        assertThat(response.getErrors()).hasSize(AppConstants.IMPORT_MAX_REPORTED_ERRORS);
+        assertThat(response.isErrorsTruncated()).isTrue();
+    }
+
+    @Test
+    void importCsv_MissingRequiredColumn_ShouldThrowException() {
+        // Given
+        String csv = "name,category,unit\nRinderhack,Fleisch,kg\n";
+
+        // When & Then
+        assertThatThrownBy(() -> itemCsvService.importCsv(toStream(csv), UserPrincipal.create(user)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("The CSV header is missing the column: quantity");
+    }
+
+    @Test
+    void importCsv_EmptyFile_ShouldThrowException() {
+        // When & Then
+        assertThatThrownBy(() -> itemCsvService.importCsv(toStream(""), UserPrincipal.create(user)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("The CSV file is empty");
+    }
+
+    private static ByteArrayInputStream toStream(String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<String[]> parse(ByteArrayOutputStream out) throws Exception {
+        try (CSVReader reader = new CSVReader(new InputStreamReader(
+                new ByteArrayInputStream(out.toByteArray()), StandardCharsets.UTF_8))) {
+            return reader.readAll();
+        }
+    }
+}
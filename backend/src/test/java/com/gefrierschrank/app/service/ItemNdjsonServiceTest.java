@@ -0,0 +1,113 @@
+package com.gefrierschrank.app.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gefrierschrank.app.entity.Category;
+import com.gefrierschrank.app.entity.Item;
+import com.gefrierschrank.app.entity.User;
+import com.gefrierschrank.app.security.UserPrincipal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({ItemNdjsonService.class, JacksonAutoConfiguration.class})
+class ItemNdjsonServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ItemNdjsonService itemNdjsonService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private ItemTestFixtures fixtures;
+    private Category category;
+    private User user;
+    private User otherUser;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new ItemTestFixtures(entityManager);
+        user = fixtures.persistUser("testuser");
+        otherUser = fixtures.persistUser("otheruser");
+        category = fixtures.persistCategory();
+    }
+
+    @Test
+    void exportNdjson_ShouldWriteOneItemPerLineNewestFirst() throws Exception {
+        // Given
+        Item older = fixtures.persistItem("Rinderhack", category, user);
+        Item newer = fixtures.persistItem("Lachs\n\"wild\"", category, user);
+        fixtures.persistItem("Fremd", category, otherUser);
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int count = itemNdjsonService.exportNdjson(UserPrincipal.create(user), out);
+
+        // Then
+        String body = out.toString(StandardCharsets.UTF_8);
+        assertThat(count).isEqualTo(2);
+        assertThat(body).endsWith("\n");
+        List<JsonNode> lines = parse(body);
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(0).get("id").asLong()).isEqualTo(newer.getId());
+        assertThat(lines.get(0).get("name").asText()).isEqualTo("Lachs\n\"wild\"");
+        assertThat(lines.get(0).get("categoryName").asText()).isEqualTo("Fleisch");
+        assertThat(lines.get(0).get("expiryDate").asText()).isEqualTo("2030-01-31");
+        assertThat(lines.get(0).get("username").asText()).isEqualTo("testuser");
+        assertThat(lines.get(1).get("id").asLong()).isEqualTo(older.getId());
+    }
+
+    @Test
+    void exportNdjson_NoItems_ShouldWriteNothing() throws Exception {
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int count = itemNdjsonService.exportNdjson(UserPrincipal.create(user), out);
+
+        // Then
+        assertThat(count).isZero();
+        assertThat(out.size()).isZero();
+    }
+
+    @Test
+    void exportNdjson_MoreItemsThanFetchSize_ShouldWriteEveryItem() throws Exception {
+        // Given
+        for (int i = 0; i < 1200; i++) {
+            fixtures.persistItem("Item " + i, category, user);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int count = itemNdjsonService.exportNdjson(UserPrincipal.create(user), out);
+
+        // Then
+        assertThat(count).isEqualTo(1200);
+        assertThat(parse(out.toString(StandardCharsets.UTF_8))).hasSize(1200);
+    }
+
+    private List<JsonNode> parse(String body) throws Exception {
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+}
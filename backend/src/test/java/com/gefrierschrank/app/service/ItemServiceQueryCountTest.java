@@ -0,0 +1,309 @@
+package com.gefrierschrank.app.service;
+
+import com.gefrierschrank.app.dto.ItemChangesResponse;
+import com.gefrierschrank.app.dto.ItemDto;
+import com.gefrierschrank.app.dto.UpdateItemRequest;
+import com.gefrierschrank.app.entity.Category;
+import com.gefrierschrank.app.entity.ExpiryType;
+import com.gefrierschrank.app.entity.Item;
+import com.gefrierschrank.app.entity.User;
+import com.gefrierschrank.app.search.ItemSearchIndex;
+import com.gefrierschrank.app.security.UserPrincipal;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the list paths of {@link ItemService} against N+1 selects: every item lives in its own
+ * category, so any lazy association touched while mapping to DTOs shows up as extra statements.
+ * The single item paths check ownership inside their one item statement, and no path loads the
+ * user: it is taken from the authenticated principal.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({ItemService.class, ItemStatisticsTracker.class, ItemSearchIndex.class, CategoryRegistry.class})
+class ItemServiceQueryCountTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemStatisticsTracker statisticsTracker;
+
+    @Autowired
+    private ItemSearchIndex searchIndex;
+
+    @Autowired
+    private CategoryRegistry categoryRegistry;
+
+    private Statistics statistics;
+    private UserPrincipal principal;
+    private Long firstCategoryId;
+    private Long firstItemId;
+
+    private void setUp(int itemCount) {
+        User user = new User();
+        user.setUsername("testuser");
+        user.setEmail("test@example.com");
+        user.setPassword("password");
+        user.setRole(User.Role.USER);
+        user.setCreatedAt(LocalDateTime.now());
+        entityManager.persist(user);
+        principal = UserPrincipal.create(user);
+
+        for (int i = 0; i < itemCount; i++) {
+            Category category = new Category();
+            category.setName("Kategorie " + i);
+            category.setDefaultUnit("kg");
+            category.setUnitStep(new BigDecimal("0.1"));
+            category.setMinValue(new BigDecimal("0.1"));
+            category.setMaxValue(new BigDecimal("50.0"));
+            entityManager.persist(category);
+            if (firstCategoryId == null) {
+                firstCategoryId = category.getId();
+            }
+
+            Item item = new Item();
+            item.setName("Item " + i);
+            item.setCategory(category);
+            item.setUser(user);
+            item.setQuantity(new BigDecimal("1.0"));
+            item.setUnit("kg");
+            item.setExpiryDate(i % 2 == 0 ? LocalDate.now().plusDays(3) : LocalDate.now().minusDays(3));
+            item.setExpiryType(ExpiryType.BEST_BEFORE);
+            entityManager.persist(item);
+            if (firstItemId == null) {
+                firstItemId = item.getId();
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+
+        // Tracker and index outlive the rolled back test transactions of the shared context
+        statisticsTracker.invalidateAll();
+        searchIndex.invalidateAll();
+        searchIndex.buildAll(); // as on application startup
+        categoryRegistry.reload();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 25})
+    void getAllItemsByUser_ShouldUseOneListQuery(int itemCount) {
+        // Given
+        setUp(itemCount);
+
+        // When
+        assertThat(itemService.getAllItemsByUser(principal)).hasSize(itemCount);
+
+        // Then
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 25})
+    void getItemsByUserPaginated_ShouldUseOneListQuery(int itemCount) {
+        // Given
+        setUp(itemCount);
+
+        // When
+        assertThat(itemService.getItemsByUserPaginated(principal, PageRequest.of(0, 100))).hasSize(itemCount);
+
+        // Then
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 25})
+    void getItemsByCategory_ShouldUseOneListQuery(int itemCount) {
+        // Given
+        setUp(itemCount);
+
+        // When
+        assertThat(itemService.getItemsByCategory(firstCategoryId, principal)).hasSize(1);
+
+        // Then: the category comes from the registry
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 25})
+    void searchItemsByName_ShouldUseOneListQuery(int itemCount) {
+        // Given
+        setUp(itemCount);
+
+        // When
+        assertThat(itemService.searchItemsByName("item", principal)).hasSize(itemCount);
+
+        // Then
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 25})
+    void getExpiringSoonItems_ShouldUseOneListQuery(int itemCount) {
+        // Given
+        setUp(itemCount);
+
+        // When
+        assertThat(itemService.getExpiringSoonItems(7, principal)).hasSize((itemCount + 1) / 2);
+
+        // Then
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 25})
+    void getExpiredItems_ShouldUseOneListQuery(int itemCount) {
+        // Given
+        setUp(itemCount);
+
+        // When
+        assertThat(itemService.getExpiredItems(principal)).hasSize(itemCount / 2);
+
+        // Then
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 25})
+    void getItemsWithFilters_ShouldUseOneListQuery(int itemCount) {
+        // Given
+        setUp(itemCount);
+
+        // When
+        assertThat(itemService.getItemsWithFilters(principal, null, "item", false, null, "category",
+                PageRequest.of(0, 100))).hasSize(itemCount);
+
+        // Then
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 25})
+    void getItemStatistics_ShouldLoadOnceAndThenServeFromMemory(int itemCount) {
+        // Given
+        setUp(itemCount);
+
+        // When
+        assertThat(itemService.getItemStatistics(principal).getTotalItems()).isEqualTo(itemCount);
+        long firstRead = statistics.getPrepareStatementCount();
+        assertThat(itemService.getItemStatistics(principal).getTotalItems()).isEqualTo(itemCount);
+
+        // Then
+        assertThat(firstRead).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void getItemById_ShouldUseOneOwnerScopedQuery() {
+        // Given
+        setUp(3);
+
+        // When
+        assertThat(itemService.getItemById(firstItemId, principal).getName()).isEqualTo("Item 0");
+
+        // Then
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void updateItem_ShouldLoadOwnItemOnceAndWriteOneUpdate() {
+        // Given
+        setUp(3);
+        UpdateItemRequest request = new UpdateItemRequest();
+        request.setName("Renamed");
+        request.setCategoryId(firstCategoryId);
+        request.setQuantity(new BigDecimal("2.0"));
+        request.setUnit("kg");
+
+        // When
+        itemService.updateItem(firstItemId, request, principal);
+        entityManager.flush();
+
+        // Then: item and update; the category comes from the registry
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void deleteItem_ShouldUseOneOwnerScopedDeleteAndWriteTombstone() {
+        // Given
+        setUp(3);
+
+        // When
+        itemService.deleteItem(firstItemId, principal);
+        entityManager.flush();
+
+        // Then: owner-scoped delete and tombstone insert, plus a sequence call unless an earlier
+        // test of the shared context left tombstone ids in the allocated block
+        assertThat(statistics.getPrepareStatementCount()).isBetween(2L, 3L);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(1);
+        assertThat(entityManager.find(Item.class, firstItemId)).isNull();
+    }
+
+    @Test
+    void getItemChanges_ShouldReturnOnlyChangesSinceWatermarkWithTwoQueries() {
+        // Given
+        setUp(5);
+        LocalDateTime since = LocalDateTime.now().minusHours(1);
+        entityManager.getEntityManager().createQuery("UPDATE Item i SET i.updatedAt = :before")
+                .setParameter("before", since.minusDays(1))
+                .executeUpdate();
+        UpdateItemRequest request = new UpdateItemRequest();
+        request.setName("Umbenannt");
+        request.setCategoryId(firstCategoryId);
+        request.setQuantity(new BigDecimal("2.0"));
+        request.setUnit("kg");
+        itemService.updateItem(firstItemId, request, principal);
+        itemService.deleteItem(firstItemId + 1, principal);
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        // When
+        ItemChangesResponse changes = itemService.getItemChanges(since, principal);
+
+        // Then
+        assertThat(changes.isFull()).isFalse();
+        assertThat(changes.getItems()).extracting(ItemDto::getName).containsExactly("Umbenannt");
+        assertThat(changes.getDeletedIds()).containsExactly(firstItemId + 1);
+        assertThat(changes.getWatermark()).isAfter(since);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void getItemChanges_WithoutWatermark_ShouldReturnFullInventory() {
+        // Given
+        setUp(3);
+        itemService.deleteItem(firstItemId, principal);
+
+        // When
+        ItemChangesResponse changes = itemService.getItemChanges(null, principal);
+
+        // Then
+        assertThat(changes.isFull()).isTrue();
+        assertThat(changes.getItems()).hasSize(2);
+        assertThat(changes.getDeletedIds()).isEmpty();
+    }
+}
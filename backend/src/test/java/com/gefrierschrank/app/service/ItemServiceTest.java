@@ -1,15 +1,25 @@
 package com.gefrierschrank.app.service;
 
+import com.gefrierschrank.app.constants.AppConstants;
 import com.gefrierschrank.app.dto.CreateItemRequest;
+import com.gefrierschrank.app.dto.CursorPage;
+import com.gefrierschrank.app.dto.ItemChangesResponse;
+import com.gefrierschrank.app.dto.ItemCursor;
 import com.gefrierschrank.app.dto.ItemDto;
+import com.gefrierschrank.app.dto.ItemStatisticsDto;
+import com.gefrierschrank.app.dto.ItemSuggestionDto;
 import com.gefrierschrank.app.dto.UpdateItemRequest;
 import com.gefrierschrank.app.entity.Category;
 import com.gefrierschrank.app.entity.ExpiryType;
 import com.gefrierschrank.app.entity.Item;
 import com.gefrierschrank.app.entity.User;
-import com.gefrierschrank.app.repository.CategoryRepository;
+import com.gefrierschrank.app.event.ItemChangedEvent;
+import com.gefrierschrank.app.repository.DeletedItemRepository;
 import com.gefrierschrank.app.repository.ItemRepository;
 import com.gefrierschrank.app.repository.UserRepository;
+import com.gefrierschrank.app.search.ItemSearchIndex;
+import com.gefrierschrank.app.search.SuggestionTrie;
+import com.gefrierschrank.app.security.UserPrincipal;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,17 +27,22 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -40,17 +55,30 @@ class ItemServiceTest {
     private ItemRepository itemRepository;
 
     @Mock
-    private CategoryRepository categoryRepository;
+    private CategoryRegistry categoryRegistry;
 
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private DeletedItemRepository deletedItemRepository;
+
+    @Mock
+    private ItemStatisticsTracker statisticsTracker;
+
+    @Mock
+    private ItemSearchIndex searchIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ItemService itemService;
 
     private User testUser;
     private Category testCategory;
     private Item testItem;
+    private UserPrincipal principal;
     private CreateItemRequest createRequest;
     private UpdateItemRequest updateRequest;
 
@@ -63,6 +91,8 @@ class ItemServiceTest {
         testUser.setEmail("test@example.com");
         testUser.setCreatedAt(LocalDateTime.now());
 
+        principal = UserPrincipal.create(testUser);
+
         // Setup test category
         testCategory = new Category();
         testCategory.setId(1L);
@@ -110,43 +140,32 @@ class ItemServiceTest {
     @Test
     void getAllItemsByUser_ShouldReturnItemDtos() {
         // Given
-        List<Item> items = Arrays.asList(testItem);
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
-        when(itemRepository.findByUserOrderByCreatedAtDesc(testUser)).thenReturn(items);
+        List<ItemDto> items = Arrays.asList(new ItemDto(testItem));
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
+        when(itemRepository.findDtosByUser(testUser)).thenReturn(items);
 
         // When
-        List<ItemDto> result = itemService.getAllItemsByUser("testuser");
+        List<ItemDto> result = itemService.getAllItemsByUser(principal);
 
         // Then
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getName()).isEqualTo("Chicken Breast");
-        verify(userRepository).findByUsername("testuser");
-        verify(itemRepository).findByUserOrderByCreatedAtDesc(testUser);
-    }
-
-    @Test
-    void getAllItemsByUser_UserNotFound_ShouldThrowException() {
-        // Given
-        when(userRepository.findByUsername("nonexistent")).thenReturn(Optional.empty());
-
-        // When & Then
-        assertThatThrownBy(() -> itemService.getAllItemsByUser("nonexistent"))
-                .isInstanceOf(EntityNotFoundException.class)
-                .hasMessage("User not found with username: nonexistent");
+        verify(userRepository, never()).findByUsername(any());
+        verify(itemRepository).findDtosByUser(testUser);
     }
 
     @Test
     void getItemsByUserPaginated_ShouldReturnPagedItems() {
         // Given
-        List<Item> items = Arrays.asList(testItem);
-        Page<Item> itemPage = new PageImpl<>(items);
+        List<ItemDto> items = Arrays.asList(new ItemDto(testItem));
+        Page<ItemDto> itemPage = new PageImpl<>(items);
         Pageable pageable = PageRequest.of(0, 10);
         
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
-        when(itemRepository.findByUserOrderByCreatedAtDesc(testUser, pageable)).thenReturn(itemPage);
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
+        when(itemRepository.findDtosByUser(testUser, pageable)).thenReturn(itemPage);
 
         // When
-        Page<ItemDto> result = itemService.getItemsByUserPaginated("testuser", pageable);
+        Page<ItemDto> result = itemService.getItemsByUserPaginated(principal, pageable);
 
         // Then
         assertThat(result).hasSize(1);
@@ -156,10 +175,10 @@ class ItemServiceTest {
     @Test
     void getItemById_ValidIdAndUser_ShouldReturnItemDto() {
         // Given
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(testItem));
+        when(itemRepository.findDtoByIdAndUserId(1L, 1L)).thenReturn(Optional.of(new ItemDto(testItem)));
 
         // When
-        ItemDto result = itemService.getItemById(1L, "testuser");
+        ItemDto result = itemService.getItemById(1L, principal);
 
         // Then
         assertThat(result.getId()).isEqualTo(1L);
@@ -169,48 +188,50 @@ class ItemServiceTest {
     @Test
     void getItemById_ItemNotFound_ShouldThrowException() {
         // Given
-        when(itemRepository.findById(999L)).thenReturn(Optional.empty());
+        when(itemRepository.findDtoByIdAndUserId(999L, 1L)).thenReturn(Optional.empty());
 
         // When & Then
-        assertThatThrownBy(() -> itemService.getItemById(999L, "testuser"))
+        assertThatThrownBy(() -> itemService.getItemById(999L, principal))
                 .isInstanceOf(EntityNotFoundException.class)
                 .hasMessage("Item not found with id: 999");
     }
 
     @Test
-    void getItemById_WrongUser_ShouldThrowSecurityException() {
+    void getItemById_WrongUser_ShouldReportNotFound() {
         // Given
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(testItem));
+        UserPrincipal otherUser = new UserPrincipal(2L, "wronguser", "wrong@example.com", null, List.of());
+        when(itemRepository.findDtoByIdAndUserId(1L, 2L)).thenReturn(Optional.empty());
 
         // When & Then
-        assertThatThrownBy(() -> itemService.getItemById(1L, "wronguser"))
-                .isInstanceOf(SecurityException.class)
-                .hasMessage("User is not authorized to access this item");
+        assertThatThrownBy(() -> itemService.getItemById(1L, otherUser))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessage("Item not found with id: 1");
     }
 
     @Test
     void createItem_ValidRequest_ShouldCreateItem() {
         // Given
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
-        when(categoryRepository.findById(1L)).thenReturn(Optional.of(testCategory));
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
+        when(categoryRegistry.getById(1L)).thenReturn(testCategory);
         when(itemRepository.save(any(Item.class))).thenReturn(testItem);
 
         // When
-        ItemDto result = itemService.createItem(createRequest, "testuser");
+        ItemDto result = itemService.createItem(createRequest, principal);
 
         // Then
         assertThat(result).isNotNull();
         verify(itemRepository).save(any(Item.class));
+        verify(eventPublisher).publishEvent(argThat((ItemChangedEvent event) -> !event.isDeleted()));
     }
 
     @Test
     void createItem_CategoryNotFound_ShouldThrowException() {
         // Given
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
-        when(categoryRepository.findById(1L)).thenReturn(Optional.empty());
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
+        when(categoryRegistry.getById(1L)).thenThrow(new EntityNotFoundException("Category not found with id: 1"));
 
         // When & Then
-        assertThatThrownBy(() -> itemService.createItem(createRequest, "testuser"))
+        assertThatThrownBy(() -> itemService.createItem(createRequest, principal))
                 .isInstanceOf(EntityNotFoundException.class)
                 .hasMessage("Category not found with id: 1");
     }
@@ -219,11 +240,11 @@ class ItemServiceTest {
     void createItem_InvalidQuantity_TooSmall_ShouldThrowException() {
         // Given
         createRequest.setQuantity(new BigDecimal("0.05")); // Below minimum
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
-        when(categoryRepository.findById(1L)).thenReturn(Optional.of(testCategory));
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
+        when(categoryRegistry.getById(1L)).thenReturn(testCategory);
 
         // When & Then
-        assertThatThrownBy(() -> itemService.createItem(createRequest, "testuser"))
+        assertThatThrownBy(() -> itemService.createItem(createRequest, principal))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessage("Quantity cannot be less than minimum value: 0.1");
     }
@@ -232,11 +253,11 @@ class ItemServiceTest {
     void createItem_InvalidQuantity_TooLarge_ShouldThrowException() {
         // Given
         createRequest.setQuantity(new BigDecimal("10.0")); // Above maximum
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
-        when(categoryRepository.findById(1L)).thenReturn(Optional.of(testCategory));
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
+        when(categoryRegistry.getById(1L)).thenReturn(testCategory);
 
         // When & Then
-        assertThatThrownBy(() -> itemService.createItem(createRequest, "testuser"))
+        assertThatThrownBy(() -> itemService.createItem(createRequest, principal))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessage("Quantity cannot be greater than maximum value: 5.0");
     }
@@ -245,11 +266,11 @@ class ItemServiceTest {
     void createItem_InvalidQuantity_WrongStep_ShouldThrowException() {
         // Given
         createRequest.setQuantity(new BigDecimal("1.15")); // Not aligned with 0.1 step
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
-        when(categoryRepository.findById(1L)).thenReturn(Optional.of(testCategory));
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
+        when(categoryRegistry.getById(1L)).thenReturn(testCategory);
 
         // When & Then
-        assertThatThrownBy(() -> itemService.createItem(createRequest, "testuser"))
+        assertThatThrownBy(() -> itemService.createItem(createRequest, principal))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessage("Quantity must be in steps of: 0.1");
     }
@@ -257,57 +278,120 @@ class ItemServiceTest {
     @Test
     void updateItem_ValidRequest_ShouldUpdateItem() {
         // Given
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(testItem));
-        when(categoryRepository.findById(1L)).thenReturn(Optional.of(testCategory));
+        when(itemRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(testItem));
+        when(categoryRegistry.getById(1L)).thenReturn(testCategory);
         when(itemRepository.save(any(Item.class))).thenReturn(testItem);
 
         // When
-        ItemDto result = itemService.updateItem(1L, updateRequest, "testuser");
+        ItemDto result = itemService.updateItem(1L, updateRequest, principal);
 
         // Then
         assertThat(result).isNotNull();
         verify(itemRepository).save(testItem);
+        verify(eventPublisher).publishEvent(argThat((ItemChangedEvent event) -> !event.isDeleted()));
     }
 
     @Test
     void deleteItem_ValidId_ShouldDeleteItem() {
         // Given
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(testItem));
+        when(itemRepository.deleteByIdAndUserId(1L, 1L)).thenReturn(1);
 
         // When
-        itemService.deleteItem(1L, "testuser");
+        itemService.deleteItem(1L, principal);
 
         // Then
-        verify(itemRepository).delete(testItem);
+        verify(itemRepository, never()).findById(any());
+        verify(deletedItemRepository).save(argThat(tombstone ->
+                tombstone.getItemId().equals(1L) && tombstone.getUserId().equals(1L)));
+        verify(eventPublisher).publishEvent(argThat((ItemChangedEvent event) ->
+                event.isDeleted() && event.getItemId().equals(1L) && event.getUsername().equals("testuser")));
     }
 
     @Test
     void searchItemsByName_ShouldReturnMatchingItems() {
         // Given
-        List<Item> items = Arrays.asList(testItem);
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
-        when(itemRepository.findByUserAndNameContainingIgnoreCase(testUser, "chicken"))
-                .thenReturn(items);
+        List<ItemDto> items = Arrays.asList(new ItemDto(testItem));
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
+        when(searchIndex.search("testuser", "chicken")).thenReturn(Set.of(1L));
+        when(itemRepository.findDtosByUserAndIdIn(testUser, Set.of(1L))).thenReturn(items);
 
         // When
-        List<ItemDto> result = itemService.searchItemsByName("chicken", "testuser");
+        List<ItemDto> result = itemService.searchItemsByName("chicken", principal);
 
         // Then
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getName()).isEqualTo("Chicken Breast");
     }
 
+    @Test
+    void searchItemsByName_NoIndexHits_ShouldNotQueryItems() {
+        // Given
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
+        when(searchIndex.search("testuser", "lachs")).thenReturn(Set.of());
+
+        // When
+        List<ItemDto> result = itemService.searchItemsByName("lachs", principal);
+
+        // Then
+        assertThat(result).isEmpty();
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    void fuzzySearchItemsByName_ShouldRankByDistanceThenRecency() {
+        // Given
+        ItemDto newest = new ItemDto(testItem);
+        newest.setId(3L);
+        ItemDto middle = new ItemDto(testItem);
+        middle.setId(2L);
+        ItemDto oldest = new ItemDto(testItem);
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
+        when(searchIndex.fuzzySearch("testuser", "chikcen")).thenReturn(Map.of(1L, 1, 2L, 2, 3L, 2));
+        when(itemRepository.findDtosByUserAndIdIn(eq(testUser), anyCollection()))
+                .thenReturn(Arrays.asList(newest, middle, oldest));
+
+        // When
+        List<ItemDto> result = itemService.fuzzySearchItemsByName("chikcen", principal);
+
+        // Then
+        assertThat(result).extracting(ItemDto::getId).containsExactly(1L, 3L, 2L);
+    }
+
+    @Test
+    void suggestItemNames_ShouldMapTrieSuggestions() {
+        // Given
+        when(searchIndex.suggest("testuser", "chi", 5))
+                .thenReturn(List.of(new SuggestionTrie.Suggestion("Chicken Breast", 2)));
+
+        // When
+        List<ItemSuggestionDto> result = itemService.suggestItemNames("chi", principal, 5);
+
+        // Then
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getName()).isEqualTo("Chicken Breast");
+        assertThat(result.get(0).getCount()).isEqualTo(2);
+        verifyNoInteractions(itemRepository, userRepository);
+    }
+
+    @Test
+    void suggestItemNames_LimitTooLarge_ShouldThrowException() {
+        // When & Then
+        assertThatThrownBy(() -> itemService.suggestItemNames("chi", principal, 50))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Limit must be between 1 and 10");
+    }
+
     @Test
     void getItemsByCategory_ValidCategory_ShouldReturnItems() {
         // Given
-        List<Item> items = Arrays.asList(testItem);
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
-        when(categoryRepository.findById(1L)).thenReturn(Optional.of(testCategory));
-        when(itemRepository.findByUserAndCategoryOrderByCreatedAtDesc(testUser, testCategory))
+        List<ItemDto> items = Arrays.asList(new ItemDto(testItem));
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
+        when(categoryRegistry.getById(1L)).thenReturn(testCategory);
+        when(itemRepository.findDtosByUserAndCategory(testUser, testCategory))
                 .thenReturn(items);
 
         // When
-        List<ItemDto> result = itemService.getItemsByCategory(1L, "testuser");
+        List<ItemDto> result = itemService.getItemsByCategory(1L, principal);
 
         // Then
         assertThat(result).hasSize(1);
@@ -317,14 +401,14 @@ class ItemServiceTest {
     @Test
     void getExpiringSoonItems_ShouldReturnItemsExpiringSoon() {
         // Given
-        List<Item> items = Arrays.asList(testItem);
+        List<ItemDto> items = Arrays.asList(new ItemDto(testItem));
         LocalDate expiryDate = LocalDate.now().plusDays(7);
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
-        when(itemRepository.findByUserAndExpiringSoon(testUser, expiryDate))
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
+        when(itemRepository.findDtosByUserAndExpiringSoon(testUser, expiryDate))
                 .thenReturn(items);
 
         // When
-        List<ItemDto> result = itemService.getExpiringSoonItems(7, "testuser");
+        List<ItemDto> result = itemService.getExpiringSoonItems(7, principal);
 
         // Then
         assertThat(result).hasSize(1);
@@ -334,12 +418,12 @@ class ItemServiceTest {
     @Test
     void getExpiredItems_ShouldReturnExpiredItems() {
         // Given
-        List<Item> items = Arrays.asList(testItem);
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
-        when(itemRepository.findByUserAndExpired(testUser)).thenReturn(items);
+        List<ItemDto> items = Arrays.asList(new ItemDto(testItem));
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
+        when(itemRepository.findDtosByUserAndExpired(testUser)).thenReturn(items);
 
         // When
-        List<ItemDto> result = itemService.getExpiredItems("testuser");
+        List<ItemDto> result = itemService.getExpiredItems(principal);
 
         // Then
         assertThat(result).hasSize(1);
@@ -347,100 +431,167 @@ class ItemServiceTest {
     }
 
     @Test
-    void getTotalItemsCount_ShouldReturnCount() {
+    void getItemStatistics_ShouldReadTrackedCounters() {
         // Given
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
-        when(itemRepository.countByUser(testUser)).thenReturn(5L);
+        ItemStatisticsDto statistics = new ItemStatisticsDto();
+        statistics.setTotalItems(3);
+        when(statisticsTracker.getStatistics("testuser")).thenReturn(statistics);
 
         // When
-        long result = itemService.getTotalItemsCount("testuser");
+        ItemStatisticsDto result = itemService.getItemStatistics(principal);
 
         // Then
-        assertThat(result).isEqualTo(5L);
+        assertThat(result.getTotalItems()).isEqualTo(3);
+        verifyNoInteractions(itemRepository, userRepository);
     }
 
     @Test
     void getExpiringSoonCount_ShouldReturnCount() {
         // Given
         LocalDate expiryDate = LocalDate.now().plusDays(7);
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
         when(itemRepository.countByUserAndExpiringSoon(testUser, expiryDate)).thenReturn(3L);
 
         // When
-        long result = itemService.getExpiringSoonCount(7, "testuser");
+        long result = itemService.getExpiringSoonCount(7, principal);
 
         // Then
         assertThat(result).isEqualTo(3L);
     }
 
     @Test
-    void getExpiredCount_ShouldReturnCount() {
+    void updateItem_ForeignItem_ShouldThrowExceptionWithoutSaving() {
         // Given
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
-        when(itemRepository.countByUserAndExpired(testUser)).thenReturn(2L);
+        when(itemRepository.findByIdAndUserId(2L, 1L)).thenReturn(Optional.empty());
 
-        // When
-        long result = itemService.getExpiredCount("testuser");
-
-        // Then
-        assertThat(result).isEqualTo(2L);
+        // When & Then
+        assertThatThrownBy(() -> itemService.updateItem(2L, updateRequest, principal))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessage("Item not found with id: 2");
+        verify(itemRepository, never()).save(any(Item.class));
     }
 
     @Test
-    void isItemOwner_ValidOwner_ShouldReturnTrue() {
+    void deleteItem_ForeignOrMissingItem_ShouldThrowExceptionWithoutEvent() {
         // Given
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(testItem));
+        when(itemRepository.deleteByIdAndUserId(2L, 1L)).thenReturn(0);
 
-        // When
-        boolean result = itemService.isItemOwner(1L, "testuser");
-
-        // Then
-        assertThat(result).isTrue();
+        // When & Then
+        assertThatThrownBy(() -> itemService.deleteItem(2L, principal))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessage("Item not found with id: 2");
+        verifyNoInteractions(eventPublisher, deletedItemRepository);
     }
 
     @Test
-    void isItemOwner_WrongOwner_ShouldReturnFalse() {
+    void getItemChanges_RecentWatermark_ShouldReturnChangesFromOverlapWindow() {
         // Given
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(testItem));
+        LocalDateTime since = LocalDateTime.now().minusHours(1);
+        LocalDateTime from = since.minusSeconds(AppConstants.SYNC_OVERLAP_SECONDS);
+        List<ItemDto> items = List.of(new ItemDto(testItem));
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
+        when(itemRepository.findDtosByUserUpdatedAfter(testUser, from)).thenReturn(items);
+        when(deletedItemRepository.findItemIdsDeletedAfter(1L, from)).thenReturn(List.of(7L));
 
         // When
-        boolean result = itemService.isItemOwner(1L, "wronguser");
+        ItemChangesResponse result = itemService.getItemChanges(since, principal);
 
         // Then
-        assertThat(result).isFalse();
+        assertThat(result.isFull()).isFalse();
+        assertThat(result.getItems()).isEqualTo(items);
+        assertThat(result.getDeletedIds()).containsExactly(7L);
+        assertThat(result.getWatermark()).isAfter(since);
+        verify(itemRepository, never()).findDtosByUser(any());
     }
 
     @Test
-    void isItemOwner_ItemNotFound_ShouldReturnFalse() {
+    void getItemChanges_WatermarkOlderThanTombstones_ShouldReturnFullInventory() {
         // Given
-        when(itemRepository.findById(999L)).thenReturn(Optional.empty());
+        LocalDateTime since = LocalDateTime.now().minusDays(AppConstants.DELETED_ITEM_RETENTION_DAYS + 1);
+        List<ItemDto> items = List.of(new ItemDto(testItem));
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
+        when(itemRepository.findDtosByUser(testUser)).thenReturn(items);
 
         // When
-        boolean result = itemService.isItemOwner(999L, "testuser");
+        ItemChangesResponse result = itemService.getItemChanges(since, principal);
 
         // Then
-        assertThat(result).isFalse();
+        assertThat(result.isFull()).isTrue();
+        assertThat(result.getItems()).isEqualTo(items);
+        assertThat(result.getDeletedIds()).isEmpty();
+        verifyNoInteractions(deletedItemRepository);
     }
 
     @Test
     void getItemsWithFilters_AllFilters_ShouldReturnFilteredItems() {
         // Given
-        List<Item> items = Arrays.asList(testItem);
-        Page<Item> itemPage = new PageImpl<>(items);
+        List<ItemDto> items = Arrays.asList(new ItemDto(testItem));
+        Page<ItemDto> itemPage = new PageImpl<>(items);
         Pageable pageable = PageRequest.of(0, 10);
-        LocalDate expiryDate = LocalDate.now().plusDays(7);
         
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
-        when(categoryRepository.findById(1L)).thenReturn(Optional.of(testCategory));
-        when(itemRepository.findByUserWithFilters(testUser, testCategory, "chicken", 
-                true, expiryDate, "name", pageable)).thenReturn(itemPage);
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
+        when(searchIndex.search("testuser", "chicken")).thenReturn(Set.of(1L));
+        when(itemRepository.findDtos(any(Specification.class), eq(PageRequest.of(0, 10, Sort.by("name", "id")))))
+                .thenReturn(itemPage);
 
         // When
-        Page<ItemDto> result = itemService.getItemsWithFilters("testuser", 1L, "chicken", 
+        Page<ItemDto> result = itemService.getItemsWithFilters(principal, 1L, "chicken", 
                 true, 7, "name", pageable);
 
         // Then
         assertThat(result).hasSize(1);
         assertThat(result.getContent().get(0).getName()).isEqualTo("Chicken Breast");
     }
+
+    @Test
+    void getItemsByUserAfterCursor_MoreItemsThanPageSize_ShouldReturnNextCursor() {
+        // Given
+        ItemDto newer = new ItemDto(testItem);
+        newer.setId(2L);
+        ItemDto older = new ItemDto(testItem);
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
+        when(itemRepository.findDtoSliceByUser(testUser, PageRequest.of(0, 2)))
+                .thenReturn(Arrays.asList(newer, older));
+
+        // When
+        CursorPage<ItemDto> result = itemService.getItemsByUserAfterCursor(principal, "", 1);
+
+        // Then
+        assertThat(result.getContent()).containsExactly(newer);
+        ItemCursor next = ItemCursor.decode(result.getNextCursor());
+        assertThat(next.getId()).isEqualTo(2L);
+        assertThat(next.getCreatedAt()).isEqualTo(testItem.getCreatedAt());
+    }
+
+    @Test
+    void getItemsByUserAfterCursor_WithCursor_ShouldSeekPastCursor() {
+        // Given
+        String cursor = ItemCursor.after(new ItemDto(testItem), ItemCursor.SortKey.CREATED).encode();
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
+        when(itemRepository.findDtoSliceByUserBefore(testUser, testItem.getCreatedAt(), 1L, PageRequest.of(0, 11)))
+                .thenReturn(List.of());
+
+        // When
+        CursorPage<ItemDto> result = itemService.getItemsByUserAfterCursor(principal, cursor, 10);
+
+        // Then
+        assertThat(result.getContent()).isEmpty();
+        assertThat(result.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getItemsByUserAfterCursor_InvalidCursor_ShouldThrowException() {
+        // When & Then
+        assertThatThrownBy(() -> itemService.getItemsByUserAfterCursor(principal, "not-a-cursor", 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+    }
+
+    @Test
+    void getItemsWithFiltersAfterCursor_UnsupportedSort_ShouldThrowException() {
+        // When & Then
+        assertThatThrownBy(() -> itemService.getItemsWithFiltersAfterCursor(principal, null, null,
+                false, 7, "name", "", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,194 @@
+package com.gefrierschrank.app.service;
+
+import com.gefrierschrank.app.dto.ItemDto;
+import com.gefrierschrank.app.dto.ItemStatisticsDto;
+import com.gefrierschrank.app.entity.ExpiryType;
+import com.gefrierschrank.app.event.CategoryChangedEvent;
+import com.gefrierschrank.app.event.ItemChangedEvent;
+import com.gefrierschrank.app.repository.ItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemStatisticsTrackerTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 10);
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private MutableClock clock;
+    private ItemStatisticsTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(TODAY);
+        tracker = new ItemStatisticsTracker(itemRepository, clock);
+
+        List<Object[]> facts = new ArrayList<>();
+        facts.add(new Object[]{1L, "Fleisch", ExpiryType.BEST_BEFORE, TODAY.plusDays(3)});
+        facts.add(new Object[]{2L, "Fleisch", ExpiryType.USE_BY, TODAY.minusDays(1)});
+        facts.add(new Object[]{3L, "Gemüse", ExpiryType.BEST_BEFORE, TODAY.plusDays(20)});
+        facts.add(new Object[]{4L, "Gemüse", ExpiryType.BEST_BEFORE, null});
+        facts.add(new Object[]{5L, "Fisch", ExpiryType.USE_BY, TODAY.plusDays(8)});
+        lenient().when(itemRepository.findStatisticsFactsByUsername("testuser")).thenReturn(facts);
+    }
+
+    @Test
+    void getStatistics_FirstAccess_ShouldLoadFromDatabaseOnce() {
+        // When
+        ItemStatisticsDto first = tracker.getStatistics("testuser");
+        ItemStatisticsDto second = tracker.getStatistics("testuser");
+
+        // Then
+        assertThat(first.getTotalItems()).isEqualTo(5);
+        assertThat(first.getExpiringSoon()).isEqualTo(1);
+        assertThat(first.getExpired()).isEqualTo(1);
+        assertThat(first.getByCategory()).containsExactly(
+                entry("Fleisch", 2L), entry("Gemüse", 2L), entry("Fisch", 1L));
+        assertThat(first.getByExpiryType())
+                .containsEntry(ExpiryType.BEST_BEFORE, 3L)
+                .containsEntry(ExpiryType.USE_BY, 2L);
+        assertThat(second.getTotalItems()).isEqualTo(5);
+        verify(itemRepository, times(1)).findStatisticsFactsByUsername("testuser");
+    }
+
+    @Test
+    void onItemChanged_ShouldMoveItemBetweenBuckets() {
+        // Given
+        tracker.getStatistics("testuser");
+
+        // When - item 3 now expires tomorrow and moves to another category
+        tracker.onItemChanged(ItemChangedEvent.saved(item(3L, "Fisch", ExpiryType.BEST_BEFORE, TODAY.plusDays(1))));
+
+        // Then
+        ItemStatisticsDto statistics = tracker.getStatistics("testuser");
+        assertThat(statistics.getTotalItems()).isEqualTo(5);
+        assertThat(statistics.getExpiringSoon()).isEqualTo(2);
+        assertThat(statistics.getByCategory()).containsEntry("Fisch", 2L).containsEntry("Gemüse", 1L);
+    }
+
+    @Test
+    void onItemChanged_SameEventTwice_ShouldCountItOnce() {
+        // Given
+        tracker.getStatistics("testuser");
+        ItemChangedEvent created = ItemChangedEvent.saved(item(6L, "Fisch", ExpiryType.USE_BY, TODAY));
+
+        // When
+        tracker.onItemChanged(created);
+        tracker.onItemChanged(created);
+        tracker.onItemChanged(ItemChangedEvent.deleted("testuser", 2L));
+        tracker.onItemChanged(ItemChangedEvent.deleted("testuser", 2L));
+
+        // Then
+        ItemStatisticsDto statistics = tracker.getStatistics("testuser");
+        assertThat(statistics.getTotalItems()).isEqualTo(5);
+        assertThat(statistics.getExpiringSoon()).isEqualTo(2);
+        assertThat(statistics.getExpired()).isZero();
+        assertThat(statistics.getByCategory()).containsEntry("Fleisch", 1L).containsEntry("Fisch", 2L);
+    }
+
+    @Test
+    void onItemChanged_UserNotLoaded_ShouldNotTouchDatabase() {
+        // When
+        tracker.onItemChanged(ItemChangedEvent.deleted("testuser", 1L));
+
+        // Then
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    void rollOver_NextDay_ShouldShiftItemsIntoExpiringAndExpired() {
+        // Given
+        tracker.getStatistics("testuser");
+        tracker.onItemChanged(ItemChangedEvent.saved(item(6L, "Fisch", ExpiryType.USE_BY, TODAY)));
+
+        // When - items 6 (today) expires, item 5 (today + 8) enters the warning window
+        clock.setDate(TODAY.plusDays(1));
+        tracker.rollOver();
+
+        // Then
+        ItemStatisticsDto statistics = tracker.getStatistics("testuser");
+        assertThat(statistics.getExpired()).isEqualTo(2);
+        assertThat(statistics.getExpiringSoon()).isEqualTo(2);
+    }
+
+    @Test
+    void getStatistics_DateChangedWithoutScheduledRollover_ShouldStillRollOver() {
+        // Given
+        tracker.getStatistics("testuser");
+
+        // When
+        clock.setDate(TODAY.plusDays(4));
+        ItemStatisticsDto statistics = tracker.getStatistics("testuser");
+
+        // Then
+        assertThat(statistics.getExpired()).isEqualTo(2);
+        assertThat(statistics.getExpiringSoon()).isEqualTo(1);
+    }
+
+    @Test
+    void onCategoryChanged_ShouldReloadOnNextAccess() {
+        // Given
+        tracker.getStatistics("testuser");
+
+        // When
+        tracker.onCategoryChanged(new CategoryChangedEvent(1L));
+        tracker.getStatistics("testuser");
+
+        // Then
+        verify(itemRepository, times(2)).findStatisticsFactsByUsername("testuser");
+    }
+
+    private ItemDto item(Long id, String categoryName, ExpiryType expiryType, LocalDate expiryDate) {
+        ItemDto item = new ItemDto();
+        item.setId(id);
+        item.setUsername("testuser");
+        item.setCategoryName(categoryName);
+        item.setExpiryType(expiryType);
+        item.setExpiryDate(expiryDate);
+        return item;
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        MutableClock(LocalDate date) {
+            setDate(date);
+        }
+
+        void setDate(LocalDate date) {
+            instant = date.atTime(12, 0).toInstant(ZoneOffset.UTC);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
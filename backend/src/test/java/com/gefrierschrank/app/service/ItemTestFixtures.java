@@ -0,0 +1,57 @@
+package com.gefrierschrank.app.service;
+
+import com.gefrierschrank.app.entity.Category;
+import com.gefrierschrank.app.entity.ExpiryType;
+import com.gefrierschrank.app.entity.Item;
+import com.gefrierschrank.app.entity.User;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Persists the users, category and items that the {@code @DataJpaTest} service tests work on.
+ */
+class ItemTestFixtures {
+
+    private final TestEntityManager entityManager;
+
+    ItemTestFixtures(TestEntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    User persistUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("password");
+        user.setRole(User.Role.USER);
+        user.setCreatedAt(LocalDateTime.now());
+        return entityManager.persist(user);
+    }
+
+    // "Fleisch" in kg, 0.1 to 50.0 in steps of 0.1
+    Category persistCategory() {
+        Category category = new Category();
+        category.setName("Fleisch");
+        category.setDefaultUnit("kg");
+        category.setUnitStep(new BigDecimal("0.1"));
+        category.setMinValue(new BigDecimal("0.1"));
+        category.setMaxValue(new BigDecimal("50.0"));
+        return entityManager.persist(category);
+    }
+
+    // 1.5 kg, best before 2030-01-31
+    Item persistItem(String name, Category category, User owner) {
+        Item item = new Item();
+        item.setName(name);
+        item.setCategory(category);
+        item.setUser(owner);
+        item.setQuantity(new BigDecimal("1.5"));
+        item.setUnit("kg");
+        item.setExpiryDate(LocalDate.of(2030, 1, 31));
+        item.setExpiryType(ExpiryType.BEST_BEFORE);
+        return entityManager.persist(item);
+    }
+}
@@ -8,6 +8,7 @@ import { ReactNode } from 'react';
 vi.mock('../../services/api', () => ({
   authAPI: {
     login: vi.fn(),
+    logout: vi.fn(),
   },
 }));
 
@@ -33,6 +34,7 @@ describe('useAuth Hook', () => {
   beforeEach(() => {
     vi.clearAllMocks();
     mockLocalStorage.getItem.mockReturnValue(null);
+    mockAuthAPI.logout.mockResolvedValue(undefined);
   });
 
   afterEach(() => {
@@ -77,7 +79,8 @@ describe('useAuth Hook', () => {
 
   it('handles successful login', async () => {
     const mockResponse = {
-      token: 'new-jwt-token',
+      accessToken: 'new-jwt-token',
+      refreshToken: 'refresh-token',
       id: 1,
       username: 'testuser',
       email: 'test@example.com',
@@ -106,6 +109,7 @@ describe('useAuth Hook', () => {
     expect(result.current.token).toBe('new-jwt-token');
 
     expect(mockLocalStorage.setItem).toHaveBeenCalledWith('token', 'new-jwt-token');
+    expect(mockLocalStorage.setItem).toHaveBeenCalledWith('refreshToken', 'refresh-token');
     expect(mockLocalStorage.setItem).toHaveBeenCalledWith('user', JSON.stringify({
       id: 1,
       username: 'testuser',
@@ -142,6 +146,7 @@ describe('useAuth Hook', () => {
 
     mockLocalStorage.getItem.mockImplementation((key: string) => {
       if (key === 'token') return mockToken;
+      if (key === 'refreshToken') return 'refresh-token';
       if (key === 'user') return JSON.stringify(mockUser);
       return null;
     });
@@ -158,13 +163,16 @@ describe('useAuth Hook', () => {
 
     expect(result.current.user).toBeNull();
     expect(result.current.token).toBeNull();
+    expect(mockAuthAPI.logout).toHaveBeenCalledWith(mockToken, 'refresh-token');
     expect(mockLocalStorage.removeItem).toHaveBeenCalledWith('token');
+    expect(mockLocalStorage.removeItem).toHaveBeenCalledWith('refreshToken');
     expect(mockLocalStorage.removeItem).toHaveBeenCalledWith('user');
   });
 
   it('handles login with admin user', async () => {
     const mockResponse = {
-      token: 'admin-jwt-token',
+      accessToken: 'admin-jwt-token',
+      refreshToken: 'refresh-token',
       id: 2,
       username: 'admin',
       email: 'admin@example.com',
@@ -243,7 +251,8 @@ describe('useAuth Hook', () => {
 
   it('maintains user state after successful login and logout', async () => {
     const mockResponse = {
-      token: 'jwt-token',
+      accessToken: 'jwt-token',
+      refreshToken: 'refresh-token',
       id: 1,
       username: 'testuser',
       email: 'test@example.com',
@@ -44,10 +44,11 @@ export const AuthProvider: React.FC<AuthProviderProps> = ({ children }) => {
         roles: response.roles,
       };
 
-      setToken(response.token);
+      setToken(response.accessToken);
       setUser(userData);
       
-      localStorage.setItem('token', response.token);
+      localStorage.setItem('token', response.accessToken);
+      localStorage.setItem('refreshToken', response.refreshToken);
       localStorage.setItem('user', JSON.stringify(userData));
     } catch (error) {
       console.error('Login failed:', error);
@@ -56,9 +57,16 @@ export const AuthProvider: React.FC<AuthProviderProps> = ({ children }) => {
   };
 
   const logout = (): void => {
+    // The stored token may be newer than the state after a refresh
+    const storedToken = localStorage.getItem('token');
+    if (storedToken) {
+      authAPI.logout(storedToken, localStorage.getItem('refreshToken')).catch(() => undefined);
+    }
+
     setToken(null);
     setUser(null);
     localStorage.removeItem('token');
+    localStorage.removeItem('refreshToken');
     localStorage.removeItem('user');
   };
 
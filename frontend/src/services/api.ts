@@ -1,4 +1,4 @@
-import axios from 'axios';
+import axios, { AxiosError, InternalAxiosRequestConfig } from 'axios';
 import { LoginRequest, LoginResponse, Item, CreateItemRequest, UpdateItemRequest, Category } from '../types';
 
 const api = axios.create({
@@ -20,12 +20,49 @@ api.interceptors.request.use(
   (error) => Promise.reject(error)
 );
 
+// Access tokens are short-lived. On a 401 the stored refresh token is exchanged once for a new
+// pair and the request is retried; only when that fails is the session over.
+type RetriableRequestConfig = InternalAxiosRequestConfig & { _retried?: boolean };
+
+// Refresh tokens work once, so requests failing together must share a single refresh
+let pendingRefresh: Promise<string> | null = null;
+
+const refreshAccessToken = (): Promise<string> => {
+  if (!pendingRefresh) {
+    const refreshToken = localStorage.getItem('refreshToken');
+    pendingRefresh = (refreshToken
+      ? axios.post<LoginResponse>('/api/auth/refresh', { refreshToken }).then(({ data }) => {
+          localStorage.setItem('token', data.accessToken);
+          localStorage.setItem('refreshToken', data.refreshToken);
+          return data.accessToken;
+        })
+      : Promise.reject(new Error('No refresh token stored'))
+    ).finally(() => {
+      pendingRefresh = null;
+    });
+  }
+  return pendingRefresh;
+};
+
 // Response interceptor to handle auth errors
 api.interceptors.response.use(
   (response) => response,
-  (error) => {
+  async (error: AxiosError) => {
+    const request = error.config as RetriableRequestConfig | undefined;
+    if (error.response?.status === 401 && request && !request._retried && !request.url?.startsWith('/auth/')) {
+      request._retried = true;
+      try {
+        const token = await refreshAccessToken();
+        request.headers.Authorization = `Bearer ${token}`;
+        return api(request);
+      } catch {
+        // Fall through to signing out
+      }
+    }
     if (error.response?.status === 401) {
       localStorage.removeItem('token');
+      localStorage.removeItem('refreshToken');
+      localStorage.removeItem('user');
       window.location.href = '/login';
     }
     return Promise.reject(error);
@@ -37,6 +74,13 @@ export const authAPI = {
     const response = await api.post<LoginResponse>('/auth/signin', credentials);
     return response.data;
   },
+
+  // Revokes the access token and ends the refresh token's family on the server
+  logout: async (accessToken: string, refreshToken: string | null): Promise<void> => {
+    await api.post('/auth/logout', refreshToken ? { refreshToken } : undefined, {
+      headers: { Authorization: `Bearer ${accessToken}` },
+    });
+  },
 };
 
 export const itemsAPI = {
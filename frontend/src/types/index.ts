@@ -6,7 +6,8 @@ export interface User {
 }
 
 export interface LoginResponse {
-  token: string;
+  accessToken: string;
+  refreshToken: string;
   id: number;
   username: string;
   email: string;